@@ -0,0 +1,36 @@
+package com.example.ruleengine.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class EvaluationExecutorConfig {
+
+    // Fans out batch and stream items; items block on their own policy fan-out, so this is always unbounded
+    @Bean(destroyMethod = "close")
+    public ExecutorService evaluationExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("evaluation-", 0).factory());
+    }
+
+    // Runs the individual policies of a PARALLEL policy set; these tasks never block on other tasks
+    @Bean(destroyMethod = "close")
+    public ExecutorService policyEvaluationExecutor(
+            @Value("${rule-engine.evaluation.parallel.executor:virtual}") String executorType,
+            @Value("${rule-engine.evaluation.parallel.pool-size:0}") int poolSize) {
+        switch (executorType) {
+            case "virtual":
+                return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("policy-evaluation-", 0).factory());
+            case "platform":
+                int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+                return Executors.newFixedThreadPool(threads,
+                        Thread.ofPlatform().name("policy-evaluation-", 0).daemon(true).factory());
+            default:
+                throw new IllegalStateException("Unknown rule-engine.evaluation.parallel.executor: " + executorType
+                        + " (expected 'virtual' or 'platform')");
+        }
+    }
+}
@@ -2,8 +2,11 @@ package com.example.ruleengine.controller;
 
 import com.example.ruleengine.dto.request.CreatePolicyRequest;
 import com.example.ruleengine.dto.request.TestRuleRequest;
+import com.example.ruleengine.dto.response.EvaluationOrderResponse;
 import com.example.ruleengine.dto.response.PolicyEvaluationResultResponse;
+import com.example.ruleengine.dto.response.PolicyMatchResponse;
 import com.example.ruleengine.dto.response.PolicyResponse;
+import com.example.ruleengine.entity.enums.EvaluationMode;
 import com.example.ruleengine.entity.enums.PolicyType;
 import com.example.ruleengine.service.PolicyEvaluationService;
 import com.example.ruleengine.service.PolicyService;
@@ -74,9 +77,22 @@ public class PolicyController {
     @Operation(summary = "Evaluate a policy against input data")
     public ResponseEntity<PolicyEvaluationResultResponse> evaluatePolicy(
             @PathVariable UUID id,
+            @RequestParam(required = false, defaultValue = "EXHAUSTIVE") EvaluationMode evaluationMode,
             @Valid @RequestBody TestRuleRequest request) {
         PolicyEvaluationResultResponse result = 
-                policyEvaluationService.evaluatePolicy(id, request.getInputData());
+                policyEvaluationService.evaluatePolicy(id, request.getInputData(), evaluationMode);
         return ResponseEntity.ok(result);
     }
+
+    @PostMapping("/evaluate-all")
+    @Operation(summary = "Find every enabled policy matching the input data")
+    public ResponseEntity<PolicyMatchResponse> evaluateAll(@Valid @RequestBody TestRuleRequest request) {
+        return ResponseEntity.ok(policyEvaluationService.evaluateAll(request.getInputData()));
+    }
+
+    @GetMapping("/{id}/evaluation-order")
+    @Operation(summary = "Get the short-circuit evaluation order and the statistics behind it")
+    public ResponseEntity<EvaluationOrderResponse> getEvaluationOrder(@PathVariable UUID id) {
+        return ResponseEntity.ok(policyEvaluationService.getEvaluationOrder(id));
+    }
 }
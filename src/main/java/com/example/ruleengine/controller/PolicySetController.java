@@ -4,16 +4,24 @@ import com.example.ruleengine.dto.request.CreatePolicySetRequest;
 import com.example.ruleengine.dto.request.TestRuleRequest;
 import com.example.ruleengine.dto.response.PolicySetResponse;
 import com.example.ruleengine.dto.response.UnifiedEvaluationResultResponse;
+import com.example.ruleengine.entity.enums.EvaluationMode;
+import com.example.ruleengine.service.BatchEvaluationService;
 import com.example.ruleengine.service.PolicySetService;
 import com.example.ruleengine.service.UnifiedEvaluationService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -25,6 +33,7 @@ public class PolicySetController {
 
     private final PolicySetService policySetService;
     private final UnifiedEvaluationService unifiedEvaluationService;
+    private final BatchEvaluationService batchEvaluationService;
 
     @PostMapping
     @Operation(summary = "Create a new policy set")
@@ -69,13 +78,55 @@ public class PolicySetController {
         return ResponseEntity.noContent().build();
     }
 
-    @PostMapping("/{id}/evaluate")
-    @Operation(summary = "Evaluate a policy set (unified evaluation combining boolean and offer policies)")
+    @PostMapping(value = "/{id}/evaluate", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Evaluate a policy set (unified evaluation combining boolean and offer policies)",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(required = true,
+                    content = @Content(schema = @Schema(implementation = TestRuleRequest.class))))
     public ResponseEntity<UnifiedEvaluationResultResponse> evaluatePolicySet(
             @PathVariable UUID id,
-            @Valid @RequestBody TestRuleRequest request) {
-        UnifiedEvaluationResultResponse result = 
-                unifiedEvaluationService.evaluate(id, request.getInputData());
+            @RequestParam(required = false) EvaluationMode evaluationMode,
+            HttpServletRequest request) throws IOException {
+        // The body is read by the service so feature paths can be extracted straight from the token stream
+        UnifiedEvaluationResultResponse result =
+                unifiedEvaluationService.evaluate(id, request.getInputStream(), evaluationMode);
         return ResponseEntity.ok(result);
     }
+
+    @PostMapping(value = "/{id}/evaluate-batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Evaluate a policy set against a JSON array of inputs; results are streamed in input order")
+    public ResponseEntity<StreamingResponseBody> evaluatePolicySetBatch(
+            @PathVariable UUID id,
+            @RequestParam(required = false) EvaluationMode evaluationMode,
+            HttpServletRequest request) throws IOException {
+        StreamingResponseBody body = batchEvaluationService.evaluateBatch(id, request.getInputStream(), evaluationMode);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @PostMapping(value = "/{id}/evaluate-batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Evaluate a policy set against newline-delimited JSON inputs; results are streamed in input order")
+    public ResponseEntity<StreamingResponseBody> evaluatePolicySetNdjsonBatch(
+            @PathVariable UUID id,
+            @RequestParam(required = false) EvaluationMode evaluationMode,
+            HttpServletRequest request) throws IOException {
+        StreamingResponseBody body =
+                batchEvaluationService.evaluateNdjsonBatch(id, request.getInputStream(), evaluationMode);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @PostMapping(value = "/{id}/evaluate-stream",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Stream NDJSON inputs through a policy set, writing one NDJSON result per record as it completes")
+    public ResponseEntity<StreamingResponseBody> evaluatePolicySetStream(
+            @PathVariable UUID id,
+            @RequestParam(required = false) EvaluationMode evaluationMode,
+            HttpServletRequest request) throws IOException {
+        StreamingResponseBody body = batchEvaluationService.evaluateStream(id, request.getInputStream(), evaluationMode);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
 }
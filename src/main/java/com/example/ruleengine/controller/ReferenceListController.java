@@ -0,0 +1,63 @@
+package com.example.ruleengine.controller;
+
+import com.example.ruleengine.dto.request.CreateReferenceListRequest;
+import com.example.ruleengine.dto.response.ReferenceListResponse;
+import com.example.ruleengine.service.ReferenceListService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/reference-lists")
+@RequiredArgsConstructor
+@Tag(name = "Reference Lists", description = "Large value lists referenced by IN, NOT_IN and CONTAINS_ANY rules")
+public class ReferenceListController {
+
+    private final ReferenceListService referenceListService;
+
+    @PostMapping
+    @Operation(summary = "Create an empty reference list")
+    public ResponseEntity<ReferenceListResponse> createReferenceList(
+            @Valid @RequestBody CreateReferenceListRequest request) {
+        ReferenceListResponse response = referenceListService.createReferenceList(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get reference list by ID")
+    public ResponseEntity<ReferenceListResponse> getReferenceListById(@PathVariable UUID id) {
+        ReferenceListResponse response = referenceListService.getReferenceListById(id);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping
+    @Operation(summary = "Get all reference lists")
+    public ResponseEntity<List<ReferenceListResponse>> getAllReferenceLists() {
+        return ResponseEntity.ok(referenceListService.getAllReferenceLists());
+    }
+
+    @PutMapping(value = "/{id}/entries", consumes = MediaType.TEXT_PLAIN_VALUE)
+    @Operation(summary = "Replace the entries of a reference list (one value per line)")
+    public ResponseEntity<ReferenceListResponse> replaceEntries(@PathVariable UUID id,
+                                                                HttpServletRequest request) throws IOException {
+        ReferenceListResponse response = referenceListService.replaceEntries(id, request.getInputStream());
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete a reference list that no rule uses")
+    public ResponseEntity<Void> deleteReferenceList(@PathVariable UUID id) {
+        referenceListService.deleteReferenceList(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.ruleengine.dto.request;
 
+import com.example.ruleengine.entity.enums.EvaluationMode;
 import com.example.ruleengine.entity.enums.EvaluationStrategy;
+import com.example.ruleengine.entity.enums.OfferSelectionMode;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -28,6 +30,12 @@ public class CreatePolicySetRequest {
     @Builder.Default
     private EvaluationStrategy evaluationStrategy = EvaluationStrategy.BOOLEAN_FIRST;
 
+    private EvaluationMode evaluationMode;
+
+    private OfferSelectionMode offerSelectionMode;
+
+    private Integer speculativeOfferCount;
+
     @Data
     @Builder
     @NoArgsConstructor
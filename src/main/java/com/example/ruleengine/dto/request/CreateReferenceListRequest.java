@@ -0,0 +1,24 @@
+package com.example.ruleengine.dto.request;
+
+import com.example.ruleengine.entity.enums.ReferenceListValueType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateReferenceListRequest {
+
+    @NotBlank(message = "Reference list name is required")
+    private String name;
+
+    private String description;
+
+    @NotNull(message = "Value type is required")
+    private ReferenceListValueType valueType;
+}
@@ -0,0 +1,35 @@
+package com.example.ruleengine.dto.response;
+
+import com.example.ruleengine.exception.GlobalExceptionHandler.ErrorResponse;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchEvaluationResponse {
+
+    private UUID policySetId;
+    private Integer total;
+    private Integer succeeded;
+    private Integer failed;
+    private List<ItemResult> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ItemResult {
+        private Integer index;
+        private UnifiedEvaluationResultResponse result;
+        private ErrorResponse error;
+    }
+}
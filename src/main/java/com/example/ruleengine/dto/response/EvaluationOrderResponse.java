@@ -0,0 +1,44 @@
+package com.example.ruleengine.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EvaluationOrderResponse {
+
+    private UUID policyId;
+    private String policyName;
+    private Integer version;
+    // Order currently serving SHORT_CIRCUIT traffic
+    private OrderNode root;
+    // Order the optimizer would install now
+    private OrderNode proposedRoot;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class OrderNode {
+        private String nodeType;
+        private String operator;
+        private UUID ruleId;
+        private String ruleName;
+        private String operatorCode;
+        private Integer originalPosition;
+        private Double estimatedCost;
+        private Double estimatedPassRate;
+        private Long observedEvaluations;
+        private Long observedPasses;
+        private List<OrderNode> children;
+    }
+}
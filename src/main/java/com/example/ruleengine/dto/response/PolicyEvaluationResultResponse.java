@@ -1,16 +1,20 @@
 package com.example.ruleengine.dto.response;
 
 import com.example.ruleengine.entity.enums.PolicyType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class PolicyEvaluationResultResponse {
@@ -21,4 +25,30 @@ public class PolicyEvaluationResultResponse {
     private TreeEvaluationResultResponse treeResult;
     private DecisionResponse decision;
     private OfferResponse offer;
+
+    // Evaluation only records leaf outcomes; the features map and result tree are built on first read
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private transient Supplier<Map<String, Object>> extractedFeaturesSupplier;
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private transient Supplier<TreeEvaluationResultResponse> treeResultSupplier;
+
+    public Map<String, Object> getExtractedFeatures() {
+        if (extractedFeatures == null && extractedFeaturesSupplier != null) {
+            extractedFeatures = extractedFeaturesSupplier.get();
+            extractedFeaturesSupplier = null;
+        }
+        return extractedFeatures;
+    }
+
+    public TreeEvaluationResultResponse getTreeResult() {
+        if (treeResult == null && treeResultSupplier != null) {
+            treeResult = treeResultSupplier.get();
+            treeResultSupplier = null;
+        }
+        return treeResult;
+    }
 }
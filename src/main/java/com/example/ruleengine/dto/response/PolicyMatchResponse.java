@@ -0,0 +1,21 @@
+package com.example.ruleengine.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PolicyMatchResponse {
+
+    private Integer enabledPolicies;
+    private List<UUID> matchedPolicyIds;
+    private LocalDateTime evaluatedAt;
+}
@@ -1,6 +1,8 @@
 package com.example.ruleengine.dto.response;
 
+import com.example.ruleengine.entity.enums.EvaluationMode;
 import com.example.ruleengine.entity.enums.EvaluationStrategy;
+import com.example.ruleengine.entity.enums.OfferSelectionMode;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -23,6 +25,9 @@ public class PolicySetResponse {
     private String booleanPolicyName;
     private List<OfferPolicyInfo> offerPolicies;
     private EvaluationStrategy evaluationStrategy;
+    private EvaluationMode evaluationMode;
+    private OfferSelectionMode offerSelectionMode;
+    private Integer speculativeOfferCount;
     private Boolean enabled;
     private Integer version;
     private LocalDateTime createdAt;
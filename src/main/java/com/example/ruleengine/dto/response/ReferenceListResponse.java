@@ -0,0 +1,26 @@
+package com.example.ruleengine.dto.response;
+
+import com.example.ruleengine.entity.enums.ReferenceListValueType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReferenceListResponse {
+
+    private UUID id;
+    private String name;
+    private String description;
+    private ReferenceListValueType valueType;
+    private Long entryCount;
+    private Integer version;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
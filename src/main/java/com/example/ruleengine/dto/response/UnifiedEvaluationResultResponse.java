@@ -1,5 +1,6 @@
 package com.example.ruleengine.dto.response;
 
+import com.example.ruleengine.entity.enums.EvaluationMode;
 import com.example.ruleengine.entity.enums.EvaluationStrategy;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
@@ -9,6 +10,7 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Data
@@ -24,6 +26,8 @@ public class UnifiedEvaluationResultResponse {
     @JsonIgnore
     private EvaluationStrategy evaluationStrategy;
     @JsonIgnore
+    private EvaluationMode evaluationMode;
+    @JsonIgnore
     private LocalDateTime evaluatedAt;
     @JsonIgnore
     private PolicyEvaluationResultResponse booleanResult;
@@ -35,6 +39,9 @@ public class UnifiedEvaluationResultResponse {
     private Integer selectedOfferPolicyPriority;
     @JsonIgnore
     private List<OfferResultSummaryResponse> allOfferResults;
+    // Every feature extracted for this request, shared across policies
+    @JsonIgnore
+    private Map<String, Object> extractedFeatures;
 
     // Response fields
     private DecisionResponse decision;
@@ -1,6 +1,8 @@
 package com.example.ruleengine.entity;
 
+import com.example.ruleengine.entity.enums.EvaluationMode;
 import com.example.ruleengine.entity.enums.EvaluationStrategy;
+import com.example.ruleengine.entity.enums.OfferSelectionMode;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -42,6 +44,20 @@ public class PolicySet {
     @Builder.Default
     private EvaluationStrategy evaluationStrategy = EvaluationStrategy.BOOLEAN_FIRST;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "evaluation_mode", nullable = false)
+    @Builder.Default
+    private EvaluationMode evaluationMode = EvaluationMode.EXHAUSTIVE;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "offer_selection_mode", nullable = false)
+    @Builder.Default
+    private OfferSelectionMode offerSelectionMode = OfferSelectionMode.ALL_OFFERS;
+
+    @Column(name = "speculative_offer_count", nullable = false)
+    @Builder.Default
+    private Integer speculativeOfferCount = 0;
+
     @Column(name = "enabled")
     @Builder.Default
     private Boolean enabled = true;
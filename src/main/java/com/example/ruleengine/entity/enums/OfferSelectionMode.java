@@ -0,0 +1,6 @@
+package com.example.ruleengine.entity.enums;
+
+public enum OfferSelectionMode {
+    ALL_OFFERS,
+    FIRST_APPROVED
+}
@@ -0,0 +1,118 @@
+package com.example.ruleengine.event;
+
+import com.example.ruleengine.service.plan.PlanCacheInvalidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+@Component
+@Slf4j
+public class EntityChangeListener {
+
+    private static final int RECEIVE_TIMEOUT_MS = 1000;
+    private static final long MAX_RECONNECT_BACKOFF_MS = 30_000;
+
+    private final DataSource dataSource;
+    private final EntityChangeNotifier entityChangeNotifier;
+    private final PlanCacheInvalidator planCacheInvalidator;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public EntityChangeListener(DataSource dataSource,
+                                EntityChangeNotifier entityChangeNotifier,
+                                PlanCacheInvalidator planCacheInvalidator,
+                                ObjectMapper objectMapper,
+                                @Value("${rule-engine.cache.invalidation.listen-enabled:true}") boolean enabled) {
+        this.dataSource = dataSource;
+        this.entityChangeNotifier = entityChangeNotifier;
+        this.planCacheInvalidator = planCacheInvalidator;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        listenerThread = Thread.ofPlatform()
+                .name("entity-change-listener")
+                .daemon(true)
+                .start(this::listenLoop);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    private void listenLoop() {
+        long backoffMs = 1000;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + entityChangeNotifier.getChannel());
+                }
+                log.info("Listening for entity changes on channel {}", entityChangeNotifier.getChannel());
+
+                // Anything published while we were not listening was missed
+                planCacheInvalidator.invalidateAll();
+                backoffMs = 1000;
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(RECEIVE_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handleNotification(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("Entity change listener connection lost, retrying in {} ms: {}", backoffMs, e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_RECONNECT_BACKOFF_MS);
+            }
+        }
+        log.info("Entity change listener stopped");
+    }
+
+    void handleNotification(String payload) {
+        try {
+            EntityChangeNotification notification = objectMapper.readValue(payload, EntityChangeNotification.class);
+            if (entityChangeNotifier.getNodeId().equals(notification.getOrigin())) {
+                return;
+            }
+            planCacheInvalidator.invalidate(notification.toEvent());
+        } catch (Exception e) {
+            log.warn("Discarding unreadable entity change notification '{}': {}", payload, e.getMessage());
+            planCacheInvalidator.invalidateAll();
+        }
+    }
+}
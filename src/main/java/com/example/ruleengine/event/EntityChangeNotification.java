@@ -0,0 +1,22 @@
+package com.example.ruleengine.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntityChangeNotification {
+
+    private String origin;
+    private EntityChangedEvent.EntityType entityType;
+    private UUID id;
+    private Integer version;
+
+    public EntityChangedEvent toEvent() {
+        return new EntityChangedEvent(entityType, id, version);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.ruleengine.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+@Component
+@Slf4j
+public class EntityChangeNotifier {
+
+    private static final Pattern CHANNEL_PATTERN = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    @Getter
+    private final String channel;
+    @Getter
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public EntityChangeNotifier(JdbcTemplate jdbcTemplate,
+                                ObjectMapper objectMapper,
+                                @Value("${rule-engine.cache.invalidation.channel:rule_engine_entity_changes}") String channel) {
+        if (!CHANNEL_PATTERN.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid notification channel name: " + channel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+    }
+
+    // Runs inside the writing transaction, so PostgreSQL only delivers the notification if the write commits
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        EntityChangeNotification notification = new EntityChangeNotification(
+                nodeId, event.getEntityType(), event.getId(), event.getVersion());
+        try {
+            String payload = objectMapper.writeValueAsString(notification);
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, channel, payload);
+            log.debug("Published {} change for {} on channel {}", event.getEntityType(), event.getId(), channel);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize entity change notification for {}: {}", event.getId(), e.getMessage());
+        }
+    }
+}
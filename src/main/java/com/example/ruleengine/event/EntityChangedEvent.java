@@ -0,0 +1,25 @@
+package com.example.ruleengine.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntityChangedEvent {
+
+    private EntityType entityType;
+    private UUID id;
+    private Integer version;
+
+    public enum EntityType {
+        FEATURE,
+        RULE,
+        POLICY,
+        POLICY_SET,
+        REFERENCE_LIST
+    }
+}
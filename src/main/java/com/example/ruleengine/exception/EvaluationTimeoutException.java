@@ -0,0 +1,8 @@
+package com.example.ruleengine.exception;
+
+public class EvaluationTimeoutException extends RuntimeException {
+
+    public EvaluationTimeoutException(String message) {
+        super(message);
+    }
+}
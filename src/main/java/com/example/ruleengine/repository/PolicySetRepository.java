@@ -1,6 +1,7 @@
 package com.example.ruleengine.repository;
 
 import com.example.ruleengine.entity.PolicySet;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -16,4 +17,7 @@ public interface PolicySetRepository extends JpaRepository<PolicySet, UUID> {
     List<PolicySet> findByEnabled(Boolean enabled);
     
     boolean existsByName(String name);
+    
+    @EntityGraph(attributePaths = {"booleanPolicy", "offerPolicies", "offerPolicies.offerPolicy"})
+    Optional<PolicySet> findWithPoliciesById(UUID id);
 }
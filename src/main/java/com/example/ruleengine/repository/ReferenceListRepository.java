@@ -0,0 +1,13 @@
+package com.example.ruleengine.repository;
+
+import com.example.ruleengine.entity.ReferenceList;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface ReferenceListRepository extends JpaRepository<ReferenceList, UUID> {
+
+    boolean existsByName(String name);
+}
@@ -2,8 +2,11 @@ package com.example.ruleengine.repository;
 
 import com.example.ruleengine.entity.Rule;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,4 +18,11 @@ public interface RuleRepository extends JpaRepository<Rule, UUID> {
     List<Rule> findByEnabled(Boolean enabled);
     
     List<Rule> findByOperatorCode(String operatorCode);
+    
+    @Query("SELECT r FROM Rule r JOIN FETCH r.feature JOIN FETCH r.operator WHERE r.id IN :ids")
+    List<Rule> findAllWithFeatureAndOperatorByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM rules WHERE operand ->> 'referenceListId' = CAST(:referenceListId AS TEXT))",
+            nativeQuery = true)
+    boolean existsByReferenceListId(@Param("referenceListId") UUID referenceListId);
 }
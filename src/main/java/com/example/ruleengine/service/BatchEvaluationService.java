@@ -0,0 +1,379 @@
+package com.example.ruleengine.service;
+
+import com.example.ruleengine.dto.response.BatchEvaluationResponse;
+import com.example.ruleengine.dto.response.UnifiedEvaluationResultResponse;
+import com.example.ruleengine.entity.PolicySetExecutionLog;
+import com.example.ruleengine.entity.enums.EvaluationMode;
+import com.example.ruleengine.exception.EvaluationTimeoutException;
+import com.example.ruleengine.exception.GlobalExceptionHandler.ErrorResponse;
+import com.example.ruleengine.exception.ResourceNotFoundException;
+import com.example.ruleengine.exception.ValidationException;
+import com.example.ruleengine.repository.PolicySetExecutionLogRepository;
+import com.example.ruleengine.service.plan.CompiledPolicySet;
+import com.example.ruleengine.service.plan.CompiledPolicySetCache;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+
+@Service
+@Slf4j
+public class BatchEvaluationService {
+
+    private static final TypeReference<Map<String, Object>> INPUT_TYPE = new TypeReference<>() {};
+
+    private final CompiledPolicySetCache compiledPolicySetCache;
+    private final UnifiedEvaluationService unifiedEvaluationService;
+    private final PolicySetExecutionLogRepository executionLogRepository;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService evaluationExecutor;
+    private final int maxBatchSize;
+    private final int maxInFlight;
+    private final int logFlushSize;
+
+    public BatchEvaluationService(CompiledPolicySetCache compiledPolicySetCache,
+                                  UnifiedEvaluationService unifiedEvaluationService,
+                                  PolicySetExecutionLogRepository executionLogRepository,
+                                  ObjectMapper objectMapper,
+                                  @Qualifier("evaluationExecutor") ExecutorService evaluationExecutor,
+                                  @Value("${rule-engine.evaluation.batch.max-size:1000}") int maxBatchSize,
+                                  @Value("${rule-engine.evaluation.stream.max-in-flight:256}") int maxInFlight,
+                                  @Value("${rule-engine.evaluation.stream.log-flush-size:500}") int logFlushSize) {
+        this.compiledPolicySetCache = compiledPolicySetCache;
+        this.unifiedEvaluationService = unifiedEvaluationService;
+        this.executionLogRepository = executionLogRepository;
+        this.objectMapper = objectMapper;
+        this.evaluationExecutor = evaluationExecutor;
+        this.maxBatchSize = maxBatchSize;
+        this.maxInFlight = maxInFlight;
+        this.logFlushSize = logFlushSize;
+    }
+
+    // Items are read up front so an invalid batch still gets a regular error response
+    public StreamingResponseBody evaluateBatch(UUID policySetId, InputStream input, EvaluationMode requestedMode) {
+        List<BatchInput> inputs = new ArrayList<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ValidationException("Batch must be a JSON array");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new ValidationException("Batch must be a JSON array");
+                }
+                if (token == JsonToken.START_OBJECT) {
+                    inputs.add(new BatchInput(objectMapper.readValue(parser, INPUT_TYPE), null));
+                } else {
+                    parser.skipChildren();
+                    inputs.add(BatchInput.invalid("Batch item must be a JSON object"));
+                }
+                checkBatchSize(inputs);
+            }
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("Malformed JSON request body: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return evaluateInputs(policySetId, inputs, requestedMode);
+    }
+
+    public StreamingResponseBody evaluateNdjsonBatch(UUID policySetId, InputStream input,
+                                                     EvaluationMode requestedMode) {
+        List<BatchInput> inputs = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    inputs.add(toBatchInput(objectMapper.readTree(line)));
+                } catch (JsonProcessingException e) {
+                    inputs.add(BatchInput.invalid("Malformed JSON: " + e.getOriginalMessage()));
+                }
+                checkBatchSize(inputs);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return evaluateInputs(policySetId, inputs, requestedMode);
+    }
+
+    // Reading pauses once maxInFlight records wait to be written
+    public StreamingResponseBody evaluateStream(UUID policySetId, InputStream input, EvaluationMode requestedMode) {
+        // Resolved before the response starts so an unknown policy set still gets a regular 404
+        CompiledPolicySet policySet = compiledPolicySetCache.getCompiledPolicySet(policySetId);
+        return output -> evaluateStream(policySet, input, output, requestedMode);
+    }
+
+    void evaluateStream(CompiledPolicySet policySet, InputStream input, OutputStream output,
+                        EvaluationMode requestedMode) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        BlockingQueue<ItemOutcome> completed = new LinkedBlockingQueue<>();
+        List<PolicySetExecutionLog> pendingLogs = new ArrayList<>();
+        int inFlight = 0;
+        int index = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(input);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            boolean inArray = false;
+            while (true) {
+                BatchInput item;
+                try {
+                    JsonToken token = parser.nextToken();
+                    if (token == null || (inArray && token == JsonToken.END_ARRAY)) {
+                        break;
+                    }
+                    if (index == 0 && !inArray && token == JsonToken.START_ARRAY) {
+                        inArray = true;
+                        continue;
+                    }
+                    if (token == JsonToken.START_OBJECT) {
+                        item = new BatchInput(objectMapper.readValue(parser, INPUT_TYPE), null);
+                    } else {
+                        parser.skipChildren();
+                        item = BatchInput.invalid("Batch item must be a JSON object");
+                    }
+                } catch (JsonProcessingException e) {
+                    // The parser cannot resynchronise after malformed input, so report it and stop reading
+                    item = BatchInput.invalid("Malformed JSON: " + e.getOriginalMessage());
+                    submit(policySet, index++, item, requestedMode, completed);
+                    inFlight++;
+                    break;
+                }
+
+                while (inFlight >= maxInFlight) {
+                    write(writer, generator, takeCompleted(completed), pendingLogs);
+                    inFlight--;
+                }
+                submit(policySet, index++, item, requestedMode, completed);
+                inFlight++;
+
+                ItemOutcome outcome;
+                boolean wrote = false;
+                while ((outcome = completed.poll()) != null) {
+                    write(writer, generator, outcome, pendingLogs);
+                    inFlight--;
+                    wrote = true;
+                }
+                if (wrote) {
+                    generator.flush();
+                }
+                if (pendingLogs.size() >= logFlushSize) {
+                    saveExecutionLogs(policySet, pendingLogs);
+                    pendingLogs.clear();
+                }
+            }
+
+            while (inFlight > 0) {
+                write(writer, generator, takeCompleted(completed), pendingLogs);
+                inFlight--;
+            }
+            generator.flush();
+        } finally {
+            saveExecutionLogs(policySet, pendingLogs);
+        }
+        log.debug("Streamed {} evaluations for PolicySet {}", index, policySet.getPolicySetId());
+    }
+
+    private void submit(CompiledPolicySet policySet, int index, BatchInput item, EvaluationMode requestedMode,
+                        BlockingQueue<ItemOutcome> completed) {
+        CompletableFuture.supplyAsync(() -> evaluateItem(policySet, index, item, requestedMode), evaluationExecutor)
+                .whenComplete((outcome, failure) -> completed.add(outcome != null ? outcome : new ItemOutcome(
+                        BatchEvaluationResponse.ItemResult.builder()
+                                .index(index)
+                                .error(error("INTERNAL_ERROR", failure.getMessage()))
+                                .build(),
+                        null)));
+    }
+
+    private ItemOutcome takeCompleted(BlockingQueue<ItemOutcome> completed) throws IOException {
+        try {
+            return completed.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for streamed evaluations", e);
+        }
+    }
+
+    private void write(ObjectWriter writer, JsonGenerator generator, ItemOutcome outcome,
+                       List<PolicySetExecutionLog> pendingLogs) throws IOException {
+        writer.writeValue(generator, outcome.itemResult());
+        generator.writeRaw('\n');
+        if (outcome.executionLog() != null) {
+            pendingLogs.add(outcome.executionLog());
+        }
+    }
+
+    private BatchInput toBatchInput(JsonNode item) {
+        if (item == null || !item.isObject()) {
+            return BatchInput.invalid("Batch item must be a JSON object");
+        }
+        return new BatchInput(objectMapper.convertValue(item, INPUT_TYPE), null);
+    }
+
+    private void checkBatchSize(List<BatchInput> inputs) {
+        if (inputs.size() > maxBatchSize) {
+            throw new ValidationException("Batch size exceeds the maximum of " + maxBatchSize);
+        }
+    }
+
+    private StreamingResponseBody evaluateInputs(UUID policySetId, List<BatchInput> inputs,
+                                                 EvaluationMode requestedMode) {
+        if (inputs.isEmpty()) {
+            throw new ValidationException("Batch must contain at least one item");
+        }
+
+        // Resolved once for the whole batch so every item sees the same plan version
+        CompiledPolicySet policySet = compiledPolicySetCache.getCompiledPolicySet(policySetId);
+
+        List<CompletableFuture<ItemOutcome>> futures = new ArrayList<>(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            int index = i;
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> evaluateItem(policySet, index, inputs.get(index), requestedMode), evaluationExecutor));
+        }
+        return output -> writeBatch(policySet, futures, output);
+    }
+
+    // Same shape as BatchEvaluationResponse, with the totals written after the results they count
+    void writeBatch(CompiledPolicySet policySet, List<CompletableFuture<ItemOutcome>> futures,
+                    OutputStream output) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        List<PolicySetExecutionLog> pendingLogs = new ArrayList<>();
+        int failed = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeStringField("policySetId", String.valueOf(policySet.getPolicySetId()));
+            generator.writeArrayFieldStart("results");
+            for (int index = 0; index < futures.size(); index++) {
+                CompletableFuture<ItemOutcome> future = futures.get(index);
+                if (!future.isDone()) {
+                    generator.flush();
+                }
+                ItemOutcome outcome = awaitOutcome(future, index);
+                writer.writeValue(generator, outcome.itemResult());
+                if (outcome.itemResult().getError() != null) {
+                    failed++;
+                }
+                if (outcome.executionLog() != null) {
+                    pendingLogs.add(outcome.executionLog());
+                }
+                if (pendingLogs.size() >= logFlushSize) {
+                    saveExecutionLogs(policySet, pendingLogs);
+                    pendingLogs.clear();
+                }
+            }
+            generator.writeEndArray();
+            generator.writeNumberField("total", futures.size());
+            generator.writeNumberField("succeeded", futures.size() - failed);
+            generator.writeNumberField("failed", failed);
+            generator.writeEndObject();
+        } finally {
+            futures.forEach(future -> future.cancel(false));
+            saveExecutionLogs(policySet, pendingLogs);
+        }
+    }
+
+    private ItemOutcome awaitOutcome(CompletableFuture<ItemOutcome> future, int index) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for batch evaluations", e);
+        } catch (ExecutionException e) {
+            return new ItemOutcome(BatchEvaluationResponse.ItemResult.builder()
+                    .index(index)
+                    .error(error("INTERNAL_ERROR", e.getCause().getMessage()))
+                    .build(), null);
+        }
+    }
+
+    private ItemOutcome evaluateItem(CompiledPolicySet policySet, int index, BatchInput input,
+                                     EvaluationMode requestedMode) {
+        BatchEvaluationResponse.ItemResult.ItemResultBuilder itemResult =
+                BatchEvaluationResponse.ItemResult.builder().index(index);
+        if (input.error() != null) {
+            return new ItemOutcome(itemResult.error(error("VALIDATION_ERROR", input.error())).build(), null);
+        }
+
+        long startTime = System.currentTimeMillis();
+        try {
+            UnifiedEvaluationResultResponse result =
+                    unifiedEvaluationService.evaluate(policySet, input.inputData(), requestedMode);
+            int executionTime = (int) (System.currentTimeMillis() - startTime);
+            PolicySetExecutionLog executionLog =
+                    unifiedEvaluationService.buildExecutionLog(policySet, input.inputData(), result, executionTime);
+            return new ItemOutcome(itemResult.result(result).build(), executionLog);
+        } catch (ValidationException e) {
+            return new ItemOutcome(itemResult.error(error("VALIDATION_ERROR", e.getMessage())).build(), null);
+        } catch (ResourceNotFoundException e) {
+            return new ItemOutcome(itemResult.error(error("RESOURCE_NOT_FOUND", e.getMessage())).build(), null);
+        } catch (EvaluationTimeoutException e) {
+            return new ItemOutcome(itemResult.error(error("EVALUATION_TIMEOUT", e.getMessage())).build(), null);
+        } catch (Exception e) {
+            log.warn("Batch item {} failed for PolicySet {}: {}", index, policySet.getPolicySetId(), e.getMessage());
+            return new ItemOutcome(itemResult.error(error("INTERNAL_ERROR", e.getMessage())).build(), null);
+        }
+    }
+
+    private void saveExecutionLogs(CompiledPolicySet policySet, List<PolicySetExecutionLog> executionLogs) {
+        if (executionLogs.isEmpty()) {
+            return;
+        }
+        try {
+            executionLogRepository.saveAll(executionLogs);
+            log.debug("Logged {} batch executions for PolicySet {}", executionLogs.size(), policySet.getPolicySetId());
+        } catch (Exception e) {
+            log.error("Failed to log batch executions for PolicySet {}: {}", policySet.getPolicySetId(), e.getMessage());
+        }
+    }
+
+    private ErrorResponse error(String code, String message) {
+        return ErrorResponse.builder()
+                .code(code)
+                .message(message)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private record BatchInput(Map<String, Object> inputData, String error) {
+        static BatchInput invalid(String error) {
+            return new BatchInput(null, error);
+        }
+    }
+
+    private record ItemOutcome(BatchEvaluationResponse.ItemResult itemResult, PolicySetExecutionLog executionLog) {
+    }
+}
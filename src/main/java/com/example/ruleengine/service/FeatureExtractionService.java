@@ -3,8 +3,11 @@ package com.example.ruleengine.service;
 import com.example.ruleengine.entity.Feature;
 import com.example.ruleengine.entity.enums.FeatureType;
 import com.example.ruleengine.exception.ValidationException;
-import com.jayway.jsonpath.JsonPath;
-import com.jayway.jsonpath.PathNotFoundException;
+import com.example.ruleengine.service.plan.CompiledFeature;
+import com.example.ruleengine.service.plan.EvaluationContext;
+import com.example.ruleengine.service.plan.FeatureExtractionPlan;
+import com.example.ruleengine.service.plan.FeatureSlotLayout;
+import com.example.ruleengine.service.plan.FeatureSlots;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -23,73 +26,145 @@ public class FeatureExtractionService {
     public Map<String, Object> extractFeatures(List<Feature> features, Map<String, Object> inputData) {
         Map<String, Object> extractedFeatures = new HashMap<>();
         List<String> missingFeatures = new java.util.ArrayList<>();
-        
+
         for (Feature feature : features) {
+            EvaluationContext.ExtractedFeature extracted;
             try {
-                Object value = extractFeatureValue(feature, inputData);
-                if (value == null && feature.getDefaultValue() == null) {
-                    missingFeatures.add(feature.getName());
-                } else {
-                    extractedFeatures.put(feature.getName(), value);
-                }
+                extracted = extractFeature(CompiledFeature.compile(feature), inputData);
             } catch (ValidationException e) {
-                if (feature.getDefaultValue() != null) {
-                    extractedFeatures.put(feature.getName(), feature.getDefaultValue());
-                } else {
-                    missingFeatures.add(feature.getName());
-                }
+                extracted = feature.getDefaultValue() != null
+                        ? new EvaluationContext.ExtractedFeature(feature.getName(), feature.getDefaultValue(), false)
+                        : new EvaluationContext.ExtractedFeature(feature.getName(), null, true);
+            }
+            if (extracted.missing()) {
+                missingFeatures.add(feature.getName());
+            } else {
+                extractedFeatures.put(feature.getName(), extracted.value());
             }
         }
-        
+
         if (!missingFeatures.isEmpty()) {
             throw new ValidationException("Missing required input for feature(s): " + String.join(", ", missingFeatures));
         }
-        
+
         return extractedFeatures;
     }
 
-    public Object extractFeatureValue(Feature feature, Map<String, Object> inputData) {
-        Map<String, Object> extractionConfig = feature.getExtractionConfig();
-        String type = (String) extractionConfig.get("type");
-        
-        if ("JSON_PATH".equals(type)) {
-            return extractJsonPath(feature, inputData, extractionConfig);
-        } else if ("DIRECT".equals(type)) {
-            return extractDirect(feature, inputData, extractionConfig);
+    public Map<String, Object> extractFeatures(List<CompiledFeature> features, EvaluationContext context) {
+        return extractFeatureSlots(FeatureSlotLayout.of(features), context).toMap();
+    }
+
+    public FeatureSlots extractFeatureSlots(FeatureSlotLayout layout, EvaluationContext context) {
+        FeatureSlots slots = new FeatureSlots(layout);
+        List<String> missingFeatures = null;
+
+        List<CompiledFeature> features = layout.getFeatures();
+        for (int slot = 0; slot < features.size(); slot++) {
+            missingFeatures = extractSlot(slots, slot, features.get(slot), context, missingFeatures);
+        }
+
+        if (missingFeatures != null) {
+            throw new ValidationException("Missing required input for feature(s): " + String.join(", ", missingFeatures));
+        }
+
+        return slots;
+    }
+
+    // Same without failing on missing features, whose slots are left empty
+    public FeatureSlots extractAvailableFeatureSlots(FeatureSlotLayout layout, EvaluationContext context) {
+        FeatureSlots slots = new FeatureSlots(layout);
+        List<CompiledFeature> features = layout.getFeatures();
+        for (int slot = 0; slot < features.size(); slot++) {
+            extractSlot(slots, slot, features.get(slot), context, null);
+        }
+        return slots;
+    }
+
+    // Fills the slots of the given features only, e.g. one policy's features in its policy set's slots
+    public void extractFeatureSlots(FeatureSlots slots, List<CompiledFeature> features, EvaluationContext context) {
+        List<String> missingFeatures = null;
+
+        for (CompiledFeature feature : features) {
+            missingFeatures = extractSlot(slots, slots.getLayout().slotOf(feature.getId()), feature, context,
+                    missingFeatures);
+        }
+
+        if (missingFeatures != null) {
+            throw new ValidationException("Missing required input for feature(s): " + String.join(", ", missingFeatures));
+        }
+    }
+
+    private List<String> extractSlot(FeatureSlots slots, int slot, CompiledFeature feature, EvaluationContext context,
+                                     List<String> missingFeatures) {
+        EvaluationContext.ExtractedFeature extracted = context.getOrExtract(feature, f -> extractFeature(f, context));
+        if (extracted.missing()) {
+            if (missingFeatures == null) {
+                missingFeatures = new java.util.ArrayList<>();
+            }
+            missingFeatures.add(feature.getName());
         } else {
-            throw new ValidationException("Unknown extraction type: " + type);
+            slots.set(slot, extracted.value());
         }
+        return missingFeatures;
     }
 
-    private Object extractJsonPath(Feature feature, Map<String, Object> inputData, Map<String, Object> config) {
-        String path = (String) config.get("path");
-        if (path == null) {
-            throw new ValidationException("JSON_PATH extraction requires 'path' in extractionConfig");
+    private EvaluationContext.ExtractedFeature extractFeature(CompiledFeature compiled, EvaluationContext context) {
+        FeatureExtractionPlan plan = context.getExtractionPlan();
+        if (plan == null || !plan.covers(compiled)) {
+            return extractFeature(compiled, context.getInputData());
         }
-        
         try {
-            Object rawValue = JsonPath.read(inputData, path);
-            return convertToFeatureType(rawValue, feature.getFeatureType());
-        } catch (PathNotFoundException e) {
-            if (feature.getDefaultValue() != null) {
-                return feature.getDefaultValue();
-            }
-            throw new ValidationException("Path not found: " + path);
+            return toExtractedFeature(compiled, convertRawValue(compiled, context.getPathValues().get(compiled.getId())));
+        } catch (ValidationException e) {
+            return failedExtraction(compiled);
         }
     }
 
-    private Object extractDirect(Feature feature, Map<String, Object> inputData, Map<String, Object> config) {
-        String field = (String) config.get("field");
-        if (field == null) {
-            throw new ValidationException("DIRECT extraction requires 'field' in extractionConfig");
+    private EvaluationContext.ExtractedFeature extractFeature(CompiledFeature compiled, Map<String, Object> inputData) {
+        try {
+            return toExtractedFeature(compiled, extractFeatureValue(compiled, inputData));
+        } catch (ValidationException e) {
+            return failedExtraction(compiled);
         }
-        
-        Object rawValue = inputData.get(field);
-        if (rawValue == null && feature.getDefaultValue() != null) {
-            return feature.getDefaultValue();
+    }
+
+    private EvaluationContext.ExtractedFeature toExtractedFeature(CompiledFeature compiled, Object value) {
+        Feature feature = compiled.getFeature();
+        if (value == null && feature.getDefaultValue() == null) {
+            return new EvaluationContext.ExtractedFeature(feature.getName(), null, true);
+        }
+        return new EvaluationContext.ExtractedFeature(feature.getName(), value, false);
+    }
+
+    private EvaluationContext.ExtractedFeature failedExtraction(CompiledFeature compiled) {
+        Feature feature = compiled.getFeature();
+        if (feature.getDefaultValue() != null) {
+            return new EvaluationContext.ExtractedFeature(feature.getName(), feature.getDefaultValue(), false);
+        }
+        return new EvaluationContext.ExtractedFeature(feature.getName(), null, true);
+    }
+
+    public Object extractFeatureValue(Feature feature, Map<String, Object> inputData) {
+        return extractFeatureValue(CompiledFeature.compile(feature), inputData);
+    }
+
+    public Object extractFeatureValue(CompiledFeature feature, Map<String, Object> inputData) {
+        return convertRawValue(feature, readRawValue(feature, inputData));
+    }
+
+    private Object readRawValue(CompiledFeature feature, Map<String, Object> inputData) {
+        if (feature.getJsonPath() != null) {
+            return feature.getJsonPath().read(inputData, CompiledFeature.JSON_PATH_CONFIGURATION);
+        }
+        return inputData.get(feature.getField());
+    }
+
+    private Object convertRawValue(CompiledFeature feature, Object rawValue) {
+        if (rawValue == null && feature.getFeature().getDefaultValue() != null) {
+            return feature.getFeature().getDefaultValue();
         }
         
-        return convertToFeatureType(rawValue, feature.getFeatureType());
+        return convertToFeatureType(rawValue, feature.getFeature().getFeatureType());
     }
 
     private Object convertToFeatureType(Object rawValue, FeatureType featureType) {
@@ -5,10 +5,12 @@ import com.example.ruleengine.dto.request.UpdateFeatureRequest;
 import com.example.ruleengine.dto.response.FeatureResponse;
 import com.example.ruleengine.entity.Feature;
 import com.example.ruleengine.entity.enums.FeatureType;
+import com.example.ruleengine.event.EntityChangedEvent;
 import com.example.ruleengine.exception.ResourceNotFoundException;
 import com.example.ruleengine.exception.ValidationException;
 import com.example.ruleengine.repository.FeatureRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,6 +23,7 @@ import java.util.stream.Collectors;
 public class FeatureService {
 
     private final FeatureRepository featureRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public FeatureResponse createFeature(CreateFeatureRequest request) {
@@ -94,6 +97,8 @@ public class FeatureService {
 
         feature.setVersion(feature.getVersion() + 1);
         Feature updatedFeature = featureRepository.save(feature);
+        eventPublisher.publishEvent(new EntityChangedEvent(
+                EntityChangedEvent.EntityType.FEATURE, updatedFeature.getId(), updatedFeature.getVersion()));
         return mapToResponse(updatedFeature);
     }
 
@@ -103,6 +108,7 @@ public class FeatureService {
             throw new ResourceNotFoundException("Feature", "id", id);
         }
         featureRepository.deleteById(id);
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.EntityType.FEATURE, id, null));
     }
 
     private FeatureResponse mapToResponse(Feature feature) {
@@ -1,21 +1,34 @@
 package com.example.ruleengine.service;
 
 import com.example.ruleengine.dto.response.DecisionResponse;
+import com.example.ruleengine.dto.response.EvaluationOrderResponse;
 import com.example.ruleengine.dto.response.OfferResponse;
 import com.example.ruleengine.dto.response.PolicyEvaluationResultResponse;
-import com.example.ruleengine.dto.response.TreeEvaluationResultResponse;
-import com.example.ruleengine.entity.Feature;
+import com.example.ruleengine.dto.response.PolicyMatchResponse;
 import com.example.ruleengine.entity.Policy;
-import com.example.ruleengine.entity.Rule;
+import com.example.ruleengine.entity.enums.EvaluationMode;
 import com.example.ruleengine.entity.enums.PolicyType;
-import com.example.ruleengine.repository.FeatureRepository;
-import com.example.ruleengine.repository.RuleRepository;
+import com.example.ruleengine.service.plan.CompiledPolicy;
+import com.example.ruleengine.service.plan.CompiledPolicyCache;
+import com.example.ruleengine.service.plan.CompiledPolicySet;
+import com.example.ruleengine.service.plan.EvaluationContext;
+import com.example.ruleengine.service.plan.EvaluationTrace;
+import com.example.ruleengine.service.plan.FeatureSlots;
+import com.example.ruleengine.service.plan.GeneratedEvaluator;
+import com.example.ruleengine.service.plan.OfferDecisionTable;
+import com.example.ruleengine.service.plan.PlanNode;
+import com.example.ruleengine.service.plan.PlanOptimizer;
+import com.example.ruleengine.service.plan.PolicyBytecodeCompiler;
+import com.example.ruleengine.service.plan.PolicyNetwork;
+import com.example.ruleengine.service.plan.PolicyNetworkCache;
+import com.example.ruleengine.service.plan.SharedEvaluation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -23,115 +36,138 @@ import java.util.stream.Collectors;
 public class PolicyEvaluationService {
 
     private final PolicyService policyService;
-    private final FeatureRepository featureRepository;
-    private final RuleRepository ruleRepository;
+    private final CompiledPolicyCache compiledPolicyCache;
     private final FeatureExtractionService featureExtractionService;
     private final TreeEvaluationService treeEvaluationService;
+    private final PlanOptimizer planOptimizer;
+    private final PolicyBytecodeCompiler policyBytecodeCompiler;
+    private final PolicyNetworkCache policyNetworkCache;
+    private final RuleEvaluationService ruleEvaluationService;
 
     public PolicyEvaluationResultResponse evaluatePolicy(UUID policyId, Map<String, Object> inputData) {
+        return evaluatePolicy(policyId, inputData, EvaluationMode.EXHAUSTIVE);
+    }
+
+    public PolicyEvaluationResultResponse evaluatePolicy(UUID policyId, Map<String, Object> inputData,
+                                                         EvaluationMode mode) {
         Policy policy = policyService.getPolicyEntityById(policyId);
+        return evaluatePolicy(compiledPolicyCache.getCompiledPolicy(policy), inputData, mode);
+    }
+
+    public PolicyMatchResponse evaluateAll(Map<String, Object> inputData) {
+        PolicyNetwork network = policyNetworkCache.getNetwork();
+        EvaluationContext context = new EvaluationContext(inputData, network.getExtractionPlan());
+        FeatureSlots slots = featureExtractionService.extractAvailableFeatureSlots(network.getSlotLayout(), context);
+
+        List<UUID> matched = network.match(slots, leaf -> ruleEvaluationService.evaluateLeaf(leaf, slots));
+
+        return PolicyMatchResponse.builder()
+                .enabledPolicies(network.size())
+                .matchedPolicyIds(matched)
+                .evaluatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    public EvaluationOrderResponse getEvaluationOrder(UUID policyId) {
+        Policy policy = policyService.getPolicyEntityById(policyId);
+        return planOptimizer.describe(compiledPolicyCache.getCompiledPolicy(policy));
+    }
+
+    public PolicyEvaluationResultResponse evaluatePolicy(CompiledPolicy policy, Map<String, Object> inputData,
+                                                         EvaluationMode mode) {
+        return evaluatePolicy(policy, new EvaluationContext(inputData, policy.getExtractionPlan()), mode);
+    }
+
+    public PolicyEvaluationResultResponse evaluatePolicy(CompiledPolicy policy, EvaluationContext context,
+                                                         EvaluationMode mode) {
+        PlanNode root = policy.getEvaluationRoot(mode);
+        return evaluatePolicy(policy, context, mode, root, policyBytecodeCompiler.getEvaluator(policy, root, mode));
+    }
+
+    private PolicyEvaluationResultResponse evaluatePolicy(CompiledPolicy policy, EvaluationContext context,
+                                                          EvaluationMode mode, PlanNode root,
+                                                          GeneratedEvaluator evaluator) {
+        FeatureSlots slots = featureExtractionService.extractFeatureSlots(policy.getSlotLayout(), context);
         
-        Set<UUID> ruleIds = collectRuleIds(policy.getRootNode());
-        List<Rule> rules = ruleRepository.findAllById(ruleIds);
-        
-        Set<UUID> featureIds = rules.stream()
-                .map(r -> r.getFeature().getId())
-                .collect(Collectors.toSet());
-        List<Feature> features = featureRepository.findAllById(featureIds);
-        
-        Map<String, Object> extractedFeatures = featureExtractionService.extractFeatures(features, inputData);
-        
-        TreeEvaluationResultResponse treeResult = 
-                treeEvaluationService.evaluateTree(policy.getRootNode(), extractedFeatures);
+        EvaluationTrace trace = new EvaluationTrace(mode);
+        boolean passed = evaluator != null
+                ? evaluator.evaluate(slots, trace)
+                : treeEvaluationService.evaluate(root, slots, trace);
         
+        return buildResult(policy, passed, root, slots, trace, slots::toMap);
+    }
+
+    public SharedEvaluation startSharedEvaluation(CompiledPolicySet policySet, EvaluationContext context,
+                                                  EvaluationMode mode) {
+        return new SharedEvaluation(policySet.getSharedPlan(mode), context);
+    }
+
+    public PolicyEvaluationResultResponse evaluatePolicy(CompiledPolicy policy, SharedEvaluation shared,
+                                                         EvaluationMode mode) {
+        // Counts towards hotness like any other evaluation; once generated, the class is faster than the memoised DAG
+        PlanNode ownRoot = policy.getEvaluationRoot(mode);
+        GeneratedEvaluator evaluator = policyBytecodeCompiler.getEvaluator(policy, ownRoot, mode);
+        PlanNode root = shared.getPlan().getRoot(policy);
+        if (evaluator != null || root == null || shared.getPlan().getMode() != mode) {
+            return evaluatePolicy(policy, shared.getContext(), mode, ownRoot, evaluator);
+        }
+        FeatureSlots slots = shared.getSlots();
+        featureExtractionService.extractFeatureSlots(slots, policy.getFeatures(), shared.getContext());
+
+        EvaluationTrace trace = new EvaluationTrace(mode);
+        boolean passed = treeEvaluationService.evaluate(root, slots, trace, shared.getMemo());
+
+        return buildResult(policy, passed, root, slots, trace, () -> slots.toMap(policy.getFeatures()));
+    }
+
+    private PolicyEvaluationResultResponse buildResult(CompiledPolicy policy, boolean passed, PlanNode root,
+                                                       FeatureSlots slots, EvaluationTrace trace,
+                                                       Supplier<Map<String, Object>> extractedFeatures) {
         PolicyEvaluationResultResponse result = new PolicyEvaluationResultResponse();
-        result.setPolicyId(policyId);
+        result.setPolicyId(policy.getPolicyId());
         result.setPolicyName(policy.getName());
         result.setPolicyType(policy.getPolicyType());
-        result.setExtractedFeatures(extractedFeatures);
-        result.setTreeResult(treeResult);
+        result.setExtractedFeaturesSupplier(extractedFeatures);
+        result.setTreeResultSupplier(() -> treeEvaluationService.explain(root, slots, trace));
         
         if (policy.getPolicyType() == PolicyType.BOOLEAN) {
-            result.setDecision(buildBooleanDecision(treeResult));
+            result.setDecision(buildBooleanDecision(passed, root, slots, trace));
         } else if (policy.getPolicyType() == PolicyType.OFFER) {
-            result.setDecision(buildBooleanDecision(treeResult));
-            if (treeResult.isResult()) {
-                result.setOffer(buildOffer(policy.getOutputMapping(), extractedFeatures, treeResult));
+            result.setDecision(buildBooleanDecision(passed, root, slots, trace));
+            if (passed) {
+                result.setOffer(buildOffer(policy.getOfferTable(), result.getExtractedFeatures()));
             }
         }
         
         return result;
     }
 
-    @SuppressWarnings("unchecked")
-    private Set<UUID> collectRuleIds(Map<String, Object> node) {
-        Set<UUID> ruleIds = new HashSet<>();
-        String nodeType = (String) node.get("type");
-        
-        if ("LEAF".equals(nodeType)) {
-            String ruleIdStr = (String) node.get("ruleId");
-            ruleIds.add(UUID.fromString(ruleIdStr));
-        } else if ("COMPOSITE".equals(nodeType)) {
-            List<Map<String, Object>> children = (List<Map<String, Object>>) node.get("children");
-            for (Map<String, Object> child : children) {
-                ruleIds.addAll(collectRuleIds(child));
-            }
-        }
-        
-        return ruleIds;
-    }
-
-    private DecisionResponse buildBooleanDecision(TreeEvaluationResultResponse treeResult) {
+    private DecisionResponse buildBooleanDecision(boolean passed, PlanNode root, FeatureSlots slots,
+                                                  EvaluationTrace trace) {
         DecisionResponse decision = new DecisionResponse();
-        decision.setStatus(treeResult.isResult() ? "APPROVED" : "REJECTED");
+        decision.setStatus(passed ? "APPROVED" : "REJECTED");
         
-        if (!treeResult.isResult()) {
-            decision.setReasons(collectFailureReasons(treeResult));
+        if (!passed) {
+            decision.setReasons(treeEvaluationService.collectFailureReasons(root, slots, trace));
         }
         
         return decision;
     }
 
-    private List<String> collectFailureReasons(TreeEvaluationResultResponse result) {
-        List<String> reasons = new ArrayList<>();
-        
-        if (result.getFailureReason() != null && "LEAF".equals(result.getNodeType())) {
-            reasons.add(result.getFailureReason());
-        }
-        
-        if (result.getChildResults() != null) {
-            for (TreeEvaluationResultResponse child : result.getChildResults()) {
-                reasons.addAll(collectFailureReasons(child));
-            }
-        }
-        
-        return reasons;
-    }
-
-    @SuppressWarnings("unchecked")
-    private OfferResponse buildOffer(Map<String, Object> outputMapping, Map<String, Object> extractedFeatures, 
-                             TreeEvaluationResultResponse treeResult) {
+    private OfferResponse buildOffer(OfferDecisionTable offerTable, Map<String, Object> extractedFeatures) {
         OfferResponse offer = new OfferResponse();
         
-        if (outputMapping == null) {
+        if (offerTable == null) {
             return offer;
         }
         
-        Map<String, Object> defaultOutput = (Map<String, Object>) outputMapping.get("defaultOutput");
-        if (defaultOutput != null) {
-            applyOfferValues(offer, defaultOutput);
+        if (offerTable.getDefaultOutput() != null) {
+            applyOfferValues(offer, offerTable.getDefaultOutput());
         }
         
-        List<Map<String, Object>> conditionalOutputs = (List<Map<String, Object>>) outputMapping.get("conditionalOutputs");
-        if (conditionalOutputs != null) {
-            for (Map<String, Object> conditional : conditionalOutputs) {
-                String condition = (String) conditional.get("condition");
-                if (evaluateCondition(condition, extractedFeatures)) {
-                    Map<String, Object> output = (Map<String, Object>) conditional.get("output");
-                    applyOfferValues(offer, output);
-                    break;
-                }
-            }
+        Map<String, Object> output = offerTable.selectOutput(extractedFeatures);
+        if (output != null) {
+            applyOfferValues(offer, output);
         }
         
         return offer;
@@ -155,46 +191,4 @@ public class PolicyEvaluationService {
         }
     }
 
-    private boolean evaluateCondition(String condition, Map<String, Object> extractedFeatures) {
-        if (condition == null || condition.isEmpty()) {
-            return true;
-        }
-        
-        if (condition.contains(">=")) {
-            String[] parts = condition.split(">=");
-            String featureName = parts[0].trim();
-            double threshold = Double.parseDouble(parts[1].trim());
-            Object value = extractedFeatures.get(featureName);
-            if (value instanceof Number) {
-                return ((Number) value).doubleValue() >= threshold;
-            }
-        } else if (condition.contains("<=")) {
-            String[] parts = condition.split("<=");
-            String featureName = parts[0].trim();
-            double threshold = Double.parseDouble(parts[1].trim());
-            Object value = extractedFeatures.get(featureName);
-            if (value instanceof Number) {
-                return ((Number) value).doubleValue() <= threshold;
-            }
-        } else if (condition.contains(">")) {
-            String[] parts = condition.split(">");
-            String featureName = parts[0].trim();
-            double threshold = Double.parseDouble(parts[1].trim());
-            Object value = extractedFeatures.get(featureName);
-            if (value instanceof Number) {
-                return ((Number) value).doubleValue() > threshold;
-            }
-        } else if (condition.contains("<")) {
-            String[] parts = condition.split("<");
-            String featureName = parts[0].trim();
-            double threshold = Double.parseDouble(parts[1].trim());
-            Object value = extractedFeatures.get(featureName);
-            if (value instanceof Number) {
-                return ((Number) value).doubleValue() < threshold;
-            }
-        }
-        
-        return false;
-    }
-
 }
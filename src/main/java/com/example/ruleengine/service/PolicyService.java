@@ -4,11 +4,13 @@ import com.example.ruleengine.dto.request.CreatePolicyRequest;
 import com.example.ruleengine.dto.response.PolicyResponse;
 import com.example.ruleengine.entity.Policy;
 import com.example.ruleengine.entity.enums.PolicyType;
+import com.example.ruleengine.event.EntityChangedEvent;
 import com.example.ruleengine.exception.ResourceNotFoundException;
 import com.example.ruleengine.exception.ValidationException;
 import com.example.ruleengine.repository.PolicyRepository;
 import com.example.ruleengine.repository.RuleRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,6 +25,7 @@ public class PolicyService {
 
     private final PolicyRepository policyRepository;
     private final RuleRepository ruleRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public PolicyResponse createPolicy(CreatePolicyRequest request) {
@@ -45,6 +48,8 @@ public class PolicyService {
                 .build();
 
         Policy savedPolicy = policyRepository.save(policy);
+        eventPublisher.publishEvent(new EntityChangedEvent(
+                EntityChangedEvent.EntityType.POLICY, savedPolicy.getId(), savedPolicy.getVersion()));
         return mapToResponse(savedPolicy);
     }
 
@@ -97,6 +102,8 @@ public class PolicyService {
 
         policy.setVersion(policy.getVersion() + 1);
         Policy updatedPolicy = policyRepository.save(policy);
+        eventPublisher.publishEvent(new EntityChangedEvent(
+                EntityChangedEvent.EntityType.POLICY, updatedPolicy.getId(), updatedPolicy.getVersion()));
         return mapToResponse(updatedPolicy);
     }
 
@@ -106,6 +113,7 @@ public class PolicyService {
             throw new ResourceNotFoundException("Policy", "id", id);
         }
         policyRepository.deleteById(id);
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.EntityType.POLICY, id, null));
     }
 
     public Policy getPolicyEntityById(UUID id) {
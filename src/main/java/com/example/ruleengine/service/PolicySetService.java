@@ -5,12 +5,16 @@ import com.example.ruleengine.dto.response.PolicySetResponse;
 import com.example.ruleengine.entity.Policy;
 import com.example.ruleengine.entity.PolicySet;
 import com.example.ruleengine.entity.PolicySetOfferPolicy;
+import com.example.ruleengine.entity.enums.EvaluationMode;
+import com.example.ruleengine.entity.enums.OfferSelectionMode;
 import com.example.ruleengine.entity.enums.PolicyType;
+import com.example.ruleengine.event.EntityChangedEvent;
 import com.example.ruleengine.exception.ResourceNotFoundException;
 import com.example.ruleengine.exception.ValidationException;
 import com.example.ruleengine.repository.PolicyRepository;
 import com.example.ruleengine.repository.PolicySetRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,6 +29,7 @@ public class PolicySetService {
 
     private final PolicySetRepository policySetRepository;
     private final PolicyRepository policyRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public PolicySetResponse createPolicySet(CreatePolicySetRequest request) {
@@ -63,6 +68,10 @@ public class PolicySetService {
                 .description(request.getDescription())
                 .booleanPolicy(booleanPolicy)
                 .evaluationStrategy(request.getEvaluationStrategy())
+                .evaluationMode(request.getEvaluationMode() != null ? request.getEvaluationMode() : EvaluationMode.EXHAUSTIVE)
+                .offerSelectionMode(request.getOfferSelectionMode() != null
+                        ? request.getOfferSelectionMode() : OfferSelectionMode.ALL_OFFERS)
+                .speculativeOfferCount(validateSpeculativeOfferCount(request.getSpeculativeOfferCount()))
                 .build();
 
         PolicySet savedPolicySet = policySetRepository.save(policySet);
@@ -150,8 +159,22 @@ public class PolicySetService {
             policySet.setEvaluationStrategy(request.getEvaluationStrategy());
         }
 
+        if (request.getEvaluationMode() != null) {
+            policySet.setEvaluationMode(request.getEvaluationMode());
+        }
+
+        if (request.getOfferSelectionMode() != null) {
+            policySet.setOfferSelectionMode(request.getOfferSelectionMode());
+        }
+
+        if (request.getSpeculativeOfferCount() != null) {
+            policySet.setSpeculativeOfferCount(validateSpeculativeOfferCount(request.getSpeculativeOfferCount()));
+        }
+
         policySet.setVersion(policySet.getVersion() + 1);
         PolicySet updatedPolicySet = policySetRepository.save(policySet);
+        eventPublisher.publishEvent(new EntityChangedEvent(
+                EntityChangedEvent.EntityType.POLICY_SET, updatedPolicySet.getId(), updatedPolicySet.getVersion()));
         return mapToResponse(updatedPolicySet);
     }
 
@@ -161,6 +184,7 @@ public class PolicySetService {
             throw new ResourceNotFoundException("PolicySet", "id", id);
         }
         policySetRepository.deleteById(id);
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.EntityType.POLICY_SET, id, null));
     }
 
     public PolicySet getPolicySetEntityById(UUID id) {
@@ -168,6 +192,16 @@ public class PolicySetService {
                 .orElseThrow(() -> new ResourceNotFoundException("PolicySet", "id", id));
     }
 
+    private int validateSpeculativeOfferCount(Integer speculativeOfferCount) {
+        if (speculativeOfferCount == null) {
+            return 0;
+        }
+        if (speculativeOfferCount < 0) {
+            throw new ValidationException("speculativeOfferCount must not be negative");
+        }
+        return speculativeOfferCount;
+    }
+
     private PolicySetResponse mapToResponse(PolicySet policySet) {
         List<PolicySetResponse.OfferPolicyInfo> offerPolicyInfos = new ArrayList<>();
         if (policySet.getOfferPolicies() != null) {
@@ -189,6 +223,9 @@ public class PolicySetService {
                 .booleanPolicyName(policySet.getBooleanPolicy() != null ? policySet.getBooleanPolicy().getName() : null)
                 .offerPolicies(offerPolicyInfos)
                 .evaluationStrategy(policySet.getEvaluationStrategy())
+                .evaluationMode(policySet.getEvaluationMode())
+                .offerSelectionMode(policySet.getOfferSelectionMode())
+                .speculativeOfferCount(policySet.getSpeculativeOfferCount())
                 .enabled(policySet.getEnabled())
                 .version(policySet.getVersion())
                 .createdAt(policySet.getCreatedAt())
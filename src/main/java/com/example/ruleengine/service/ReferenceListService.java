@@ -0,0 +1,137 @@
+package com.example.ruleengine.service;
+
+import com.example.ruleengine.dto.request.CreateReferenceListRequest;
+import com.example.ruleengine.dto.response.ReferenceListResponse;
+import com.example.ruleengine.entity.ReferenceList;
+import com.example.ruleengine.event.EntityChangedEvent;
+import com.example.ruleengine.exception.ResourceNotFoundException;
+import com.example.ruleengine.exception.ValidationException;
+import com.example.ruleengine.repository.ReferenceListRepository;
+import com.example.ruleengine.repository.RuleRepository;
+import com.example.ruleengine.service.plan.ReferenceListData;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReferenceListService {
+
+    private final ReferenceListRepository referenceListRepository;
+    private final RuleRepository ruleRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public ReferenceListResponse createReferenceList(CreateReferenceListRequest request) {
+        if (referenceListRepository.existsByName(request.getName())) {
+            throw new ValidationException("Reference list with name '" + request.getName() + "' already exists");
+        }
+
+        ReferenceList referenceList = ReferenceList.builder()
+                .name(request.getName())
+                .description(request.getDescription())
+                .valueType(request.getValueType())
+                .build();
+
+        ReferenceList savedReferenceList = referenceListRepository.saveAndFlush(referenceList);
+        insertContents(savedReferenceList.getId(), savedReferenceList.getVersion(),
+                ReferenceListData.encode(savedReferenceList.getValueType(), List.of()));
+        return mapToResponse(savedReferenceList);
+    }
+
+    public ReferenceListResponse getReferenceListById(UUID id) {
+        ReferenceList referenceList = referenceListRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("ReferenceList", "id", id));
+        return mapToResponse(referenceList);
+    }
+
+    public List<ReferenceListResponse> getAllReferenceLists() {
+        return referenceListRepository.findAll().stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    // Evaluations keep the previous version until the commit is observed and the loaded list is swapped
+    @Transactional
+    public ReferenceListResponse replaceEntries(UUID id, InputStream entries) {
+        ReferenceList referenceList = referenceListRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("ReferenceList", "id", id));
+
+        byte[] data = ReferenceListData.encode(referenceList.getValueType(), readLines(entries));
+        int entryCount = ReferenceListData.wrap(data).size();
+
+        int version = referenceList.getVersion() + 1;
+        insertContents(id, version, data);
+        jdbcTemplate.update("DELETE FROM reference_list_contents WHERE reference_list_id = :id AND version < :version",
+                new MapSqlParameterSource("id", id).addValue("version", version));
+
+        referenceList.setEntryCount((long) entryCount);
+        referenceList.setVersion(version);
+        ReferenceList updatedReferenceList = referenceListRepository.save(referenceList);
+        log.info("Uploaded reference list {} v{} with {} entries ({} bytes)",
+                updatedReferenceList.getName(), version, entryCount, data.length);
+        eventPublisher.publishEvent(new EntityChangedEvent(
+                EntityChangedEvent.EntityType.REFERENCE_LIST, updatedReferenceList.getId(), version));
+        return mapToResponse(updatedReferenceList);
+    }
+
+    @Transactional
+    public void deleteReferenceList(UUID id) {
+        if (!referenceListRepository.existsById(id)) {
+            throw new ResourceNotFoundException("ReferenceList", "id", id);
+        }
+        if (ruleRepository.existsByReferenceListId(id)) {
+            throw new ValidationException("Reference list " + id + " is still used by rules");
+        }
+        referenceListRepository.deleteById(id);
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.EntityType.REFERENCE_LIST, id, null));
+    }
+
+    private List<String> readLines(InputStream entries) {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(entries, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } catch (IOException e) {
+            throw new ValidationException("Could not read reference list entries: " + e.getMessage());
+        }
+        return lines;
+    }
+
+    private void insertContents(UUID id, int version, byte[] data) {
+        jdbcTemplate.update("INSERT INTO reference_list_contents (reference_list_id, version, data) "
+                        + "VALUES (:id, :version, :data)",
+                new MapSqlParameterSource("id", id).addValue("version", version).addValue("data", data));
+    }
+
+    private ReferenceListResponse mapToResponse(ReferenceList referenceList) {
+        return ReferenceListResponse.builder()
+                .id(referenceList.getId())
+                .name(referenceList.getName())
+                .description(referenceList.getDescription())
+                .valueType(referenceList.getValueType())
+                .entryCount(referenceList.getEntryCount())
+                .version(referenceList.getVersion())
+                .createdAt(referenceList.getCreatedAt())
+                .updatedAt(referenceList.getUpdatedAt())
+                .build();
+    }
+}
@@ -3,6 +3,8 @@ package com.example.ruleengine.service;
 import com.example.ruleengine.entity.Rule;
 import com.example.ruleengine.service.operator.OperatorStrategy;
 import com.example.ruleengine.service.operator.OperatorStrategyFactory;
+import com.example.ruleengine.service.plan.FeatureSlots;
+import com.example.ruleengine.service.plan.LeafPlanNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -20,6 +22,30 @@ public class RuleEvaluationService {
         
         OperatorStrategy strategy = operatorStrategyFactory.getStrategy(operatorCode);
         
+        // Same typed operand a compiled plan would hold, so ad-hoc rule tests behave like policy evaluation
+        return evaluate(strategy, featureValue, strategy.prepareOperand(operand, rule.getFeature().getFeatureType()));
+    }
+
+    // Compiled leaves go straight to their bound predicate, without a strategy lookup or operand inspection
+    public boolean evaluateLeaf(LeafPlanNode leaf, Object featureValue) {
+        if (featureValue == null) {
+            return leaf.isNullOutcome();
+        }
+        return leaf.getPredicate().test(featureValue);
+    }
+
+    public boolean evaluateLeaf(LeafPlanNode leaf, FeatureSlots slots) {
+        int slot = leaf.getSlot();
+        if (leaf.getNumericPredicate() != null && slots.isNumeric(slot)) {
+            return leaf.getNumericPredicate().test(slots.getNumeric(slot));
+        }
+        if (leaf.getBooleanOutcomes() != null && slots.isBoolean(slot)) {
+            return leaf.getBooleanOutcomes()[slots.getBoolean(slot) ? 1 : 0];
+        }
+        return evaluateLeaf(leaf, slots.getValue(slot));
+    }
+
+    private boolean evaluate(OperatorStrategy strategy, Object featureValue, Object operand) {
         if (featureValue == null) {
             return strategy.handleNullValue();
         }
@@ -4,17 +4,26 @@ import com.example.ruleengine.dto.request.CreateRuleRequest;
 import com.example.ruleengine.dto.response.RuleResponse;
 import com.example.ruleengine.entity.Feature;
 import com.example.ruleengine.entity.Operator;
+import com.example.ruleengine.entity.ReferenceList;
 import com.example.ruleengine.entity.Rule;
+import com.example.ruleengine.entity.enums.FeatureType;
+import com.example.ruleengine.entity.enums.ReferenceListValueType;
+import com.example.ruleengine.event.EntityChangedEvent;
 import com.example.ruleengine.exception.ResourceNotFoundException;
 import com.example.ruleengine.exception.ValidationException;
 import com.example.ruleengine.repository.FeatureRepository;
+import com.example.ruleengine.repository.ReferenceListRepository;
 import com.example.ruleengine.repository.RuleRepository;
+import com.example.ruleengine.service.operator.OperatorStrategyFactory;
+import com.example.ruleengine.service.plan.ReferenceListStore;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -22,9 +31,14 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class RuleService {
 
+    private static final Set<String> REFERENCE_LIST_OPERATORS = Set.of("IN", "NOT_IN", "CONTAINS_ANY");
+
     private final RuleRepository ruleRepository;
     private final FeatureRepository featureRepository;
     private final OperatorService operatorService;
+    private final OperatorStrategyFactory operatorStrategyFactory;
+    private final ReferenceListRepository referenceListRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public RuleResponse createRule(CreateRuleRequest request) {
@@ -34,7 +48,7 @@ public class RuleService {
         Operator operator = operatorService.getOperatorEntityByCode(request.getOperatorCode());
 
         validateOperatorCompatibility(feature, operator);
-        validateOperand(operator, request.getOperand());
+        validateOperand(feature, operator, request.getOperand());
 
         Rule rule = Rule.builder()
                 .name(request.getName())
@@ -91,13 +105,17 @@ public class RuleService {
             rule.setOperator(operator);
         }
 
-        if (request.getOperand() != null) {
-            validateOperand(rule.getOperator(), request.getOperand());
-            rule.setOperand(request.getOperand());
+        // A new feature or operator can invalidate the stored operand just like a new operand can
+        if (request.getFeatureId() != null || request.getOperatorCode() != null || request.getOperand() != null) {
+            Object operand = request.getOperand() != null ? request.getOperand() : rule.getOperand();
+            validateOperand(rule.getFeature(), rule.getOperator(), operand);
+            rule.setOperand(operand);
         }
 
         rule.setVersion(rule.getVersion() + 1);
         Rule updatedRule = ruleRepository.save(rule);
+        eventPublisher.publishEvent(new EntityChangedEvent(
+                EntityChangedEvent.EntityType.RULE, updatedRule.getId(), updatedRule.getVersion()));
         return mapToResponse(updatedRule);
     }
 
@@ -107,6 +125,7 @@ public class RuleService {
             throw new ResourceNotFoundException("Rule", "id", id);
         }
         ruleRepository.deleteById(id);
+        eventPublisher.publishEvent(new EntityChangedEvent(EntityChangedEvent.EntityType.RULE, id, null));
     }
 
     private void validateOperatorCompatibility(Feature feature, Operator operator) {
@@ -122,7 +141,7 @@ public class RuleService {
         }
     }
 
-    private void validateOperand(Operator operator, Object operand) {
+    private void validateOperand(Feature feature, Operator operator, Object operand) {
         switch (operator.getOperandType()) {
             case NONE:
                 if (operand != null) {
@@ -137,6 +156,11 @@ public class RuleService {
                 }
                 break;
             case LIST:
+                UUID referenceListId = ReferenceListStore.referenceListId(operand);
+                if (referenceListId != null) {
+                    validateReferenceListOperand(feature, operator, referenceListId);
+                    return;
+                }
                 if (operand == null || !(operand instanceof List)) {
                     throw new ValidationException(
                             String.format("Operator '%s' requires a list operand", operator.getCode()));
@@ -149,6 +173,28 @@ public class RuleService {
                 }
                 break;
         }
+
+        // e.g. an invalid regex or an unparseable date, which would otherwise only fail at evaluation time
+        if (operand != null && operatorStrategyFactory.hasStrategy(operator.getCode())) {
+            operatorStrategyFactory.getStrategy(operator.getCode()).prepareOperand(operand, feature.getFeatureType());
+        }
+    }
+
+    private void validateReferenceListOperand(Feature feature, Operator operator, UUID referenceListId) {
+        if (!REFERENCE_LIST_OPERATORS.contains(operator.getCode())) {
+            throw new ValidationException(
+                    String.format("Operator '%s' does not support reference list operands", operator.getCode()));
+        }
+        ReferenceList referenceList = referenceListRepository.findById(referenceListId)
+                .orElseThrow(() -> new ResourceNotFoundException("ReferenceList", "id", referenceListId));
+        // List features are checked element by element at evaluation time
+        FeatureType featureType = feature.getFeatureType();
+        ReferenceListValueType expected = featureType == FeatureType.NUMERIC ? ReferenceListValueType.NUMERIC
+                : featureType == FeatureType.STRING ? ReferenceListValueType.STRING : null;
+        if (featureType != FeatureType.LIST && referenceList.getValueType() != expected) {
+            throw new ValidationException(String.format("Reference list '%s' holds %s values but feature '%s' is %s",
+                    referenceList.getName(), referenceList.getValueType(), feature.getName(), featureType));
+        }
     }
 
     private RuleResponse mapToResponse(Rule rule) {
@@ -1,146 +1,301 @@
 package com.example.ruleengine.service;
 
 import com.example.ruleengine.dto.response.TreeEvaluationResultResponse;
-import com.example.ruleengine.entity.Rule;
+import com.example.ruleengine.entity.enums.EvaluationMode;
+import com.example.ruleengine.entity.enums.NodeType;
 import com.example.ruleengine.exception.ValidationException;
-import com.example.ruleengine.repository.RuleRepository;
+import com.example.ruleengine.service.plan.CompositePlanNode;
+import com.example.ruleengine.service.plan.EvaluationTrace;
+import com.example.ruleengine.service.plan.FeatureSlots;
+import com.example.ruleengine.service.plan.LeafPlanNode;
+import com.example.ruleengine.service.plan.PlanNode;
+import com.example.ruleengine.service.plan.RuleStatisticsRegistry;
+import com.example.ruleengine.service.plan.SubexpressionMemo;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TreeEvaluationService {
 
-    private final RuleRepository ruleRepository;
     private final RuleEvaluationService ruleEvaluationService;
+    private final RuleStatisticsRegistry ruleStatisticsRegistry;
 
-    public TreeEvaluationResultResponse evaluateTree(Map<String, Object> node, Map<String, Object> extractedFeatures) {
-        String nodeType = (String) node.get("type");
-        
-        if ("LEAF".equals(nodeType)) {
-            return evaluateLeafNode(node, extractedFeatures);
-        } else if ("COMPOSITE".equals(nodeType)) {
-            return evaluateCompositeNode(node, extractedFeatures);
+    public TreeEvaluationResultResponse evaluateTree(PlanNode node, FeatureSlots slots, EvaluationMode mode) {
+        EvaluationTrace trace = new EvaluationTrace(mode);
+        evaluate(node, slots, trace);
+        return explain(node, slots, trace);
+    }
+
+    // Hot path: only the leaf outcomes are recorded; see explain and collectFailureReasons for the details
+    public boolean evaluate(PlanNode node, FeatureSlots slots, EvaluationTrace trace) {
+        return evaluate(node, slots, trace, null);
+    }
+
+    // Nodes of a SharedPlan with a memo index are evaluated once per memo; later uses replay the memoized outcome
+    public boolean evaluate(PlanNode node, FeatureSlots slots, EvaluationTrace trace, SubexpressionMemo memo) {
+        int memoIndex = node.getMemoIndex();
+        if (memo == null || memoIndex < 0) {
+            return evaluateNode(node, slots, trace, memo);
+        }
+        if (memo.isEvaluated(memoIndex)) {
+            EvaluationTrace.Segment segment = memo.getSegment(memoIndex);
+            if (segment != null) {
+                trace.append(segment);
+            } else {
+                trace.record(memo.getResult(memoIndex));
+            }
+            return memo.getResult(memoIndex);
+        }
+        int start = trace.size();
+        boolean result = evaluateNode(node, slots, trace, memo);
+        memo.put(memoIndex, result, node instanceof CompositePlanNode ? trace.since(start) : null);
+        return result;
+    }
+
+    private boolean evaluateNode(PlanNode node, FeatureSlots slots, EvaluationTrace trace, SubexpressionMemo memo) {
+        if (node instanceof LeafPlanNode leaf) {
+            boolean result = ruleEvaluationService.evaluateLeaf(leaf, slots);
+            ruleStatisticsRegistry.record(leaf, result);
+            trace.record(result);
+            return result;
+        } else if (node instanceof CompositePlanNode composite) {
+            return evaluateComposite(composite, slots, trace, memo);
+        } else {
+            throw new ValidationException("Unknown node type: " + node.getNodeType());
+        }
+    }
+
+    private boolean evaluateComposite(CompositePlanNode node, FeatureSlots slots, EvaluationTrace trace,
+                                      SubexpressionMemo memo) {
+        boolean shortCircuit = trace.getMode() == EvaluationMode.SHORT_CIRCUIT;
+        List<PlanNode> children = node.getChildren();
+        switch (node.getOperator()) {
+            case AND: {
+                boolean allPassed = true;
+                for (int i = 0; i < children.size(); i++) {
+                    checkNotCancelled();
+                    if (!evaluate(children.get(i), slots, trace, memo)) {
+                        allPassed = false;
+                        if (shortCircuit) {
+                            break;
+                        }
+                    }
+                }
+                return allPassed;
+            }
+            case OR: {
+                boolean anyPassed = false;
+                for (int i = 0; i < children.size(); i++) {
+                    checkNotCancelled();
+                    if (evaluate(children.get(i), slots, trace, memo)) {
+                        anyPassed = true;
+                        if (shortCircuit) {
+                            break;
+                        }
+                    }
+                }
+                return anyPassed;
+            }
+            case NOT:
+                return !evaluate(children.get(0), slots, trace, memo);
+            default:
+                throw new ValidationException("Unknown operator: " + node.getOperator());
+        }
+    }
+
+    // A cancelled PARALLEL policy-set task is interrupted; stop instead of finishing a result nobody reads
+    private void checkNotCancelled() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Policy evaluation was cancelled");
+        }
+    }
+
+    // Rebuilds the full result tree of a finished evaluation by replaying its trace
+    public TreeEvaluationResultResponse explain(PlanNode node, FeatureSlots slots, EvaluationTrace trace) {
+        return explainNode(node, slots, trace.getMode(), trace.cursor());
+    }
+
+    // Failure reasons of every evaluated leaf that failed, without building the result tree
+    public List<String> collectFailureReasons(PlanNode node, FeatureSlots slots, EvaluationTrace trace) {
+        List<String> reasons = new ArrayList<>();
+        replayFailures(node, slots, trace.getMode(), trace.cursor(), reasons);
+        return reasons;
+    }
+
+    private TreeEvaluationResultResponse explainNode(PlanNode node, FeatureSlots slots, EvaluationMode mode,
+                                                     EvaluationTrace.Cursor cursor) {
+        if (node instanceof LeafPlanNode leaf) {
+            return explainLeafNode(leaf, slots, cursor.next());
+        } else if (node instanceof CompositePlanNode composite) {
+            return explainCompositeNode(composite, slots, mode, cursor);
         } else {
-            throw new ValidationException("Unknown node type: " + nodeType);
+            throw new ValidationException("Unknown node type: " + node.getNodeType());
         }
     }
 
-    private TreeEvaluationResultResponse evaluateLeafNode(Map<String, Object> node, Map<String, Object> extractedFeatures) {
-        String ruleIdStr = (String) node.get("ruleId");
-        UUID ruleId = UUID.fromString(ruleIdStr);
-        
-        Rule rule = ruleRepository.findById(ruleId)
-                .orElseThrow(() -> new ValidationException("Rule not found: " + ruleId));
-        
-        String featureName = rule.getFeature().getName();
-        Object featureValue = extractedFeatures.get(featureName);
-        
-        boolean result = ruleEvaluationService.evaluateRule(rule, featureValue);
-        
+    private TreeEvaluationResultResponse explainLeafNode(LeafPlanNode leaf, FeatureSlots slots, boolean result) {
+        Object featureValue = slots.getValue(leaf.getSlot());
+
         TreeEvaluationResultResponse evalResult = new TreeEvaluationResultResponse();
         evalResult.setResult(result);
-        evalResult.setNodeType("LEAF");
-        evalResult.setRuleId(ruleId);
-        evalResult.setRuleName(rule.getName());
-        evalResult.setFeatureName(featureName);
+        evalResult.setNodeType(NodeType.LEAF.name());
+        evalResult.setRuleId(leaf.getRuleId());
+        evalResult.setRuleName(leaf.getRuleName());
+        evalResult.setFeatureName(leaf.getFeatureName());
         evalResult.setFeatureValue(featureValue);
-        evalResult.setOperatorCode(rule.getOperator().getCode());
-        evalResult.setOperand(rule.getOperand());
-        
+        evalResult.setOperatorCode(leaf.getOperatorCode());
+        evalResult.setOperand(leaf.getOperand());
+
         if (!result) {
-            evalResult.setFailureReason(String.format("Rule '%s' failed: %s %s %s = false",
-                    rule.getName(), featureValue, rule.getOperator().getCode(), rule.getOperand()));
+            evalResult.setFailureReason(failureReason(leaf, featureValue));
         }
-        
+
         return evalResult;
     }
 
-    @SuppressWarnings("unchecked")
-    private TreeEvaluationResultResponse evaluateCompositeNode(Map<String, Object> node, Map<String, Object> extractedFeatures) {
-        String operator = (String) node.get("operator");
-        List<Map<String, Object>> children = (List<Map<String, Object>>) node.get("children");
-        
+    private String failureReason(LeafPlanNode leaf, Object featureValue) {
+        return String.format("Rule '%s' failed: %s %s %s = false",
+                leaf.getRuleName(), featureValue, leaf.getOperatorCode(), leaf.getOperand());
+    }
+
+    private TreeEvaluationResultResponse explainCompositeNode(CompositePlanNode node, FeatureSlots slots,
+                                                              EvaluationMode mode, EvaluationTrace.Cursor cursor) {
+        List<PlanNode> children = node.getChildren();
+
         TreeEvaluationResultResponse result = new TreeEvaluationResultResponse();
-        result.setNodeType("COMPOSITE");
-        result.setOperator(operator);
+        result.setNodeType(NodeType.COMPOSITE.name());
+        result.setOperator(node.getOperator().name());
         result.setChildResults(new ArrayList<>());
-        
-        switch (operator) {
-            case "AND":
-                result.setResult(evaluateAnd(children, extractedFeatures, result));
+
+        switch (node.getOperator()) {
+            case AND:
+                result.setResult(explainAnd(children, slots, mode, cursor, result));
                 break;
-            case "OR":
-                result.setResult(evaluateOr(children, extractedFeatures, result));
+            case OR:
+                result.setResult(explainOr(children, slots, mode, cursor, result));
                 break;
-            case "NOT":
-                result.setResult(evaluateNot(children.get(0), extractedFeatures, result));
+            case NOT:
+                result.setResult(explainNot(children.get(0), slots, mode, cursor, result));
                 break;
             default:
-                throw new ValidationException("Unknown operator: " + operator);
+                throw new ValidationException("Unknown operator: " + node.getOperator());
         }
-        
+
         return result;
     }
 
-    private boolean evaluateAnd(List<Map<String, Object>> children, Map<String, Object> extractedFeatures, TreeEvaluationResultResponse parentResult) {
+    private boolean explainAnd(List<PlanNode> children, FeatureSlots slots, EvaluationMode mode,
+                               EvaluationTrace.Cursor cursor, TreeEvaluationResultResponse parentResult) {
         List<String> failureReasons = new ArrayList<>();
         boolean allPassed = true;
-        
-        for (Map<String, Object> child : children) {
-            TreeEvaluationResultResponse childResult = evaluateTree(child, extractedFeatures);
+
+        for (PlanNode child : children) {
+            TreeEvaluationResultResponse childResult = explainNode(child, slots, mode, cursor);
             parentResult.getChildResults().add(childResult);
-            
+
             if (!childResult.isResult()) {
                 allPassed = false;
                 if (childResult.getFailureReason() != null) {
                     failureReasons.add(childResult.getFailureReason());
                 }
+                if (mode == EvaluationMode.SHORT_CIRCUIT) {
+                    break;
+                }
             }
         }
-        
+
         if (!allPassed) {
             parentResult.setFailureReason(String.join("; ", failureReasons));
         }
-        
+
         return allPassed;
     }
 
-    private boolean evaluateOr(List<Map<String, Object>> children, Map<String, Object> extractedFeatures, TreeEvaluationResultResponse parentResult) {
+    private boolean explainOr(List<PlanNode> children, FeatureSlots slots, EvaluationMode mode,
+                              EvaluationTrace.Cursor cursor, TreeEvaluationResultResponse parentResult) {
         List<String> failureReasons = new ArrayList<>();
         boolean anyPassed = false;
-        
-        for (Map<String, Object> child : children) {
-            TreeEvaluationResultResponse childResult = evaluateTree(child, extractedFeatures);
+
+        for (PlanNode child : children) {
+            TreeEvaluationResultResponse childResult = explainNode(child, slots, mode, cursor);
             parentResult.getChildResults().add(childResult);
-            
+
             if (childResult.isResult()) {
                 anyPassed = true;
+                if (mode == EvaluationMode.SHORT_CIRCUIT) {
+                    break;
+                }
             } else if (childResult.getFailureReason() != null) {
                 failureReasons.add(childResult.getFailureReason());
             }
         }
-        
+
         if (!anyPassed) {
             parentResult.setFailureReason("All OR conditions failed: " + String.join("; ", failureReasons));
         }
-        
+
         return anyPassed;
     }
 
-    private boolean evaluateNot(Map<String, Object> child, Map<String, Object> extractedFeatures, TreeEvaluationResultResponse parentResult) {
-        TreeEvaluationResultResponse childResult = evaluateTree(child, extractedFeatures);
+    private boolean explainNot(PlanNode child, FeatureSlots slots, EvaluationMode mode,
+                               EvaluationTrace.Cursor cursor, TreeEvaluationResultResponse parentResult) {
+        TreeEvaluationResultResponse childResult = explainNode(child, slots, mode, cursor);
         parentResult.getChildResults().add(childResult);
-        
+
         boolean result = !childResult.isResult();
         if (!result) {
             parentResult.setFailureReason("NOT condition failed: inner condition was true");
         }
-        
+
         return result;
     }
+
+    private boolean replayFailures(PlanNode node, FeatureSlots slots, EvaluationMode mode,
+                                   EvaluationTrace.Cursor cursor, List<String> reasons) {
+        if (node instanceof LeafPlanNode leaf) {
+            boolean result = cursor.next();
+            if (!result) {
+                reasons.add(failureReason(leaf, slots.getValue(leaf.getSlot())));
+            }
+            return result;
+        }
+        CompositePlanNode composite = (CompositePlanNode) node;
+        List<PlanNode> children = composite.getChildren();
+        switch (composite.getOperator()) {
+            case AND: {
+                boolean allPassed = true;
+                for (PlanNode child : children) {
+                    if (!replayFailures(child, slots, mode, cursor, reasons)) {
+                        allPassed = false;
+                        if (mode == EvaluationMode.SHORT_CIRCUIT) {
+                            break;
+                        }
+                    }
+                }
+                return allPassed;
+            }
+            case OR: {
+                boolean anyPassed = false;
+                for (PlanNode child : children) {
+                    if (replayFailures(child, slots, mode, cursor, reasons)) {
+                        anyPassed = true;
+                        if (mode == EvaluationMode.SHORT_CIRCUIT) {
+                            break;
+                        }
+                    }
+                }
+                return anyPassed;
+            }
+            case NOT:
+                return !replayFailures(children.get(0), slots, mode, cursor, reasons);
+            default:
+                throw new ValidationException("Unknown operator: " + composite.getOperator());
+        }
+    }
 }
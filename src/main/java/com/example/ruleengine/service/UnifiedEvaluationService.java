@@ -3,96 +3,234 @@ package com.example.ruleengine.service;
 import com.example.ruleengine.dto.response.OfferResultSummaryResponse;
 import com.example.ruleengine.dto.response.PolicyEvaluationResultResponse;
 import com.example.ruleengine.dto.response.UnifiedEvaluationResultResponse;
-import com.example.ruleengine.entity.Policy;
-import com.example.ruleengine.entity.PolicySet;
 import com.example.ruleengine.entity.PolicySetExecutionLog;
-import com.example.ruleengine.entity.PolicySetOfferPolicy;
+import com.example.ruleengine.entity.enums.EvaluationMode;
+import com.example.ruleengine.entity.enums.EvaluationStrategy;
+import com.example.ruleengine.entity.enums.OfferSelectionMode;
+import com.example.ruleengine.exception.EvaluationTimeoutException;
+import com.example.ruleengine.exception.ValidationException;
 import com.example.ruleengine.repository.PolicySetExecutionLogRepository;
+import com.example.ruleengine.service.plan.CompiledOfferPolicy;
+import com.example.ruleengine.service.plan.CompiledPolicy;
+import com.example.ruleengine.service.plan.CompiledPolicySet;
+import com.example.ruleengine.service.plan.CompiledPolicySetCache;
+import com.example.ruleengine.service.plan.EvaluationContext;
+import com.example.ruleengine.service.plan.FeatureExtractionPlan;
+import com.example.ruleengine.service.plan.SharedEvaluation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class UnifiedEvaluationService {
 
-    private final PolicySetService policySetService;
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    private final CompiledPolicySetCache compiledPolicySetCache;
     private final PolicyEvaluationService policyEvaluationService;
     private final PolicySetExecutionLogRepository executionLogRepository;
     private final ObjectMapper objectMapper;
+    private final ExecutorService policyEvaluationExecutor;
+    private final long parallelTimeoutMs;
+    private final boolean streamingExtraction;
+    private final boolean logExplain;
+    private final boolean sharedSubexpressions;
+
+    public UnifiedEvaluationService(CompiledPolicySetCache compiledPolicySetCache,
+                                    PolicyEvaluationService policyEvaluationService,
+                                    PolicySetExecutionLogRepository executionLogRepository,
+                                    ObjectMapper objectMapper,
+                                    @Qualifier("policyEvaluationExecutor") ExecutorService policyEvaluationExecutor,
+                                    @Value("${rule-engine.evaluation.parallel.timeout-ms:5000}") long parallelTimeoutMs,
+                                    @Value("${rule-engine.evaluation.streaming-extraction:false}") boolean streamingExtraction,
+                                    @Value("${rule-engine.evaluation.log-explain:true}") boolean logExplain,
+                                    @Value("${rule-engine.evaluation.shared-subexpressions:true}") boolean sharedSubexpressions) {
+        this.compiledPolicySetCache = compiledPolicySetCache;
+        this.policyEvaluationService = policyEvaluationService;
+        this.executionLogRepository = executionLogRepository;
+        this.objectMapper = objectMapper;
+        this.policyEvaluationExecutor = policyEvaluationExecutor;
+        this.parallelTimeoutMs = parallelTimeoutMs;
+        this.streamingExtraction = streamingExtraction;
+        this.logExplain = logExplain;
+        this.sharedSubexpressions = sharedSubexpressions;
+    }
 
     public UnifiedEvaluationResultResponse evaluate(UUID policySetId, Map<String, Object> inputData) {
+        return evaluate(policySetId, inputData, null);
+    }
+
+    public UnifiedEvaluationResultResponse evaluate(UUID policySetId, Map<String, Object> inputData,
+                                                    EvaluationMode requestedMode) {
         long startTime = System.currentTimeMillis();
         
-        PolicySet policySet = policySetService.getPolicySetEntityById(policySetId);
-        
+        CompiledPolicySet policySet = compiledPolicySetCache.getCompiledPolicySet(policySetId);
+        UnifiedEvaluationResultResponse result = evaluate(policySet, inputData, requestedMode);
+
+        long executionTime = System.currentTimeMillis() - startTime;
+        logExecution(policySet, inputData, result, (int) executionTime);
+
+        return result;
+    }
+
+    // Evaluates a raw {"inputData": {...}} request body
+    public UnifiedEvaluationResultResponse evaluate(UUID policySetId, InputStream requestBody,
+                                                    EvaluationMode requestedMode) {
+        long startTime = System.currentTimeMillis();
+
+        CompiledPolicySet policySet = compiledPolicySetCache.getCompiledPolicySet(policySetId);
+        EvaluationContext context = readRequest(policySet, requestBody);
+        UnifiedEvaluationResultResponse result = evaluate(policySet, context, requestedMode);
+
+        long executionTime = System.currentTimeMillis() - startTime;
+        logExecution(policySet, context.getInputData(), result, (int) executionTime);
+
+        return result;
+    }
+
+    EvaluationContext readRequest(CompiledPolicySet policySet, InputStream requestBody) {
+        try (JsonParser parser = objectMapper.createParser(requestBody)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new ValidationException("Request body must be a JSON object");
+            }
+            EvaluationContext context = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if (!"inputData".equals(name) || token == JsonToken.VALUE_NULL) {
+                    parser.skipChildren();
+                } else if (token != JsonToken.START_OBJECT) {
+                    throw new ValidationException("Input data must be a JSON object");
+                } else if (streamingExtraction && policySet.getExtractionPlan() != null) {
+                    FeatureExtractionPlan plan = policySet.getExtractionPlan();
+                    context = EvaluationContext.fromStreamedInput(plan.read(parser), plan);
+                } else {
+                    context = new EvaluationContext(parser.readValueAs(MAP_TYPE), policySet.getExtractionPlan());
+                }
+            }
+            if (context == null) {
+                throw new ValidationException("Input data is required");
+            }
+            return context;
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("Malformed JSON request body: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    UnifiedEvaluationResultResponse evaluate(CompiledPolicySet policySet, Map<String, Object> inputData,
+                                             EvaluationMode requestedMode) {
+        return evaluate(policySet, new EvaluationContext(inputData, policySet.getExtractionPlan()), requestedMode);
+    }
+
+    private UnifiedEvaluationResultResponse evaluate(CompiledPolicySet policySet, EvaluationContext context,
+                                                     EvaluationMode requestedMode) {
         UnifiedEvaluationResultResponse result = new UnifiedEvaluationResultResponse();
-        result.setPolicySetId(policySetId);
+        result.setPolicySetId(policySet.getPolicySetId());
         result.setPolicySetName(policySet.getName());
         result.setEvaluationStrategy(policySet.getEvaluationStrategy());
+        result.setEvaluationMode(requestedMode != null ? requestedMode : policySet.getEvaluationMode());
         result.setEvaluatedAt(LocalDateTime.now());
 
-        Policy booleanPolicy = policySet.getBooleanPolicy();
-        List<PolicySetOfferPolicy> offerPolicies = policySet.getOfferPolicies();
+        CompiledPolicy booleanPolicy = policySet.getBooleanPolicy();
+        List<CompiledOfferPolicy> offerPolicies = policySet.getOfferPolicies();
+        // PARALLEL runs its policies concurrently, so only policies evaluated one after another share a memo
+        boolean sequential = policySet.getEvaluationStrategy() != EvaluationStrategy.PARALLEL;
+        SharedEvaluation shared = sharedSubexpressions && sequential
+                ? policyEvaluationService.startSharedEvaluation(policySet, context, result.getEvaluationMode())
+                : null;
 
         switch (policySet.getEvaluationStrategy()) {
             case BOOLEAN_FIRST:
-                evaluateBooleanFirst(result, policySet, booleanPolicy, offerPolicies, inputData);
+                evaluateBooleanFirst(result, policySet, booleanPolicy, offerPolicies, context, shared);
                 break;
             case OFFER_FIRST:
-                evaluateOfferFirst(result, policySet, booleanPolicy, offerPolicies, inputData);
+                evaluateOfferFirst(result, policySet, booleanPolicy, offerPolicies, context, shared);
                 break;
             case PARALLEL:
-                evaluateParallel(result, policySet, booleanPolicy, offerPolicies, inputData);
+                evaluateParallel(result, policySet, booleanPolicy, offerPolicies, context);
                 break;
             default:
-                evaluateBooleanFirst(result, policySet, booleanPolicy, offerPolicies, inputData);
+                evaluateBooleanFirst(result, policySet, booleanPolicy, offerPolicies, context, shared);
         }
 
-        long executionTime = System.currentTimeMillis() - startTime;
-        logExecution(policySet, inputData, result, (int) executionTime);
+        result.setExtractedFeatures(context.getExtractedFeatures());
 
         return result;
     }
 
-    private void logExecution(PolicySet policySet, Map<String, Object> inputData, 
+    private void logExecution(CompiledPolicySet policySet, Map<String, Object> inputData, 
                               UnifiedEvaluationResultResponse result, int executionTimeMs) {
+        PolicySetExecutionLog executionLog = buildExecutionLog(policySet, inputData, result, executionTimeMs);
+        if (executionLog == null) {
+            return;
+        }
         try {
-            Map<String, Object> extractedFeatures = new HashMap<>();
-            if (result.getBooleanResult() != null && result.getBooleanResult().getExtractedFeatures() != null) {
-                extractedFeatures.putAll(result.getBooleanResult().getExtractedFeatures());
-            }
-            if (result.getOfferResult() != null && result.getOfferResult().getExtractedFeatures() != null) {
-                extractedFeatures.putAll(result.getOfferResult().getExtractedFeatures());
-            }
+            executionLogRepository.save(executionLog);
+            log.debug("Logged execution for PolicySet {} with decision {}", 
+                    policySet.getPolicySetId(), executionLog.getDecisionStatus() != null ? executionLog.getDecisionStatus() : "N/A");
+        } catch (Exception e) {
+            log.error("Failed to log execution for PolicySet {}: {}", policySet.getPolicySetId(), e.getMessage());
+        }
+    }
 
-            PolicySetExecutionLog executionLog = PolicySetExecutionLog.builder()
-                    .policySetId(policySet.getId())
+    PolicySetExecutionLog buildExecutionLog(CompiledPolicySet policySet, Map<String, Object> inputData,
+                                            UnifiedEvaluationResultResponse result, int executionTimeMs) {
+        try {
+            Map<String, Object> extractedFeatures = result.getExtractedFeatures() != null
+                    ? result.getExtractedFeatures()
+                    : new HashMap<>();
+
+            return PolicySetExecutionLog.builder()
+                    .policySetId(policySet.getPolicySetId())
                     .policySetVersion(policySet.getVersion())
                     .inputData(inputData)
                     .extractedFeatures(extractedFeatures)
-                    .booleanPolicyResult(convertToMap(result.getBooleanResult()))
-                    .offerPolicyResult(convertToMap(result.getOfferResult()))
+                    .booleanPolicyResult(convertToMap(forLog(result.getBooleanResult())))
+                    .offerPolicyResult(convertToMap(forLog(result.getOfferResult())))
                     .decisionStatus(result.getDecision() != null ? result.getDecision().getStatus() : null)
                     .executionTimeMs(executionTimeMs)
                     .executedAt(result.getEvaluatedAt())
                     .build();
-
-            executionLogRepository.save(executionLog);
-            log.debug("Logged execution for PolicySet {} with decision {}", 
-                    policySet.getId(), result.getDecision() != null ? result.getDecision().getStatus() : "N/A");
         } catch (Exception e) {
-            log.error("Failed to log execution for PolicySet {}: {}", policySet.getId(), e.getMessage());
+            log.error("Failed to build execution log for PolicySet {}: {}", policySet.getPolicySetId(), e.getMessage());
+            return null;
+        }
+    }
+
+    // The result tree is only built here when execution logs are configured to keep it
+    private PolicyEvaluationResultResponse forLog(PolicyEvaluationResultResponse policyResult) {
+        if (policyResult == null || logExplain) {
+            return policyResult;
         }
+        return policyResult.toBuilder().treeResult(null).treeResultSupplier(null).build();
     }
 
     @SuppressWarnings("unchecked")
@@ -106,35 +244,35 @@ public class UnifiedEvaluationService {
         }
     }
 
-    private void evaluateBooleanFirst(UnifiedEvaluationResultResponse result, PolicySet policySet,
-                                       Policy booleanPolicy, List<PolicySetOfferPolicy> offerPolicies,
-                                       Map<String, Object> inputData) {
+    private void evaluateBooleanFirst(UnifiedEvaluationResultResponse result, CompiledPolicySet policySet,
+                                       CompiledPolicy booleanPolicy, List<CompiledOfferPolicy> offerPolicies,
+                                       EvaluationContext context, SharedEvaluation shared) {
         if (booleanPolicy != null) {
             PolicyEvaluationResultResponse booleanResult = 
-                    policyEvaluationService.evaluatePolicy(booleanPolicy.getId(), inputData);
+                    evaluatePolicy(booleanPolicy, context, shared, result.getEvaluationMode());
             result.setBooleanResult(booleanResult);
             result.setDecision(booleanResult.getDecision());
 
             if ("APPROVED".equals(booleanResult.getDecision().getStatus())) {
-                evaluateOfferPoliciesWithPriority(result, offerPolicies, inputData);
+                evaluateOfferPoliciesWithPriority(result, policySet, offerPolicies, context, shared);
             }
         } else {
-            evaluateOfferPoliciesWithPriority(result, offerPolicies, inputData);
+            evaluateOfferPoliciesWithPriority(result, policySet, offerPolicies, context, shared);
             if (result.getOfferResult() != null) {
                 result.setDecision(result.getOfferResult().getDecision());
             }
         }
     }
 
-    private void evaluateOfferFirst(UnifiedEvaluationResultResponse result, PolicySet policySet,
-                                     Policy booleanPolicy, List<PolicySetOfferPolicy> offerPolicies,
-                                     Map<String, Object> inputData) {
-        evaluateOfferPoliciesWithPriority(result, offerPolicies, inputData);
+    private void evaluateOfferFirst(UnifiedEvaluationResultResponse result, CompiledPolicySet policySet,
+                                     CompiledPolicy booleanPolicy, List<CompiledOfferPolicy> offerPolicies,
+                                     EvaluationContext context, SharedEvaluation shared) {
+        evaluateOfferPoliciesWithPriority(result, policySet, offerPolicies, context, shared);
 
         if (result.getOfferResult() != null && "APPROVED".equals(result.getOfferResult().getDecision().getStatus())) {
             if (booleanPolicy != null) {
                 PolicyEvaluationResultResponse booleanResult = 
-                        policyEvaluationService.evaluatePolicy(booleanPolicy.getId(), inputData);
+                        evaluatePolicy(booleanPolicy, context, shared, result.getEvaluationMode());
                 result.setBooleanResult(booleanResult);
                 result.setDecision(booleanResult.getDecision());
             } else {
@@ -142,7 +280,7 @@ public class UnifiedEvaluationService {
             }
         } else if (booleanPolicy != null) {
             PolicyEvaluationResultResponse booleanResult = 
-                    policyEvaluationService.evaluatePolicy(booleanPolicy.getId(), inputData);
+                    evaluatePolicy(booleanPolicy, context, shared, result.getEvaluationMode());
             result.setBooleanResult(booleanResult);
             result.setDecision(booleanResult.getDecision());
         } else if (result.getOfferResult() != null) {
@@ -150,59 +288,233 @@ public class UnifiedEvaluationService {
         }
     }
 
-    private void evaluateParallel(UnifiedEvaluationResultResponse result, PolicySet policySet,
-                                   Policy booleanPolicy, List<PolicySetOfferPolicy> offerPolicies,
-                                   Map<String, Object> inputData) {
-        PolicyEvaluationResultResponse booleanResult = null;
+    // Only FIRST_APPROVED cancels offers early; ALL_OFFERS waits for every offer
+    private void evaluateParallel(UnifiedEvaluationResultResponse result, CompiledPolicySet policySet,
+                                   CompiledPolicy booleanPolicy, List<CompiledOfferPolicy> offerPolicies,
+                                   EvaluationContext context) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(parallelTimeoutMs);
+        EvaluationMode mode = result.getEvaluationMode();
+        boolean firstApproved = policySet.getOfferSelectionMode() == OfferSelectionMode.FIRST_APPROVED;
 
+        List<CompiledOfferPolicy> enabledOffers = new ArrayList<>();
+        List<FutureTask<PolicyEvaluationResultResponse>> offerFutures = new ArrayList<>();
+        if (offerPolicies != null) {
+            for (CompiledOfferPolicy offerPolicy : offerPolicies) {
+                if (offerPolicy.isEnabled()) {
+                    int priorityIndex = enabledOffers.size();
+                    enabledOffers.add(offerPolicy);
+                    offerFutures.add(task(offerPolicy.getPolicy(), context, mode, offerResult -> {
+                        if (firstApproved && isApprovedOffer(offerResult)) {
+                            cancel(offerFutures.subList(priorityIndex + 1, offerFutures.size()));
+                        }
+                    }));
+                }
+            }
+        }
+
+        FutureTask<PolicyEvaluationResultResponse> booleanFuture = null;
         if (booleanPolicy != null) {
-            booleanResult = policyEvaluationService.evaluatePolicy(booleanPolicy.getId(), inputData);
-            result.setBooleanResult(booleanResult);
+            booleanFuture = task(booleanPolicy, context, mode, booleanResult -> {
+                if (firstApproved && !"APPROVED".equals(booleanResult.getDecision().getStatus())) {
+                    cancel(offerFutures);
+                }
+            });
+        }
+        // Started only once every task exists, so the callbacks above always see the complete list
+        offerFutures.forEach(policyEvaluationExecutor::execute);
+        if (booleanFuture != null) {
+            policyEvaluationExecutor.execute(booleanFuture);
         }
 
-        evaluateOfferPoliciesWithPriority(result, offerPolicies, inputData);
+        try {
+            PolicyEvaluationResultResponse booleanResult = null;
+            if (booleanFuture != null) {
+                booleanResult = await(booleanFuture, deadline, policySet);
+                result.setBooleanResult(booleanResult);
+                if (firstApproved && !"APPROVED".equals(booleanResult.getDecision().getStatus())) {
+                    result.setDecision(booleanResult.getDecision());
+                    return;
+                }
+            }
 
-        if (booleanResult != null) {
-            result.setDecision(booleanResult.getDecision());
-            if ("APPROVED".equals(booleanResult.getDecision().getStatus()) && result.getOfferResult() != null) {
-                result.setOffer(result.getOfferResult().getOffer());
+            List<OfferPolicyEvaluationResult> allOfferResults = new ArrayList<>();
+            for (int i = 0; i < offerFutures.size(); i++) {
+                CompiledOfferPolicy offerPolicy = enabledOffers.get(i);
+                try {
+                    PolicyEvaluationResultResponse evalResult = await(offerFutures.get(i), deadline, policySet);
+                    allOfferResults.add(new OfferPolicyEvaluationResult(
+                            offerPolicy.getPriority(),
+                            offerPolicy.getPolicy().getName(),
+                            evalResult
+                    ));
+                    if (firstApproved && isApprovedOffer(evalResult)) {
+                        break;
+                    }
+                } catch (CancellationException e) {
+                    // A higher priority was approved first
+                } catch (EvaluationTimeoutException e) {
+                    throw e;
+                } catch (Exception e) {
+                    log.warn("Failed to evaluate offer policy {}: {}", 
+                            offerPolicy.getPolicy().getName(), e.getMessage());
+                }
+            }
+            applyOfferResults(result, allOfferResults);
+
+            if (booleanResult != null) {
+                result.setDecision(booleanResult.getDecision());
+                if ("APPROVED".equals(booleanResult.getDecision().getStatus()) && result.getOfferResult() != null) {
+                    result.setOffer(result.getOfferResult().getOffer());
+                }
+            } else if (result.getOfferResult() != null) {
+                result.setDecision(result.getOfferResult().getDecision());
+            }
+        } finally {
+            cancel(offerFutures);
+            if (booleanFuture != null) {
+                booleanFuture.cancel(true);
             }
-        } else if (result.getOfferResult() != null) {
-            result.setDecision(result.getOfferResult().getDecision());
         }
     }
 
+    private PolicyEvaluationResultResponse evaluatePolicy(CompiledPolicy policy, EvaluationContext context,
+                                                          SharedEvaluation shared, EvaluationMode mode) {
+        return shared != null
+                ? policyEvaluationService.evaluatePolicy(policy, shared, mode)
+                : policyEvaluationService.evaluatePolicy(policy, context, mode);
+    }
+
+    // onResult runs on the evaluating thread, so losing policies are interrupted as soon as the outcome is known
+    private FutureTask<PolicyEvaluationResultResponse> task(CompiledPolicy policy, EvaluationContext context,
+                                                            EvaluationMode mode,
+                                                            Consumer<PolicyEvaluationResultResponse> onResult) {
+        return new FutureTask<>(() -> {
+            PolicyEvaluationResultResponse policyResult = policyEvaluationService.evaluatePolicy(policy, context, mode);
+            onResult.accept(policyResult);
+            return policyResult;
+        });
+    }
+
+    // Interrupts running evaluations; TreeEvaluationService stops at the next composite child
+    private void cancel(List<? extends Future<?>> futures) {
+        futures.forEach(future -> future.cancel(true));
+    }
+
+    private PolicyEvaluationResultResponse await(Future<PolicyEvaluationResultResponse> future,
+                                                 long deadline, CompiledPolicySet policySet) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new EvaluationTimeoutException("PolicySet '" + policySet.getName()
+                    + "' did not complete within " + parallelTimeoutMs + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EvaluationTimeoutException("PolicySet '" + policySet.getName() + "' evaluation was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private boolean isApprovedOffer(PolicyEvaluationResultResponse offerResult) {
+        return "APPROVED".equals(offerResult.getDecision().getStatus()) && offerResult.getOffer() != null;
+    }
+
     private void evaluateOfferPoliciesWithPriority(UnifiedEvaluationResultResponse result,
-                                                    List<PolicySetOfferPolicy> offerPolicies,
-                                                    Map<String, Object> inputData) {
+                                                    CompiledPolicySet policySet,
+                                                    List<CompiledOfferPolicy> offerPolicies,
+                                                    EvaluationContext context, SharedEvaluation shared) {
+        if (policySet.getOfferSelectionMode() == OfferSelectionMode.FIRST_APPROVED) {
+            evaluateOfferPoliciesUntilApproved(result, policySet, offerPolicies, context, shared);
+            return;
+        }
+
         List<OfferPolicyEvaluationResult> allOfferResults = new ArrayList<>();
 
         if (offerPolicies != null && !offerPolicies.isEmpty()) {
-            for (PolicySetOfferPolicy psop : offerPolicies) {
-                if (psop.getEnabled() == null || psop.getEnabled()) {
+            for (CompiledOfferPolicy offerPolicy : offerPolicies) {
+                if (offerPolicy.isEnabled()) {
                     try {
                         PolicyEvaluationResultResponse evalResult = 
-                                policyEvaluationService.evaluatePolicy(psop.getOfferPolicy().getId(), inputData);
+                                evaluatePolicy(offerPolicy.getPolicy(), context, shared, result.getEvaluationMode());
                         allOfferResults.add(new OfferPolicyEvaluationResult(
-                                psop.getPriority(),
-                                psop.getOfferPolicy().getName(),
+                                offerPolicy.getPriority(),
+                                offerPolicy.getPolicy().getName(),
                                 evalResult
                         ));
                     } catch (Exception e) {
                         log.warn("Failed to evaluate offer policy {}: {}", 
-                                psop.getOfferPolicy().getName(), e.getMessage());
+                                offerPolicy.getPolicy().getName(), e.getMessage());
                     }
                 }
             }
         }
 
+        applyOfferResults(result, allOfferResults);
+    }
+
+    // The next speculative-count priorities run ahead and are cancelled once one is approved
+    private void evaluateOfferPoliciesUntilApproved(UnifiedEvaluationResultResponse result,
+                                                    CompiledPolicySet policySet,
+                                                    List<CompiledOfferPolicy> offerPolicies,
+                                                    EvaluationContext context, SharedEvaluation shared) {
+        List<CompiledOfferPolicy> enabledOffers = offerPolicies == null ? List.of() : offerPolicies.stream()
+                .filter(CompiledOfferPolicy::isEnabled)
+                .toList();
+        int lookahead = policySet.getSpeculativeOfferCount();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(parallelTimeoutMs);
+        EvaluationMode mode = result.getEvaluationMode();
+
+        List<OfferPolicyEvaluationResult> evaluatedOffers = new ArrayList<>();
+        List<FutureTask<PolicyEvaluationResultResponse>> speculative = new ArrayList<>();
+        try {
+            for (int i = 0; i < enabledOffers.size(); i++) {
+                CompiledOfferPolicy offerPolicy = enabledOffers.get(i);
+                try {
+                    PolicyEvaluationResultResponse evalResult;
+                    if (lookahead > 0) {
+                        while (speculative.size() < enabledOffers.size() && speculative.size() <= i + lookahead) {
+                            FutureTask<PolicyEvaluationResultResponse> offerFuture = task(
+                                    enabledOffers.get(speculative.size()).getPolicy(), context, mode, offerResult -> { });
+                            speculative.add(offerFuture);
+                            policyEvaluationExecutor.execute(offerFuture);
+                        }
+                        evalResult = await(speculative.get(i), deadline, policySet);
+                    } else {
+                        evalResult = evaluatePolicy(offerPolicy.getPolicy(), context, shared, mode);
+                    }
+                    evaluatedOffers.add(new OfferPolicyEvaluationResult(
+                            offerPolicy.getPriority(),
+                            offerPolicy.getPolicy().getName(),
+                            evalResult
+                    ));
+                    if (isApprovedOffer(evalResult)) {
+                        break;
+                    }
+                } catch (EvaluationTimeoutException e) {
+                    throw e;
+                } catch (Exception e) {
+                    log.warn("Failed to evaluate offer policy {}: {}", 
+                            offerPolicy.getPolicy().getName(), e.getMessage());
+                }
+            }
+        } finally {
+            cancel(speculative);
+        }
+
+        applyOfferResults(result, evaluatedOffers);
+    }
+
+    private void applyOfferResults(UnifiedEvaluationResultResponse result,
+                                   List<OfferPolicyEvaluationResult> allOfferResults) {
         if (!allOfferResults.isEmpty()) {
             allOfferResults.sort((a, b) -> Integer.compare(b.priority, a.priority));
 
             OfferPolicyEvaluationResult bestResult = null;
             for (OfferPolicyEvaluationResult offerEval : allOfferResults) {
-                if ("APPROVED".equals(offerEval.result.getDecision().getStatus()) 
-                        && offerEval.result.getOffer() != null) {
+                if (isApprovedOffer(offerEval.result)) {
                     bestResult = offerEval;
                     break;
                 }
@@ -0,0 +1,93 @@
+package com.example.ruleengine.service.operator;
+
+import java.util.function.LongConsumer;
+
+// Immutable open-addressing set of primitive longs; 0 is tracked separately since it marks empty slots
+final class LongHashSet {
+
+    private final long[] table;
+    private final int mask;
+    private final boolean containsZero;
+    private final int size;
+
+    LongHashSet(long[] values, int count) {
+        int capacity = Integer.highestOneBit(Math.max(count * 2, 4) - 1) << 1;
+        this.table = new long[capacity];
+        this.mask = capacity - 1;
+        boolean zero = false;
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            long value = values[i];
+            if (value == 0L) {
+                if (!zero) {
+                    zero = true;
+                    distinct++;
+                }
+                continue;
+            }
+            int index = index(value);
+            while (table[index] != 0L && table[index] != value) {
+                index = (index + 1) & mask;
+            }
+            if (table[index] == 0L) {
+                table[index] = value;
+                distinct++;
+            }
+        }
+        this.containsZero = zero;
+        this.size = distinct;
+    }
+
+    boolean contains(long value) {
+        if (value == 0L) {
+            return containsZero;
+        }
+        int index = index(value);
+        long slot;
+        while ((slot = table[index]) != 0L) {
+            if (slot == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    boolean isSubsetOf(LongHashSet other) {
+        if (containsZero && !other.containsZero) {
+            return false;
+        }
+        for (long value : table) {
+            if (value != 0L && !other.contains(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void forEach(LongConsumer action) {
+        if (containsZero) {
+            action.accept(0L);
+        }
+        for (long value : table) {
+            if (value != 0L) {
+                action.accept(value);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int index(long value) {
+        // murmur3 fmix64, so sequential values (pincodes, ids) still spread across the table
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe53a20b9L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+}
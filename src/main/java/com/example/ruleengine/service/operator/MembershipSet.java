@@ -0,0 +1,9 @@
+package com.example.ruleengine.service.operator;
+
+// Prepared operand of the set operators: an inline ValueSet or an external reference list
+public interface MembershipSet {
+
+    boolean contains(Object value);
+
+    boolean containsNumber(double value);
+}
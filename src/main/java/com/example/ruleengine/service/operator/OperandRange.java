@@ -0,0 +1,5 @@
+package com.example.ruleengine.service.operator;
+
+// BETWEEN operand with both bounds already converted to the feature's type
+public record OperandRange(Object min, Object max) {
+}
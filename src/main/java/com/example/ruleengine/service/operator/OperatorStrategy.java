@@ -1,5 +1,10 @@
 package com.example.ruleengine.service.operator;
 
+import com.example.ruleengine.entity.enums.FeatureType;
+
+import java.util.function.DoublePredicate;
+import java.util.function.Predicate;
+
 public interface OperatorStrategy {
     
     String getOperatorCode();
@@ -9,4 +14,24 @@ public interface OperatorStrategy {
     default boolean handleNullValue() {
         return false;
     }
+
+    // Also called when a rule is saved, so it rejects operands that could never evaluate
+    default Object prepareOperand(Object operand) {
+        return operand;
+    }
+
+    // Comparison operators convert the operand to the feature's type first (see TypedOperands)
+    default Object prepareOperand(Object operand, FeatureType featureType) {
+        return prepareOperand(operand);
+    }
+
+    // Bound once per prepared operand at compile time; never called with a null feature value
+    default Predicate<Object> bind(Object operand) {
+        return featureValue -> evaluate(featureValue, operand);
+    }
+
+    // Null when the operator has no primitive fast path for this operand
+    default DoublePredicate numericPredicate(Object operand) {
+        return null;
+    }
 }
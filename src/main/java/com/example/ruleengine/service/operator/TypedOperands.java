@@ -0,0 +1,70 @@
+package com.example.ruleengine.service.operator;
+
+import com.example.ruleengine.entity.enums.FeatureType;
+import com.example.ruleengine.exception.ValidationException;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+// Operands are converted to the type FeatureExtractionService produces, e.g. LocalDate for DATE features
+public final class TypedOperands {
+
+    private TypedOperands() {
+    }
+
+    public static Object coerce(Object value, FeatureType featureType) {
+        if (value == null || featureType == null) {
+            return value;
+        }
+        switch (featureType) {
+            case NUMERIC:
+                if (value instanceof Number number) {
+                    return number.doubleValue();
+                }
+                if (value instanceof String string) {
+                    try {
+                        return Double.parseDouble(string.trim());
+                    } catch (NumberFormatException e) {
+                        throw mismatch(value, featureType);
+                    }
+                }
+                throw mismatch(value, featureType);
+            case STRING:
+                if (value instanceof String || value instanceof Number || value instanceof Boolean) {
+                    return value.toString();
+                }
+                throw mismatch(value, featureType);
+            case BOOLEAN:
+                if (value instanceof Boolean) {
+                    return value;
+                }
+                if ("true".equalsIgnoreCase(String.valueOf(value)) || "false".equalsIgnoreCase(String.valueOf(value))) {
+                    return Boolean.parseBoolean(String.valueOf(value));
+                }
+                throw mismatch(value, featureType);
+            case DATE:
+                if (value instanceof LocalDate) {
+                    return value;
+                }
+                if (value instanceof String string) {
+                    try {
+                        return LocalDate.parse(string);
+                    } catch (DateTimeParseException e) {
+                        throw mismatch(value, featureType);
+                    }
+                }
+                throw mismatch(value, featureType);
+            default:
+                return value;
+        }
+    }
+
+    public static List<Object> coerceAll(List<?> values, FeatureType featureType) {
+        return values.stream().map(value -> coerce(value, featureType)).toList();
+    }
+
+    private static ValidationException mismatch(Object value, FeatureType featureType) {
+        return new ValidationException("Operand '" + value + "' is not a valid " + featureType + " value");
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.ruleengine.service.operator;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// Numbers match on their double value like BaseOperator.evaluateEquals, so 5, 5L and 5.0 are equal
+public final class ValueSet implements MembershipSet {
+
+    private final Set<Object> objects;
+    private final LongHashSet numbers;
+
+    private ValueSet(Set<Object> objects, LongHashSet numbers) {
+        this.objects = objects;
+        this.numbers = numbers;
+    }
+
+    public static ValueSet of(Collection<?> items) {
+        Set<Object> objects = new HashSet<>();
+        long[] numberBits = new long[items.size()];
+        int numberCount = 0;
+        for (Object item : items) {
+            if (item instanceof Number number) {
+                double value = number.doubleValue();
+                // NaN never equals anything, including itself, under evaluateEquals
+                if (!Double.isNaN(value)) {
+                    numberBits[numberCount++] = bits(value);
+                }
+            } else if (item != null) {
+                objects.add(item);
+            }
+        }
+        return new ValueSet(objects.isEmpty() ? Set.of() : objects, new LongHashSet(numberBits, numberCount));
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        if (value instanceof Number number) {
+            return containsNumber(number.doubleValue());
+        }
+        return value != null && objects.contains(value);
+    }
+
+    @Override
+    public boolean containsNumber(double value) {
+        return !Double.isNaN(value) && numbers.contains(bits(value));
+    }
+
+    public boolean isSubsetOf(ValueSet other) {
+        return other.objects.containsAll(objects) && numbers.isSubsetOf(other.numbers);
+    }
+
+    public void forEach(Consumer<Object> action) {
+        objects.forEach(action);
+        numbers.forEach(bits -> action.accept(Double.longBitsToDouble(bits)));
+    }
+
+    public int size() {
+        return objects.size() + numbers.size();
+    }
+
+    // -0.0 == 0.0 but their bits differ, so both map to the bits of 0.0
+    private static long bits(double value) {
+        return Double.doubleToLongBits(value == 0.0 ? 0.0 : value);
+    }
+}
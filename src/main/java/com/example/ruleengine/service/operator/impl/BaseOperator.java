@@ -1,7 +1,9 @@
 package com.example.ruleengine.service.operator.impl;
 
 import com.example.ruleengine.exception.ValidationException;
+import com.example.ruleengine.service.operator.MembershipSet;
 import com.example.ruleengine.service.operator.OperatorStrategy;
+import com.example.ruleengine.service.operator.ValueSet;
 
 import java.util.List;
 
@@ -43,4 +45,19 @@ public abstract class BaseOperator implements OperatorStrategy {
         }
         throw new ValidationException("SIZE operators require numeric operand");
     }
+
+    // Raw rule operands are converted here; compiled plans pass the prepared set
+    protected MembershipSet toMembershipSet(Object operand) {
+        return operand instanceof MembershipSet set ? set : (MembershipSet) prepareOperand(operand);
+    }
+
+    protected Object prepareListOperand(Object operand, String errorMessage) {
+        if (operand instanceof MembershipSet) {
+            return operand;
+        }
+        if (!(operand instanceof List<?> list)) {
+            throw new ValidationException(errorMessage);
+        }
+        return ValueSet.of(list);
+    }
 }
@@ -1,9 +1,14 @@
 package com.example.ruleengine.service.operator.impl;
 
+import com.example.ruleengine.entity.enums.FeatureType;
 import com.example.ruleengine.exception.ValidationException;
+import com.example.ruleengine.service.operator.OperandRange;
+import com.example.ruleengine.service.operator.TypedOperands;
 import org.springframework.stereotype.Component;
 
 import java.util.Map;
+import java.util.function.DoublePredicate;
+import java.util.function.Predicate;
 
 @Component
 public class BetweenOperator extends BaseOperator {
@@ -14,12 +19,18 @@ public class BetweenOperator extends BaseOperator {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
-    public boolean evaluate(Object featureValue, Object operand) {
-        if (!(operand instanceof Map)) {
+    public Object prepareOperand(Object operand) {
+        return prepareOperand(operand, null);
+    }
+
+    @Override
+    public Object prepareOperand(Object operand, FeatureType featureType) {
+        if (operand instanceof OperandRange) {
+            return operand;
+        }
+        if (!(operand instanceof Map<?, ?> range)) {
             throw new ValidationException("BETWEEN operator requires a map with 'min' and 'max'");
         }
-        Map<String, Object> range = (Map<String, Object>) operand;
         Object min = range.get("min");
         Object max = range.get("max");
 
@@ -27,6 +38,36 @@ public class BetweenOperator extends BaseOperator {
             throw new ValidationException("BETWEEN operator requires both 'min' and 'max' values");
         }
 
-        return compareValues(featureValue, min) >= 0 && compareValues(featureValue, max) <= 0;
+        return new OperandRange(TypedOperands.coerce(min, featureType), TypedOperands.coerce(max, featureType));
+    }
+
+    @Override
+    public boolean evaluate(Object featureValue, Object operand) {
+        OperandRange range = (OperandRange) prepareOperand(operand);
+        return compareValues(featureValue, range.min()) >= 0 && compareValues(featureValue, range.max()) <= 0;
+    }
+
+    @Override
+    public Predicate<Object> bind(Object operand) {
+        OperandRange range = (OperandRange) prepareOperand(operand);
+        if (range.min() instanceof Number min && range.max() instanceof Number max) {
+            double lower = min.doubleValue();
+            double upper = max.doubleValue();
+            return value -> value instanceof Number n
+                    ? Double.compare(n.doubleValue(), lower) >= 0 && Double.compare(n.doubleValue(), upper) <= 0
+                    : compareValues(value, range.min()) >= 0 && compareValues(value, range.max()) <= 0;
+        }
+        return value -> compareValues(value, range.min()) >= 0 && compareValues(value, range.max()) <= 0;
+    }
+
+    @Override
+    public DoublePredicate numericPredicate(Object operand) {
+        if (!(operand instanceof OperandRange range)
+                || !(range.min() instanceof Number min) || !(range.max() instanceof Number max)) {
+            return null;
+        }
+        double lower = min.doubleValue();
+        double upper = max.doubleValue();
+        return value -> Double.compare(value, lower) >= 0 && Double.compare(value, upper) <= 0;
     }
 }
@@ -1,6 +1,8 @@
 package com.example.ruleengine.service.operator.impl;
 
 import com.example.ruleengine.exception.ValidationException;
+import com.example.ruleengine.service.operator.MembershipSet;
+import com.example.ruleengine.service.operator.ValueSet;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -14,26 +16,22 @@ public class ContainsAllOperator extends BaseOperator {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
+    public Object prepareOperand(Object operand) {
+        if (operand instanceof MembershipSet && !(operand instanceof ValueSet)) {
+            throw new ValidationException("CONTAINS_ALL does not support reference list operands");
+        }
+        return prepareListOperand(operand, "CONTAINS_ALL requires list value and list operand");
+    }
+
+    @Override
     public boolean evaluate(Object featureValue, Object operand) {
-        if (!(featureValue instanceof List) || !(operand instanceof List)) {
+        if (!(featureValue instanceof List<?> valueList)) {
             throw new ValidationException("CONTAINS_ALL requires list value and list operand");
         }
-        List<Object> valueList = (List<Object>) featureValue;
-        List<Object> operandList = (List<Object>) operand;
-
-        for (Object item : operandList) {
-            boolean found = false;
-            for (Object v : valueList) {
-                if (evaluateEquals(v, item)) {
-                    found = true;
-                    break;
-                }
-            }
-            if (!found) {
-                return false;
-            }
+        ValueSet operandSet = (ValueSet) prepareOperand(operand);
+        if (operandSet.size() == 0) {
+            return true;
         }
-        return true;
+        return operandSet.isSubsetOf(ValueSet.of(valueList));
     }
 }
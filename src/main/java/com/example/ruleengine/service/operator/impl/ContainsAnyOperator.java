@@ -1,6 +1,7 @@
 package com.example.ruleengine.service.operator.impl;
 
 import com.example.ruleengine.exception.ValidationException;
+import com.example.ruleengine.service.operator.MembershipSet;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -14,19 +15,19 @@ public class ContainsAnyOperator extends BaseOperator {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
+    public Object prepareOperand(Object operand) {
+        return prepareListOperand(operand, "CONTAINS_ANY requires list value and list operand");
+    }
+
+    @Override
     public boolean evaluate(Object featureValue, Object operand) {
-        if (!(featureValue instanceof List) || !(operand instanceof List)) {
+        if (!(featureValue instanceof List<?> valueList)) {
             throw new ValidationException("CONTAINS_ANY requires list value and list operand");
         }
-        List<Object> valueList = (List<Object>) featureValue;
-        List<Object> operandList = (List<Object>) operand;
-
-        for (Object item : operandList) {
-            for (Object v : valueList) {
-                if (evaluateEquals(v, item)) {
-                    return true;
-                }
+        MembershipSet operandSet = toMembershipSet(operand);
+        for (Object value : valueList) {
+            if (operandSet.contains(value)) {
+                return true;
             }
         }
         return false;
@@ -1,9 +1,14 @@
 package com.example.ruleengine.service.operator.impl;
 
-import com.example.ruleengine.exception.ValidationException;
+import com.example.ruleengine.entity.enums.FeatureType;
+import com.example.ruleengine.service.operator.MembershipSet;
+import com.example.ruleengine.service.operator.TypedOperands;
+import com.example.ruleengine.service.operator.ValueSet;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.function.DoublePredicate;
+import java.util.function.Predicate;
 
 @Component
 public class InOperator extends BaseOperator {
@@ -14,17 +19,31 @@ public class InOperator extends BaseOperator {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
-    public boolean evaluate(Object featureValue, Object operand) {
-        if (!(operand instanceof List)) {
-            throw new ValidationException("IN operator requires a list operand");
-        }
-        List<Object> list = (List<Object>) operand;
-        for (Object item : list) {
-            if (evaluateEquals(featureValue, item)) {
-                return true;
-            }
+    public Object prepareOperand(Object operand) {
+        return prepareListOperand(operand, "IN operator requires a list operand");
+    }
+
+    @Override
+    public Object prepareOperand(Object operand, FeatureType featureType) {
+        if (operand instanceof List<?> list) {
+            return ValueSet.of(TypedOperands.coerceAll(list, featureType));
         }
-        return false;
+        return prepareOperand(operand);
+    }
+
+    @Override
+    public boolean evaluate(Object featureValue, Object operand) {
+        return toMembershipSet(operand).contains(featureValue);
+    }
+
+    @Override
+    public Predicate<Object> bind(Object operand) {
+        MembershipSet set = toMembershipSet(operand);
+        return set::contains;
+    }
+
+    @Override
+    public DoublePredicate numericPredicate(Object operand) {
+        return operand instanceof MembershipSet set ? set::containsNumber : null;
     }
 }
@@ -1,7 +1,12 @@
 package com.example.ruleengine.service.operator.impl;
 
+import com.example.ruleengine.entity.enums.FeatureType;
+import com.example.ruleengine.service.operator.TypedOperands;
 import org.springframework.stereotype.Component;
 
+import java.util.function.DoublePredicate;
+import java.util.function.Predicate;
+
 @Component
 public class LessThanOrEqualOperator extends BaseOperator {
 
@@ -14,4 +19,29 @@ public class LessThanOrEqualOperator extends BaseOperator {
     public boolean evaluate(Object featureValue, Object operand) {
         return compareValues(featureValue, operand) <= 0;
     }
+
+    @Override
+    public Object prepareOperand(Object operand, FeatureType featureType) {
+        return TypedOperands.coerce(operand, featureType);
+    }
+
+    @Override
+    public Predicate<Object> bind(Object operand) {
+        if (!(operand instanceof Number number)) {
+            return super.bind(operand);
+        }
+        double threshold = number.doubleValue();
+        return value -> value instanceof Number n
+                ? Double.compare(n.doubleValue(), threshold) <= 0
+                : compareValues(value, operand) <= 0;
+    }
+
+    @Override
+    public DoublePredicate numericPredicate(Object operand) {
+        if (!(operand instanceof Number number)) {
+            return null;
+        }
+        double threshold = number.doubleValue();
+        return value -> Double.compare(value, threshold) <= 0;
+    }
 }
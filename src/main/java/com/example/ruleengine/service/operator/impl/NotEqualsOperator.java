@@ -1,7 +1,12 @@
 package com.example.ruleengine.service.operator.impl;
 
+import com.example.ruleengine.entity.enums.FeatureType;
+import com.example.ruleengine.service.operator.TypedOperands;
 import org.springframework.stereotype.Component;
 
+import java.util.function.DoublePredicate;
+import java.util.function.Predicate;
+
 @Component
 public class NotEqualsOperator extends BaseOperator {
 
@@ -14,4 +19,27 @@ public class NotEqualsOperator extends BaseOperator {
     public boolean evaluate(Object featureValue, Object operand) {
         return !evaluateEquals(featureValue, operand);
     }
+
+    @Override
+    public Object prepareOperand(Object operand, FeatureType featureType) {
+        return TypedOperands.coerce(operand, featureType);
+    }
+
+    @Override
+    public Predicate<Object> bind(Object operand) {
+        if (!(operand instanceof Number number)) {
+            return value -> !value.equals(operand);
+        }
+        double expected = number.doubleValue();
+        return value -> value instanceof Number n ? n.doubleValue() != expected : !value.equals(operand);
+    }
+
+    @Override
+    public DoublePredicate numericPredicate(Object operand) {
+        if (!(operand instanceof Number number)) {
+            return null;
+        }
+        double expected = number.doubleValue();
+        return value -> value != expected;
+    }
 }
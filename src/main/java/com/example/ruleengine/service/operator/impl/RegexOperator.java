@@ -1,24 +1,64 @@
 package com.example.ruleengine.service.operator.impl;
 
 import com.example.ruleengine.exception.ValidationException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.stereotype.Component;
 
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 @Component
 public class RegexOperator extends BaseOperator {
 
+    private static final int PATTERN_CACHE_SIZE = 1000;
+
+    // Compiled plans hold their Pattern; this only serves callers that evaluate a raw rule operand
+    private final Cache<String, Pattern> patternCache = Caffeine.newBuilder()
+            .maximumSize(PATTERN_CACHE_SIZE)
+            .build();
+
     @Override
     public String getOperatorCode() {
         return "REGEX";
     }
 
+    @Override
+    public Object prepareOperand(Object operand) {
+        if (operand == null) {
+            throw new ValidationException("REGEX requires a pattern operand");
+        }
+        return compile(operand.toString());
+    }
+
     @Override
     public boolean evaluate(Object featureValue, Object operand) {
         if (!(featureValue instanceof String)) {
             throw new ValidationException("REGEX requires string value");
         }
-        Pattern pattern = Pattern.compile(operand.toString());
+        Pattern pattern = operand instanceof Pattern compiled
+                ? compiled
+                : patternCache.get(operand.toString(), this::compile);
         return pattern.matcher((String) featureValue).matches();
     }
+
+    private Pattern compile(String regex) {
+        try {
+            return Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            throw new ValidationException("Invalid REGEX pattern '" + regex + "': " + e.getDescription());
+        }
+    }
+
+    @Override
+    public Predicate<Object> bind(Object operand) {
+        Pattern pattern = operand instanceof Pattern compiled ? compiled : (Pattern) prepareOperand(operand);
+        return value -> {
+            if (!(value instanceof String string)) {
+                throw new ValidationException("REGEX requires string value");
+            }
+            return pattern.matcher(string).matches();
+        };
+    }
 }
@@ -3,6 +3,8 @@ package com.example.ruleengine.service.operator.impl;
 import com.example.ruleengine.exception.ValidationException;
 import org.springframework.stereotype.Component;
 
+import java.util.function.Predicate;
+
 @Component
 public class StartsWithOperator extends BaseOperator {
 
@@ -18,4 +20,15 @@ public class StartsWithOperator extends BaseOperator {
         }
         return ((String) featureValue).startsWith(operand.toString());
     }
+
+    @Override
+    public Predicate<Object> bind(Object operand) {
+        String affix = operand.toString();
+        return value -> {
+            if (!(value instanceof String string)) {
+                throw new ValidationException("STARTS_WITH requires string value");
+            }
+            return string.startsWith(affix);
+        };
+    }
 }
@@ -0,0 +1,38 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.entity.enums.EvaluationMode;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public final class BytecodeTier {
+
+    private final AtomicLongArray interpretedEvaluations = new AtomicLongArray(EvaluationMode.values().length);
+    private final AtomicReferenceArray<GeneratedEvaluator> evaluators =
+            new AtomicReferenceArray<>(EvaluationMode.values().length);
+    private final AtomicBoolean generating = new AtomicBoolean();
+    private volatile boolean failed;
+
+    GeneratedEvaluator getEvaluator(EvaluationMode mode) {
+        return evaluators.get(mode.ordinal());
+    }
+
+    void setEvaluator(EvaluationMode mode, GeneratedEvaluator evaluator) {
+        evaluators.set(mode.ordinal(), evaluator);
+        interpretedEvaluations.set(mode.ordinal(), 0);
+    }
+
+    long recordInterpreted(EvaluationMode mode) {
+        return interpretedEvaluations.incrementAndGet(mode.ordinal());
+    }
+
+    boolean startGenerating() {
+        return !failed && generating.compareAndSet(false, true);
+    }
+
+    void finishGenerating(boolean succeeded) {
+        failed = !succeeded;
+        generating.set(false);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.entity.Feature;
+import com.example.ruleengine.exception.ValidationException;
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.InvalidPathException;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.Option;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// A feature with its extraction config parsed once; JSON paths are compiled when the plan is built
+@Getter
+@RequiredArgsConstructor
+public class CompiledFeature {
+
+    // Missing paths read as null instead of throwing PathNotFoundException on every miss
+    public static final Configuration JSON_PATH_CONFIGURATION = Configuration.defaultConfiguration()
+            .addOptions(Option.SUPPRESS_EXCEPTIONS);
+
+    private static final Pattern SIMPLE_PATH = Pattern.compile("\\$((\\.[A-Za-z_][A-Za-z0-9_\\-]*)|(\\['[^'\\]]+'\\]))+");
+    private static final Pattern PATH_SEGMENT = Pattern.compile("\\.([A-Za-z_][A-Za-z0-9_\\-]*)|\\['([^'\\]]+)'\\]");
+
+    private final Feature feature;
+    private final String extractionType;
+    private final JsonPath jsonPath;
+    private final String field;
+    // Map keys from the root for DIRECT fields and plain property paths; null when JsonPath is required
+    private final List<String> pathSegments;
+
+    public static CompiledFeature compile(Feature feature) {
+        Map<String, Object> config = feature.getExtractionConfig();
+        String type = (String) config.get("type");
+
+        if ("JSON_PATH".equals(type)) {
+            String path = (String) config.get("path");
+            if (path == null) {
+                throw new ValidationException("JSON_PATH extraction requires 'path' in extractionConfig");
+            }
+            try {
+                return new CompiledFeature(feature, type, JsonPath.compile(path), null, parseSimplePath(path));
+            } catch (InvalidPathException e) {
+                throw new ValidationException("Invalid JSON path for feature '" + feature.getName() + "': " + path);
+            }
+        } else if ("DIRECT".equals(type)) {
+            String field = (String) config.get("field");
+            if (field == null) {
+                throw new ValidationException("DIRECT extraction requires 'field' in extractionConfig");
+            }
+            return new CompiledFeature(feature, type, null, field, List.of(field));
+        } else {
+            throw new ValidationException("Unknown extraction type: " + type);
+        }
+    }
+
+    private static List<String> parseSimplePath(String path) {
+        if (!SIMPLE_PATH.matcher(path).matches()) {
+            return null;
+        }
+        List<String> segments = new ArrayList<>();
+        Matcher matcher = PATH_SEGMENT.matcher(path);
+        while (matcher.find()) {
+            segments.add(matcher.group(1) != null ? matcher.group(1) : matcher.group(2));
+        }
+        return List.copyOf(segments);
+    }
+
+    public UUID getId() {
+        return feature.getId();
+    }
+
+    public String getName() {
+        return feature.getName();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.ruleengine.service.plan;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class CompiledOfferPolicy {
+
+    private final int priority;
+    private final boolean enabled;
+    private final CompiledPolicy policy;
+}
@@ -0,0 +1,110 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.event.EntityChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+// Fallback for missed notifications: bounds cache staleness to the poll interval
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CompiledPlanVersionPoller {
+
+    private static final int BATCH_SIZE = 1000;
+    // Marks an entity cached at more than one version; never matches the database so it is always invalidated
+    private static final Integer CONFLICTING_VERSION = -1;
+
+    private final CompiledPolicyCache compiledPolicyCache;
+    private final CompiledPolicySetCache compiledPolicySetCache;
+    private final PlanCacheInvalidator planCacheInvalidator;
+    private final ReferenceListStore referenceListStore;
+    private final PolicyNetworkCache policyNetworkCache;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Scheduled(fixedDelayString = "${rule-engine.cache.invalidation.poll-interval-ms:30000}",
+            initialDelayString = "${rule-engine.cache.invalidation.poll-interval-ms:30000}")
+    public void pollVersions() {
+        Collection<CompiledPolicy> policies = compiledPolicyCache.getCachedPolicies();
+        Collection<CompiledPolicySet> policySets = compiledPolicySetCache.getCachedPolicySets();
+        Map<UUID, Integer> referenceListVersions = referenceListStore.getLoadedVersions();
+        int stale = invalidateStaleNetwork();
+        if (policies.isEmpty() && policySets.isEmpty() && referenceListVersions.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, Integer> policyVersions = new HashMap<>();
+        Map<UUID, Integer> ruleVersions = new HashMap<>();
+        Map<UUID, Integer> featureVersions = new HashMap<>();
+        for (CompiledPolicy policy : policies) {
+            policyVersions.put(policy.getPolicyId(), policy.getVersion());
+            policy.getRuleVersions().forEach((id, version) -> ruleVersions.merge(id, version, this::mergeVersions));
+            policy.getFeatureVersions().forEach((id, version) -> featureVersions.merge(id, version, this::mergeVersions));
+        }
+        Map<UUID, Integer> policySetVersions = new HashMap<>();
+        for (CompiledPolicySet policySet : policySets) {
+            policySetVersions.put(policySet.getPolicySetId(), policySet.getVersion());
+        }
+
+        stale += invalidateStale("features", featureVersions, EntityChangedEvent.EntityType.FEATURE);
+        stale += invalidateStale("rules", ruleVersions, EntityChangedEvent.EntityType.RULE);
+        stale += invalidateStale("policies", policyVersions, EntityChangedEvent.EntityType.POLICY);
+        stale += invalidateStale("policy_sets", policySetVersions, EntityChangedEvent.EntityType.POLICY_SET);
+        stale += invalidateStale("reference_lists", referenceListVersions, EntityChangedEvent.EntityType.REFERENCE_LIST);
+        if (stale > 0) {
+            log.info("Version poll invalidated {} stale cached entities", stale);
+        }
+    }
+
+    // Catches policies created, enabled or disabled through another instance
+    private int invalidateStaleNetwork() {
+        PolicyNetwork network = policyNetworkCache.getCachedNetwork();
+        if (network == null) {
+            return 0;
+        }
+        Set<UUID> enabledPolicyIds = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM policies WHERE enabled = true", new MapSqlParameterSource(), UUID.class));
+        if (enabledPolicyIds.equals(new HashSet<>(network.getPolicyIds()))) {
+            return 0;
+        }
+        policyNetworkCache.evict();
+        return 1;
+    }
+
+    private Integer mergeVersions(Integer a, Integer b) {
+        return Objects.equals(a, b) ? a : CONFLICTING_VERSION;
+    }
+
+    private int invalidateStale(String table, Map<UUID, Integer> cachedVersions, EntityChangedEvent.EntityType entityType) {
+        if (cachedVersions.isEmpty()) {
+            return 0;
+        }
+
+        Map<UUID, Integer> currentVersions = new HashMap<>();
+        List<UUID> ids = new ArrayList<>(cachedVersions.keySet());
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<UUID> batch = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            jdbcTemplate.query("SELECT id, version FROM " + table + " WHERE id IN (:ids)",
+                    new MapSqlParameterSource("ids", batch),
+                    rs -> {
+                        currentVersions.put(rs.getObject("id", UUID.class), (Integer) rs.getObject("version"));
+                    });
+        }
+
+        int stale = 0;
+        for (Map.Entry<UUID, Integer> cached : cachedVersions.entrySet()) {
+            boolean exists = currentVersions.containsKey(cached.getKey());
+            Integer currentVersion = currentVersions.get(cached.getKey());
+            if (!exists || !Objects.equals(currentVersion, cached.getValue())) {
+                planCacheInvalidator.invalidate(new EntityChangedEvent(entityType, cached.getKey(), currentVersion));
+                stale++;
+            }
+        }
+        return stale;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.entity.enums.EvaluationMode;
+import com.example.ruleengine.entity.enums.PolicyType;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@Getter
+@Builder
+public class CompiledPolicy {
+
+    private final UUID policyId;
+    private final Integer version;
+    private final String name;
+    private final PolicyType policyType;
+    private final Map<String, Object> outputMapping;
+    // outputMapping compiled for lookups; null when the policy has none
+    private final OfferDecisionTable offerTable;
+    private final PlanNode root;
+    private final Map<UUID, Integer> ruleVersions;
+    private final Map<UUID, Integer> featureVersions;
+    private final List<CompiledFeature> features;
+    private final FeatureExtractionPlan extractionPlan;
+    private final FeatureSlotLayout slotLayout;
+
+    // Same tree as root with composite children reordered by PlanOptimizer; root itself is never reordered
+    @Setter
+    private volatile PlanNode optimizedRoot;
+
+    // Generated evaluators for this plan, see PolicyBytecodeCompiler
+    private final BytecodeTier bytecodeTier = new BytecodeTier();
+
+    public PlanNode getEvaluationRoot(EvaluationMode mode) {
+        PlanNode optimized = optimizedRoot;
+        return mode == EvaluationMode.SHORT_CIRCUIT && optimized != null ? optimized : root;
+    }
+
+    public Set<UUID> getRuleIds() {
+        return ruleVersions.keySet();
+    }
+
+    public Set<UUID> getFeatureIds() {
+        return featureVersions.keySet();
+    }
+}
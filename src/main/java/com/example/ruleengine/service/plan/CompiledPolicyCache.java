@@ -0,0 +1,75 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.entity.Policy;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+@Component
+public class CompiledPolicyCache {
+
+    private final PolicyCompiler policyCompiler;
+    // One entry per policy id: a lookup at another version recompiles and replaces it
+    private final Cache<UUID, CompiledPolicy> compiledPolicies;
+    // Bumped on every invalidation so a compile racing with a write cannot re-cache stale rules
+    private final AtomicLong generation = new AtomicLong();
+    // Makes the generation check and the insert atomic with respect to evictions
+    private final Object lock = new Object();
+
+    public CompiledPolicyCache(PolicyCompiler policyCompiler,
+                               @Value("${rule-engine.cache.policies.max-size:10000}") long maxSize) {
+        this.policyCompiler = policyCompiler;
+        this.compiledPolicies = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public CompiledPolicy getCompiledPolicy(Policy policy) {
+        CompiledPolicy cached = compiledPolicies.getIfPresent(policy.getId());
+        if (cached != null && Objects.equals(cached.getVersion(), policy.getVersion())) {
+            return cached;
+        }
+
+        long compiledAtGeneration = generation.get();
+        CompiledPolicy compiled = policyCompiler.compile(policy);
+        synchronized (lock) {
+            if (generation.get() == compiledAtGeneration) {
+                compiledPolicies.put(policy.getId(), compiled);
+            }
+        }
+        return compiled;
+    }
+
+    public Collection<CompiledPolicy> getCachedPolicies() {
+        return List.copyOf(compiledPolicies.asMap().values());
+    }
+
+    public void evict(UUID policyId) {
+        synchronized (lock) {
+            generation.incrementAndGet();
+            compiledPolicies.invalidate(policyId);
+        }
+    }
+
+    public void evictIf(Predicate<CompiledPolicy> predicate) {
+        synchronized (lock) {
+            generation.incrementAndGet();
+            compiledPolicies.asMap().values().removeIf(predicate);
+        }
+    }
+
+    public void evictAll() {
+        synchronized (lock) {
+            generation.incrementAndGet();
+            compiledPolicies.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.entity.enums.EvaluationMode;
+import com.example.ruleengine.entity.enums.EvaluationStrategy;
+import com.example.ruleengine.entity.enums.OfferSelectionMode;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Stream;
+
+@Getter
+@Builder
+public class CompiledPolicySet {
+
+    private final UUID policySetId;
+    private final Integer version;
+    private final String name;
+    private final EvaluationStrategy evaluationStrategy;
+    private final EvaluationMode evaluationMode;
+    private final OfferSelectionMode offerSelectionMode;
+    private final int speculativeOfferCount;
+    private final CompiledPolicy booleanPolicy;
+    // Sorted by priority, highest first
+    private final List<CompiledOfferPolicy> offerPolicies;
+    // Union of the features of every policy in the set
+    private final List<CompiledFeature> features;
+    private final FeatureExtractionPlan extractionPlan;
+
+    // Per evaluation mode, built on first use and rebuilt once PlanOptimizer has reordered one of the policies
+    private final AtomicReferenceArray<SharedPlan> sharedPlans =
+            new AtomicReferenceArray<>(EvaluationMode.values().length);
+
+    public SharedPlan getSharedPlan(EvaluationMode mode) {
+        SharedPlan plan = sharedPlans.get(mode.ordinal());
+        if (plan == null || !plan.isCurrent()) {
+            plan = SharedPlan.build(policies().toList(), FeatureSlotLayout.of(features), mode);
+            sharedPlans.set(mode.ordinal(), plan);
+        }
+        return plan;
+    }
+
+    public boolean referencesPolicy(UUID policyId) {
+        return policies().anyMatch(p -> p.getPolicyId().equals(policyId));
+    }
+
+    public boolean referencesRule(UUID ruleId) {
+        return policies().anyMatch(p -> p.getRuleIds().contains(ruleId));
+    }
+
+    public boolean referencesFeature(UUID featureId) {
+        return policies().anyMatch(p -> p.getFeatureIds().contains(featureId));
+    }
+
+    private Stream<CompiledPolicy> policies() {
+        Stream<CompiledPolicy> offers = offerPolicies.stream().map(CompiledOfferPolicy::getPolicy);
+        return booleanPolicy == null ? offers : Stream.concat(Stream.of(booleanPolicy), offers);
+    }
+}
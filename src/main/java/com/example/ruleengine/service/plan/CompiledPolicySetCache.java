@@ -0,0 +1,134 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.entity.PolicySet;
+import com.example.ruleengine.entity.PolicySetOfferPolicy;
+import com.example.ruleengine.exception.ResourceNotFoundException;
+import com.example.ruleengine.repository.PolicySetRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+@Component
+@Slf4j
+public class CompiledPolicySetCache {
+
+    private final PolicySetRepository policySetRepository;
+    private final CompiledPolicyCache compiledPolicyCache;
+    private final Cache<UUID, CompiledPolicySet> compiledPolicySets;
+    private final AtomicLong generation = new AtomicLong();
+    private final Object lock = new Object();
+
+    public CompiledPolicySetCache(PolicySetRepository policySetRepository,
+                                  CompiledPolicyCache compiledPolicyCache,
+                                  @Value("${rule-engine.cache.policy-sets.max-size:1000}") long maxSize) {
+        this.policySetRepository = policySetRepository;
+        this.compiledPolicyCache = compiledPolicyCache;
+        this.compiledPolicySets = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public CompiledPolicySet getCompiledPolicySet(UUID policySetId) {
+        CompiledPolicySet cached = compiledPolicySets.getIfPresent(policySetId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long compiledAtGeneration = generation.get();
+        PolicySet policySet = policySetRepository.findWithPoliciesById(policySetId)
+                .orElseThrow(() -> new ResourceNotFoundException("PolicySet", "id", policySetId));
+        CompiledPolicySet compiled = compile(policySet);
+        synchronized (lock) {
+            if (generation.get() == compiledAtGeneration) {
+                compiledPolicySets.put(policySetId, compiled);
+            }
+        }
+        return compiled;
+    }
+
+    public Collection<CompiledPolicySet> getCachedPolicySets() {
+        return List.copyOf(compiledPolicySets.asMap().values());
+    }
+
+    public void evict(UUID policySetId, Integer version) {
+        synchronized (lock) {
+            generation.incrementAndGet();
+            CompiledPolicySet cached = compiledPolicySets.getIfPresent(policySetId);
+            if (cached != null && (version == null || cached.getVersion() == null || cached.getVersion() < version)) {
+                compiledPolicySets.invalidate(policySetId);
+            }
+        }
+    }
+
+    public void evictIf(Predicate<CompiledPolicySet> predicate) {
+        synchronized (lock) {
+            generation.incrementAndGet();
+            compiledPolicySets.asMap().values().removeIf(predicate);
+        }
+    }
+
+    public void evictAll() {
+        synchronized (lock) {
+            generation.incrementAndGet();
+            compiledPolicySets.invalidateAll();
+        }
+    }
+
+    private CompiledPolicySet compile(PolicySet policySet) {
+        CompiledPolicy booleanPolicy = policySet.getBooleanPolicy() != null
+                ? compiledPolicyCache.getCompiledPolicy(policySet.getBooleanPolicy())
+                : null;
+
+        List<CompiledOfferPolicy> offerPolicies = new ArrayList<>();
+        if (policySet.getOfferPolicies() != null) {
+            for (PolicySetOfferPolicy psop : policySet.getOfferPolicies()) {
+                offerPolicies.add(new CompiledOfferPolicy(
+                        psop.getPriority() != null ? psop.getPriority() : 0,
+                        psop.getEnabled() == null || psop.getEnabled(),
+                        compiledPolicyCache.getCompiledPolicy(psop.getOfferPolicy())));
+            }
+        }
+        offerPolicies.sort(Comparator.comparingInt(CompiledOfferPolicy::getPriority).reversed());
+
+        log.debug("Compiled policy set {} v{} with {} offer policies",
+                policySet.getName(), policySet.getVersion(), offerPolicies.size());
+
+        List<CompiledFeature> features = collectFeatures(booleanPolicy, offerPolicies);
+        return CompiledPolicySet.builder()
+                .policySetId(policySet.getId())
+                .version(policySet.getVersion())
+                .name(policySet.getName())
+                .evaluationStrategy(policySet.getEvaluationStrategy())
+                .evaluationMode(policySet.getEvaluationMode())
+                .offerSelectionMode(policySet.getOfferSelectionMode())
+                .speculativeOfferCount(policySet.getSpeculativeOfferCount() != null ? policySet.getSpeculativeOfferCount() : 0)
+                .booleanPolicy(booleanPolicy)
+                .offerPolicies(List.copyOf(offerPolicies))
+                .features(features)
+                .extractionPlan(FeatureExtractionPlan.build(features))
+                .build();
+    }
+
+    private List<CompiledFeature> collectFeatures(CompiledPolicy booleanPolicy, List<CompiledOfferPolicy> offerPolicies) {
+        Map<UUID, CompiledFeature> features = new LinkedHashMap<>();
+        if (booleanPolicy != null) {
+            booleanPolicy.getFeatures().forEach(feature -> features.putIfAbsent(feature.getId(), feature));
+        }
+        for (CompiledOfferPolicy offerPolicy : offerPolicies) {
+            offerPolicy.getPolicy().getFeatures().forEach(feature -> features.putIfAbsent(feature.getId(), feature));
+        }
+        return List.copyOf(features.values());
+    }
+}
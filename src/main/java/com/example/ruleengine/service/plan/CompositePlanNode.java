@@ -0,0 +1,21 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.entity.enums.LogicalOperator;
+import com.example.ruleengine.entity.enums.NodeType;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@RequiredArgsConstructor
+public class CompositePlanNode extends PlanNode {
+
+    private final LogicalOperator operator;
+    private final List<PlanNode> children;
+
+    @Override
+    public NodeType getNodeType() {
+        return NodeType.COMPOSITE;
+    }
+}
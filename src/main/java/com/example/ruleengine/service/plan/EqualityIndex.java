@@ -0,0 +1,71 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.service.operator.ValueSet;
+import com.example.ruleengine.service.operator.impl.EqualsOperator;
+import com.example.ruleengine.service.operator.impl.InOperator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+class EqualityIndex {
+
+    private final Map<Object, int[]> nodesByValue;
+
+    private EqualityIndex(Map<Object, int[]> nodesByValue) {
+        this.nodesByValue = nodesByValue;
+    }
+
+    // Reference lists are left out: their contents are swapped without recompiling the network
+    static boolean indexes(LeafPlanNode leaf) {
+        return leaf.getStrategy() instanceof EqualsOperator
+                || leaf.getStrategy() instanceof InOperator && leaf.getPreparedOperand() instanceof ValueSet;
+    }
+
+    static EqualityIndex build(List<LeafPlanNode> leaves, List<Integer> nodes) {
+        Map<Object, List<Integer>> lists = new HashMap<>();
+        for (int i = 0; i < leaves.size(); i++) {
+            int node = nodes.get(i);
+            Object operand = leaves.get(i).getPreparedOperand();
+            if (operand instanceof ValueSet values) {
+                values.forEach(value -> add(lists, key(value), node));
+            } else {
+                add(lists, key(operand), node);
+            }
+        }
+        Map<Object, int[]> nodesByValue = new HashMap<>();
+        lists.forEach((key, list) -> nodesByValue.put(key, list.stream().mapToInt(Integer::intValue).toArray()));
+        return new EqualityIndex(nodesByValue);
+    }
+
+    private static void add(Map<Object, List<Integer>> lists, Object key, int node) {
+        if (key == null) {
+            return;
+        }
+        List<Integer> list = lists.computeIfAbsent(key, k -> new ArrayList<>(1));
+        if (list.isEmpty() || list.get(list.size() - 1) != node) {
+            list.add(node);
+        }
+    }
+
+    // Same matching as ValueSet: numbers by double value, NaN never
+    private static Object key(Object value) {
+        if (value instanceof Number number) {
+            double d = number.doubleValue();
+            return Double.isNaN(d) ? null : Double.doubleToLongBits(d == 0.0 ? 0.0 : d);
+        }
+        return value;
+    }
+
+    void forEachMatch(Object value, IntConsumer action) {
+        Object key = key(value);
+        int[] nodes = key != null ? nodesByValue.get(key) : null;
+        if (nodes != null) {
+            for (int node : nodes) {
+                action.accept(node);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.ruleengine.service.plan;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Thread-safe so PARALLEL and speculative offer evaluations can share it
+public class EvaluationContext {
+
+    @Getter
+    private final Map<String, Object> inputData;
+    @Getter
+    private final FeatureExtractionPlan extractionPlan;
+    private final Map<UUID, ExtractedFeature> extractedFeatures;
+    private volatile Map<UUID, Object> pathValues;
+
+    public EvaluationContext(Map<String, Object> inputData) {
+        this(inputData, null);
+    }
+
+    public EvaluationContext(Map<String, Object> inputData, FeatureExtractionPlan extractionPlan) {
+        this(inputData, extractionPlan, null);
+    }
+
+    // For inputs read by FeatureExtractionPlan.read, which already resolved the trie-covered values
+    public static EvaluationContext fromStreamedInput(FeatureExtractionPlan.StreamedInput input,
+                                                      FeatureExtractionPlan extractionPlan) {
+        return new EvaluationContext(input.inputData(), extractionPlan, input.pathValues());
+    }
+
+    private EvaluationContext(Map<String, Object> inputData, FeatureExtractionPlan extractionPlan,
+                              Map<UUID, Object> pathValues) {
+        this.inputData = inputData;
+        this.extractionPlan = extractionPlan;
+        this.pathValues = pathValues;
+        this.extractedFeatures = new ConcurrentHashMap<>(
+                extractionPlan != null ? Math.max(extractionPlan.getFeatureCount(), 1) : 16);
+    }
+
+    public ExtractedFeature getOrExtract(CompiledFeature feature, Function<CompiledFeature, ExtractedFeature> extractor) {
+        ExtractedFeature extracted = extractedFeatures.get(feature.getId());
+        if (extracted != null) {
+            return extracted;
+        }
+        return extractedFeatures.computeIfAbsent(feature.getId(), id -> extractor.apply(feature));
+    }
+
+    // Raw values of every trie-covered feature, collected in one walk the first time any of them is needed
+    public Map<UUID, Object> getPathValues() {
+        Map<UUID, Object> values = pathValues;
+        if (values == null) {
+            synchronized (this) {
+                values = pathValues;
+                if (values == null) {
+                    values = extractionPlan.collect(inputData);
+                    pathValues = values;
+                }
+            }
+        }
+        return values;
+    }
+
+    public Map<String, Object> getExtractedFeatures() {
+        Map<String, Object> values = new HashMap<>();
+        extractedFeatures.values().forEach(extracted -> {
+            if (!extracted.missing()) {
+                values.put(extracted.name(), extracted.value());
+            }
+        });
+        return values;
+    }
+
+    public record ExtractedFeature(String name, Object value, boolean missing) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.entity.enums.EvaluationMode;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+// One bit per evaluated leaf; replaying the plan in the same mode retraces the exact same path
+public class EvaluationTrace {
+
+    @Getter
+    private final EvaluationMode mode;
+    private long[] words = new long[1];
+    private int size;
+
+    public EvaluationTrace(EvaluationMode mode) {
+        this.mode = mode;
+    }
+
+    public void record(boolean passed) {
+        int word = size >>> 6;
+        if (word == words.length) {
+            words = Arrays.copyOf(words, words.length * 2);
+        }
+        if (passed) {
+            words[word] |= 1L << size;
+        }
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Outcomes recorded from position start on, to be appended to another trace of the same mode
+    public Segment since(int start) {
+        long[] bits = new long[Math.max(1, (size - start + 63) >>> 6)];
+        for (int i = start; i < size; i++) {
+            if ((words[i >>> 6] & (1L << i)) != 0) {
+                bits[(i - start) >>> 6] |= 1L << (i - start);
+            }
+        }
+        return new Segment(bits, size - start);
+    }
+
+    public void append(Segment segment) {
+        for (int i = 0; i < segment.size; i++) {
+            record((segment.bits[i >>> 6] & (1L << i)) != 0);
+        }
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    public class Cursor {
+
+        private int position;
+
+        public boolean next() {
+            if (position >= size) {
+                throw new IllegalStateException("Replay went past the " + size + " recorded leaf outcomes");
+            }
+            boolean passed = (words[position >>> 6] & (1L << position)) != 0;
+            position++;
+            return passed;
+        }
+    }
+
+    public record Segment(long[] bits, int size) {
+    }
+}
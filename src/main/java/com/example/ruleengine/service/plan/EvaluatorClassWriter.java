@@ -0,0 +1,309 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.entity.enums.EvaluationMode;
+import com.example.ruleengine.service.operator.OperandRange;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.DoublePredicate;
+import java.util.function.Predicate;
+
+// Hidden classes are unloaded together with the plan that references them
+final class EvaluatorClassWriter implements Opcodes {
+
+    private static final String BASE = Type.getInternalName(GeneratedEvaluator.class);
+    private static final String SLOTS = Type.getInternalName(FeatureSlots.class);
+    private static final String TRACE = Type.getInternalName(EvaluationTrace.class);
+    private static final String EVALUATE_DESCRIPTOR = "(L" + SLOTS + ";L" + TRACE + ";)Z";
+    private static final Set<String> INLINED_COMPARISONS = Set.of("GT", "GTE", "LT", "LTE", "EQ", "NEQ", "BETWEEN");
+
+    // Locals of the evaluate methods: 0 this, 1 slots, 2 trace
+    private static final int VALUE_LOCAL = 3;
+    private static final int RESULT_LOCAL = 4;
+    private static final int NUMBER_LOCAL = 5;
+
+    private final PlanNode root;
+    private final List<LeafPlanNode> leaves = new ArrayList<>();
+    private final Map<LeafPlanNode, Integer> leafIndexes = new IdentityHashMap<>();
+
+    private EvaluatorClassWriter(PlanNode root) {
+        this.root = root;
+        collectLeaves(root);
+    }
+
+    static GeneratedEvaluator define(PlanNode root, RuleStatisticsRegistry ruleStatisticsRegistry) {
+        EvaluatorClassWriter writer = new EvaluatorClassWriter(root);
+        byte[] bytes = writer.write();
+        try {
+            Class<?> generated = MethodHandles.lookup().defineHiddenClass(bytes, true).lookupClass();
+            return (GeneratedEvaluator) generated
+                    .getDeclaredConstructor(PlanNode.class, LeafPlanNode[].class, RuleStatisticsRegistry.class)
+                    .newInstance(root, writer.leaves.toArray(new LeafPlanNode[0]), ruleStatisticsRegistry);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not define generated evaluator", e);
+        }
+    }
+
+    private void collectLeaves(PlanNode node) {
+        if (node instanceof LeafPlanNode leaf) {
+            if (leaf.getPredicate() == null) {
+                throw new IllegalArgumentException("Leaf " + leaf.getRuleId() + " has no operator");
+            }
+            leafIndexes.put(leaf, leaves.size());
+            leaves.add(leaf);
+        } else {
+            ((CompositePlanNode) node).getChildren().forEach(this::collectLeaves);
+        }
+    }
+
+    private byte[] write() {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS) {
+            // Locals and stack only ever merge values of one reference type each
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                return "java/lang/Object";
+            }
+        };
+        String name = BASE + "$Impl";
+        cw.visit(V17, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, name, null, BASE, null);
+
+        String constructorDescriptor = Type.getConstructorDescriptor(GeneratedEvaluator.class.getDeclaredConstructors()[0]);
+        MethodVisitor init = cw.visitMethod(ACC_PUBLIC, "<init>", constructorDescriptor, null, null);
+        init.visitCode();
+        init.visitVarInsn(ALOAD, 0);
+        init.visitVarInsn(ALOAD, 1);
+        init.visitVarInsn(ALOAD, 2);
+        init.visitVarInsn(ALOAD, 3);
+        init.visitMethodInsn(INVOKESPECIAL, BASE, "<init>", constructorDescriptor, false);
+        init.visitInsn(RETURN);
+        init.visitMaxs(0, 0);
+        init.visitEnd();
+
+        writeEvaluate(cw, "evaluateShortCircuit", EvaluationMode.SHORT_CIRCUIT);
+        writeEvaluate(cw, "evaluateExhaustive", EvaluationMode.EXHAUSTIVE);
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private void writeEvaluate(ClassWriter cw, String methodName, EvaluationMode mode) {
+        MethodVisitor mv = cw.visitMethod(ACC_PROTECTED, methodName, EVALUATE_DESCRIPTOR, null, null);
+        mv.visitCode();
+        emitNode(mv, root, mode);
+        mv.visitInsn(IRETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    // Every node leaves its boolean result (0 or 1) on the operand stack
+    private void emitNode(MethodVisitor mv, PlanNode node, EvaluationMode mode) {
+        if (node instanceof LeafPlanNode leaf) {
+            emitLeaf(mv, leaf);
+            return;
+        }
+        CompositePlanNode composite = (CompositePlanNode) node;
+        List<PlanNode> children = composite.getChildren();
+        switch (composite.getOperator()) {
+            case AND -> {
+                if (mode == EvaluationMode.SHORT_CIRCUIT) {
+                    emitShortCircuit(mv, children, IFEQ, 1);
+                } else {
+                    emitExhaustive(mv, children, 1, IAND);
+                }
+            }
+            case OR -> {
+                if (mode == EvaluationMode.SHORT_CIRCUIT) {
+                    emitShortCircuit(mv, children, IFNE, 0);
+                } else {
+                    emitExhaustive(mv, children, 0, IOR);
+                }
+            }
+            case NOT -> {
+                emitNode(mv, children.get(0), mode);
+                mv.visitInsn(ICONST_1);
+                mv.visitInsn(IXOR);
+            }
+        }
+    }
+
+    // AND leaves at the first false child (IFEQ), OR at the first true one (IFNE)
+    private void emitShortCircuit(MethodVisitor mv, List<PlanNode> children, int exitOpcode, int completedResult) {
+        Label exit = new Label();
+        Label end = new Label();
+        for (PlanNode child : children) {
+            emitNode(mv, child, EvaluationMode.SHORT_CIRCUIT);
+            mv.visitJumpInsn(exitOpcode, exit);
+        }
+        mv.visitInsn(completedResult == 1 ? ICONST_1 : ICONST_0);
+        mv.visitJumpInsn(GOTO, end);
+        mv.visitLabel(exit);
+        mv.visitInsn(completedResult == 1 ? ICONST_0 : ICONST_1);
+        mv.visitLabel(end);
+    }
+
+    private void emitExhaustive(MethodVisitor mv, List<PlanNode> children, int identity, int combineOpcode) {
+        mv.visitInsn(identity == 1 ? ICONST_1 : ICONST_0);
+        for (PlanNode child : children) {
+            emitNode(mv, child, EvaluationMode.EXHAUSTIVE);
+            mv.visitInsn(combineOpcode);
+        }
+    }
+
+    // Mirrors RuleEvaluationService.evaluateLeaf(leaf, slots), then records the outcome
+    private void emitLeaf(MethodVisitor mv, LeafPlanNode leaf) {
+        int index = leafIndexes.get(leaf);
+        int slot = leaf.getSlot();
+        Label done = new Label();
+
+        if (leaf.getNumericPredicate() != null) {
+            Label notNumeric = new Label();
+            emitSlotCall(mv, slot, "isNumeric", "(I)Z");
+            mv.visitJumpInsn(IFEQ, notNumeric);
+            if (!emitInlineComparison(mv, leaf)) {
+                emitArrayElement(mv, "numericPredicates", DoublePredicate.class, index);
+                emitSlotCall(mv, slot, "getNumeric", "(I)D");
+                mv.visitMethodInsn(INVOKEINTERFACE, Type.getInternalName(DoublePredicate.class), "test", "(D)Z", true);
+            }
+            mv.visitJumpInsn(GOTO, done);
+            mv.visitLabel(notNumeric);
+        }
+
+        boolean[] booleanOutcomes = leaf.getBooleanOutcomes();
+        if (booleanOutcomes != null) {
+            Label notBoolean = new Label();
+            emitSlotCall(mv, slot, "isBoolean", "(I)Z");
+            mv.visitJumpInsn(IFEQ, notBoolean);
+            if (booleanOutcomes[0] == booleanOutcomes[1]) {
+                mv.visitInsn(booleanOutcomes[0] ? ICONST_1 : ICONST_0);
+            } else {
+                emitSlotCall(mv, slot, "getBoolean", "(I)Z");
+                if (booleanOutcomes[0]) {
+                    mv.visitInsn(ICONST_1);
+                    mv.visitInsn(IXOR);
+                }
+            }
+            mv.visitJumpInsn(GOTO, done);
+            mv.visitLabel(notBoolean);
+        }
+
+        Label present = new Label();
+        emitSlotCall(mv, slot, "getValue", "(I)Ljava/lang/Object;");
+        mv.visitVarInsn(ASTORE, VALUE_LOCAL);
+        mv.visitVarInsn(ALOAD, VALUE_LOCAL);
+        mv.visitJumpInsn(IFNONNULL, present);
+        mv.visitInsn(leaf.isNullOutcome() ? ICONST_1 : ICONST_0);
+        mv.visitJumpInsn(GOTO, done);
+        mv.visitLabel(present);
+        emitArrayElement(mv, "predicates", Predicate.class, index);
+        mv.visitVarInsn(ALOAD, VALUE_LOCAL);
+        mv.visitMethodInsn(INVOKEINTERFACE, Type.getInternalName(Predicate.class), "test", "(Ljava/lang/Object;)Z", true);
+
+        mv.visitLabel(done);
+        mv.visitVarInsn(ISTORE, RESULT_LOCAL);
+        mv.visitVarInsn(ALOAD, 0);
+        emitInt(mv, index);
+        mv.visitVarInsn(ILOAD, RESULT_LOCAL);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitMethodInsn(INVOKEVIRTUAL, BASE, "record", "(IZL" + TRACE + ";)Z", false);
+    }
+
+    // Same Double.compare as the operators' numericPredicate; false when the leaf is not inlined
+    private boolean emitInlineComparison(MethodVisitor mv, LeafPlanNode leaf) {
+        String code = leaf.getOperatorCode();
+        Object operand = leaf.getPreparedOperand();
+        if (!INLINED_COMPARISONS.contains(code)) {
+            return false;
+        }
+        if (operand instanceof OperandRange range) {
+            if (!(range.min() instanceof Number min) || !(range.max() instanceof Number max)) {
+                return false;
+            }
+            Label outside = new Label();
+            Label end = new Label();
+            emitSlotCall(mv, leaf.getSlot(), "getNumeric", "(I)D");
+            mv.visitVarInsn(DSTORE, NUMBER_LOCAL);
+            emitCompare(mv, min.doubleValue());
+            mv.visitJumpInsn(IFLT, outside);
+            emitCompare(mv, max.doubleValue());
+            mv.visitJumpInsn(IFGT, outside);
+            mv.visitInsn(ICONST_1);
+            mv.visitJumpInsn(GOTO, end);
+            mv.visitLabel(outside);
+            mv.visitInsn(ICONST_0);
+            mv.visitLabel(end);
+            return true;
+        }
+        if (!(operand instanceof Number number)) {
+            return false;
+        }
+        Label pass = new Label();
+        Label end = new Label();
+        emitSlotCall(mv, leaf.getSlot(), "getNumeric", "(I)D");
+        mv.visitLdcInsn(number.doubleValue());
+        switch (code) {
+            // == and != on doubles: DCMPL yields non-zero for NaN, so EQ fails and NEQ passes
+            case "EQ" -> {
+                mv.visitInsn(DCMPL);
+                mv.visitJumpInsn(IFEQ, pass);
+            }
+            case "NEQ" -> {
+                mv.visitInsn(DCMPL);
+                mv.visitJumpInsn(IFNE, pass);
+            }
+            default -> {
+                mv.visitMethodInsn(INVOKESTATIC, "java/lang/Double", "compare", "(DD)I", false);
+                mv.visitJumpInsn(switch (code) {
+                    case "GT" -> IFGT;
+                    case "GTE" -> IFGE;
+                    case "LT" -> IFLT;
+                    default -> IFLE;
+                }, pass);
+            }
+        }
+        mv.visitInsn(ICONST_0);
+        mv.visitJumpInsn(GOTO, end);
+        mv.visitLabel(pass);
+        mv.visitInsn(ICONST_1);
+        mv.visitLabel(end);
+        return true;
+    }
+
+    private void emitCompare(MethodVisitor mv, double bound) {
+        mv.visitVarInsn(DLOAD, NUMBER_LOCAL);
+        mv.visitLdcInsn(bound);
+        mv.visitMethodInsn(INVOKESTATIC, "java/lang/Double", "compare", "(DD)I", false);
+    }
+
+    private void emitSlotCall(MethodVisitor mv, int slot, String method, String descriptor) {
+        mv.visitVarInsn(ALOAD, 1);
+        emitInt(mv, slot);
+        mv.visitMethodInsn(INVOKEVIRTUAL, SLOTS, method, descriptor, false);
+    }
+
+    private void emitArrayElement(MethodVisitor mv, String field, Class<?> elementType, int index) {
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, BASE, field, "[" + Type.getDescriptor(elementType));
+        emitInt(mv, index);
+        mv.visitInsn(AALOAD);
+    }
+
+    private void emitInt(MethodVisitor mv, int value) {
+        if (value >= -1 && value <= 5) {
+            mv.visitInsn(ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(BIPUSH, value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            mv.visitIntInsn(SIPUSH, value);
+        } else {
+            mv.visitLdcInsn(value);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.ruleengine.service.plan;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Simple paths ($.a.b.c and DIRECT fields) share one trie walk; other paths stay with JsonPath
+public class FeatureExtractionPlan {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+    // JsonPath normalizes "$.a.b" to "$['a']['b']"; anything else at the root (deep scan, unions) needs the whole input
+    private static final Pattern NORMALIZED_ROOT_KEY = Pattern.compile("^\\$\\['([^'\\\\]+)'\\]");
+
+    private final TrieNode root = new TrieNode();
+    private final Set<UUID> coveredFeatureIds;
+    private final int featureCount;
+    // Top-level keys whose whole subtree must be materialized for JsonPath-only features
+    private final Set<String> materializedRootKeys;
+    private final boolean materializeAll;
+
+    private FeatureExtractionPlan(Collection<CompiledFeature> features) {
+        Map<UUID, Boolean> covered = new LinkedHashMap<>();
+        Set<String> rootKeys = new HashSet<>();
+        boolean wholeInput = false;
+        for (CompiledFeature feature : features) {
+            List<String> segments = feature.getPathSegments();
+            if (segments == null) {
+                Matcher matcher = NORMALIZED_ROOT_KEY.matcher(feature.getJsonPath().getPath());
+                if (matcher.find()) {
+                    rootKeys.add(matcher.group(1));
+                } else {
+                    wholeInput = true;
+                }
+                continue;
+            }
+            if (covered.containsKey(feature.getId())) {
+                continue;
+            }
+            TrieNode node = root;
+            for (String segment : segments) {
+                node = node.children.computeIfAbsent(segment, key -> new TrieNode());
+            }
+            node.featureIds.add(feature.getId());
+            covered.put(feature.getId(), Boolean.TRUE);
+        }
+        this.coveredFeatureIds = Set.copyOf(covered.keySet());
+        this.featureCount = features.size();
+        this.materializedRootKeys = Set.copyOf(rootKeys);
+        this.materializeAll = wholeInput;
+    }
+
+    public static FeatureExtractionPlan build(Collection<CompiledFeature> features) {
+        return new FeatureExtractionPlan(features);
+    }
+
+    public boolean covers(CompiledFeature feature) {
+        return coveredFeatureIds.contains(feature.getId());
+    }
+
+    public int getFeatureCount() {
+        return featureCount;
+    }
+
+    // Raw (unconverted) values keyed by feature id; absent when the path does not resolve
+    public Map<UUID, Object> collect(Map<String, Object> inputData) {
+        Map<UUID, Object> values = new HashMap<>(Math.max(coveredFeatureIds.size() * 2, 2));
+        walk(root, inputData, values);
+        return values;
+    }
+
+    // Only the subtrees the features read are materialized, and only those are evaluated and logged
+    public StreamedInput read(JsonParser parser) throws IOException {
+        if (materializeAll) {
+            Map<String, Object> inputData = parser.readValueAs(MAP_TYPE);
+            return new StreamedInput(inputData, collect(inputData));
+        }
+        Map<String, Object> inputData = new LinkedHashMap<>();
+        Map<UUID, Object> values = new HashMap<>(Math.max(coveredFeatureIds.size() * 2, 2));
+        readObject(root, parser, inputData, values, true);
+        return new StreamedInput(inputData, values);
+    }
+
+    private void readObject(TrieNode node, JsonParser parser, Map<String, Object> target,
+                            Map<UUID, Object> values, boolean atRoot) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            TrieNode child = node.children.get(name);
+            if ((atRoot && materializedRootKeys.contains(name)) || (child != null && !child.featureIds.isEmpty())) {
+                Object value = parser.readValueAs(Object.class);
+                target.put(name, value);
+                if (child != null) {
+                    walk(child, value, values);
+                }
+            } else if (child != null && token == JsonToken.START_OBJECT) {
+                Map<String, Object> nested = new LinkedHashMap<>();
+                readObject(child, parser, nested, values, false);
+                if (!nested.isEmpty()) {
+                    target.put(name, nested);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void walk(TrieNode node, Object value, Map<UUID, Object> values) {
+        if (value == null) {
+            return;
+        }
+        for (UUID featureId : node.featureIds) {
+            values.put(featureId, value);
+        }
+        if (!node.children.isEmpty() && value instanceof Map<?, ?> map) {
+            for (Map.Entry<String, TrieNode> child : node.children.entrySet()) {
+                walk(child.getValue(), map.get(child.getKey()), values);
+            }
+        }
+    }
+
+    public record StreamedInput(Map<String, Object> inputData, Map<UUID, Object> pathValues) {
+    }
+
+    private static class TrieNode {
+        private final Map<String, TrieNode> children = new HashMap<>();
+        private final List<UUID> featureIds = new ArrayList<>(1);
+    }
+}
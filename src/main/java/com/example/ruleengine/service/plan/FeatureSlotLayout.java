@@ -0,0 +1,40 @@
+package com.example.ruleengine.service.plan;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Dense slot index per feature of a policy, fixed at compile time; leaves read their feature by slot
+public class FeatureSlotLayout {
+
+    @Getter
+    private final List<CompiledFeature> features;
+    private final Map<UUID, Integer> slotsByFeatureId;
+
+    private FeatureSlotLayout(List<CompiledFeature> features) {
+        this.features = List.copyOf(features);
+        this.slotsByFeatureId = new HashMap<>(Math.max(features.size() * 2, 2));
+        for (int slot = 0; slot < this.features.size(); slot++) {
+            slotsByFeatureId.put(this.features.get(slot).getId(), slot);
+        }
+    }
+
+    public static FeatureSlotLayout of(List<CompiledFeature> features) {
+        return new FeatureSlotLayout(features);
+    }
+
+    public int slotOf(UUID featureId) {
+        Integer slot = slotsByFeatureId.get(featureId);
+        if (slot == null) {
+            throw new IllegalArgumentException("Feature " + featureId + " has no slot in this layout");
+        }
+        return slot;
+    }
+
+    public int size() {
+        return features.size();
+    }
+}
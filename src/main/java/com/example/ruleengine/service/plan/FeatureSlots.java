@@ -0,0 +1,88 @@
+package com.example.ruleengine.service.plan;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Numbers and booleans are unboxed once so primitive fast paths never touch the boxed value
+public class FeatureSlots {
+
+    private static final byte EMPTY = 0;
+    private static final byte NUMERIC = 1;
+    private static final byte BOOLEAN = 2;
+    private static final byte OBJECT = 3;
+
+    @Getter
+    private final FeatureSlotLayout layout;
+    private final byte[] kinds;
+    private final double[] numericValues;
+    private final boolean[] booleanValues;
+    // Original value of every slot, kept for operators without a fast path and for explain output
+    private final Object[] values;
+
+    public FeatureSlots(FeatureSlotLayout layout) {
+        this.layout = layout;
+        this.kinds = new byte[layout.size()];
+        this.numericValues = new double[layout.size()];
+        this.booleanValues = new boolean[layout.size()];
+        this.values = new Object[layout.size()];
+    }
+
+    public void set(int slot, Object value) {
+        values[slot] = value;
+        if (value instanceof Number number) {
+            numericValues[slot] = number.doubleValue();
+            kinds[slot] = NUMERIC;
+        } else if (value instanceof Boolean bool) {
+            booleanValues[slot] = bool;
+            kinds[slot] = BOOLEAN;
+        } else {
+            kinds[slot] = value != null ? OBJECT : EMPTY;
+        }
+    }
+
+    public boolean isNumeric(int slot) {
+        return kinds[slot] == NUMERIC;
+    }
+
+    public double getNumeric(int slot) {
+        return numericValues[slot];
+    }
+
+    public boolean isBoolean(int slot) {
+        return kinds[slot] == BOOLEAN;
+    }
+
+    public boolean getBoolean(int slot) {
+        return booleanValues[slot];
+    }
+
+    public Object getValue(int slot) {
+        return values[slot];
+    }
+
+    // Feature name to value for responses and offer conditions; empty slots are left out
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>(Math.max(values.length * 2, 2));
+        for (int slot = 0; slot < values.length; slot++) {
+            if (kinds[slot] != EMPTY) {
+                map.put(layout.getFeatures().get(slot).getName(), values[slot]);
+            }
+        }
+        return map;
+    }
+
+    // Same for a subset of the layout's features, e.g. one policy's share of its policy set's slots
+    public Map<String, Object> toMap(List<CompiledFeature> features) {
+        Map<String, Object> map = new HashMap<>(Math.max(features.size() * 2, 2));
+        for (CompiledFeature feature : features) {
+            int slot = layout.slotOf(feature.getId());
+            if (kinds[slot] != EMPTY) {
+                map.put(feature.getName(), values[slot]);
+            }
+        }
+        return map;
+    }
+}
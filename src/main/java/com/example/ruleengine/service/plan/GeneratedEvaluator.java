@@ -0,0 +1,50 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.entity.enums.EvaluationMode;
+
+import java.util.function.DoublePredicate;
+import java.util.function.Predicate;
+
+// Results and trace must match TreeEvaluationService
+public abstract class GeneratedEvaluator {
+
+    private final PlanNode root;
+    private final RuleStatisticsRegistry ruleStatisticsRegistry;
+    protected final LeafPlanNode[] leaves;
+    protected final Predicate<Object>[] predicates;
+    protected final DoublePredicate[] numericPredicates;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected GeneratedEvaluator(PlanNode root, LeafPlanNode[] leaves, RuleStatisticsRegistry ruleStatisticsRegistry) {
+        this.root = root;
+        this.leaves = leaves;
+        this.ruleStatisticsRegistry = ruleStatisticsRegistry;
+        this.predicates = new Predicate[leaves.length];
+        this.numericPredicates = new DoublePredicate[leaves.length];
+        for (int i = 0; i < leaves.length; i++) {
+            predicates[i] = leaves[i].getPredicate();
+            numericPredicates[i] = leaves[i].getNumericPredicate();
+        }
+    }
+
+    public PlanNode getRoot() {
+        return root;
+    }
+
+    public boolean evaluate(FeatureSlots slots, EvaluationTrace trace) {
+        return trace.getMode() == EvaluationMode.SHORT_CIRCUIT
+                ? evaluateShortCircuit(slots, trace)
+                : evaluateExhaustive(slots, trace);
+    }
+
+    protected abstract boolean evaluateShortCircuit(FeatureSlots slots, EvaluationTrace trace);
+
+    protected abstract boolean evaluateExhaustive(FeatureSlots slots, EvaluationTrace trace);
+
+    // Called by generated code after every leaf, like TreeEvaluationService.evaluate
+    protected final boolean record(int leaf, boolean result, EvaluationTrace trace) {
+        ruleStatisticsRegistry.record(leaves[leaf], result);
+        trace.record(result);
+        return result;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.ruleengine.service.plan;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+
+// Relative, unit-less cost of evaluating a leaf; only the ordering between leaves matters
+@Component
+public class LeafCostModel {
+
+    private static final double SIMPLE_COMPARISON_COST = 1.0;
+    private static final double STRING_SCAN_COST = 2.0;
+    private static final double REGEX_COST = 20.0;
+    private static final double LIST_ELEMENT_COST = 0.125;
+    private static final double SIMPLE_PATH_COST = 1.0;
+    private static final double COMPLEX_PATH_COST = 5.0;
+
+    public double estimateCost(LeafPlanNode leaf) {
+        return operatorCost(leaf) + extractionCost(leaf);
+    }
+
+    private double operatorCost(LeafPlanNode leaf) {
+        switch (leaf.getOperatorCode()) {
+            case "REGEX":
+                return REGEX_COST;
+            case "CONTAINS":
+            case "STARTS_WITH":
+            case "ENDS_WITH":
+                return STRING_SCAN_COST;
+            case "IN":
+            case "NOT_IN":
+                // Hash lookup into the prepared ValueSet, independent of list size
+                return SIMPLE_COMPARISON_COST;
+            case "CONTAINS_ANY":
+            case "CONTAINS_ALL":
+                return SIMPLE_COMPARISON_COST + LIST_ELEMENT_COST * operandSize(leaf.getOperand());
+            default:
+                return SIMPLE_COMPARISON_COST;
+        }
+    }
+
+    private double extractionCost(LeafPlanNode leaf) {
+        Map<String, Object> config = leaf.getFeature().getExtractionConfig();
+        if (config == null || !"JSON_PATH".equals(config.get("type"))) {
+            return 0.0;
+        }
+        Object path = config.get("path");
+        if (path instanceof String p && (p.contains("[?") || p.contains("*") || p.contains(".."))) {
+            return COMPLEX_PATH_COST;
+        }
+        return SIMPLE_PATH_COST;
+    }
+
+    private int operandSize(Object operand) {
+        return operand instanceof Collection<?> c ? c.size() : 1;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.entity.Feature;
+import com.example.ruleengine.entity.Rule;
+import com.example.ruleengine.entity.enums.NodeType;
+import com.example.ruleengine.service.operator.OperatorStrategy;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.UUID;
+import java.util.function.DoublePredicate;
+import java.util.function.Predicate;
+
+@Getter
+public class LeafPlanNode extends PlanNode {
+
+    private final UUID ruleId;
+    private final Rule rule;
+    private final Feature feature;
+    private final String operatorCode;
+    private final OperatorStrategy strategy;
+    private final Object operand;
+    // OperatorStrategy.prepareOperand of the resolved operand, e.g. a reference list handle
+    private final Object preparedOperand;
+    // Index of the feature in the policy's FeatureSlotLayout
+    private final int slot;
+    // OperatorStrategy.bind of the prepared operand, and the outcome for a missing feature value
+    private final Predicate<Object> predicate;
+    private final boolean nullOutcome;
+    // Primitive fast paths, null when the operator/operand pair has none
+    private final DoublePredicate numericPredicate;
+    private final boolean[] booleanOutcomes;
+    // Set by RuleStatisticsRegistry on first use, so recording skips the registry lookup
+    @Setter(AccessLevel.PACKAGE)
+    private volatile RuleStatistics statistics;
+
+    public LeafPlanNode(UUID ruleId, Rule rule, Feature feature, String operatorCode, OperatorStrategy strategy,
+                        Object operand, int slot) {
+        this(ruleId, rule, feature, operatorCode, strategy, operand, operand, slot);
+    }
+
+    public LeafPlanNode(UUID ruleId, Rule rule, Feature feature, String operatorCode, OperatorStrategy strategy,
+                        Object operand, Object resolvedOperand, int slot) {
+        this.ruleId = ruleId;
+        this.rule = rule;
+        this.feature = feature;
+        this.operatorCode = operatorCode;
+        this.strategy = strategy;
+        this.operand = operand;
+        this.preparedOperand = strategy != null ? strategy.prepareOperand(resolvedOperand, feature != null ? feature.getFeatureType() : null)
+                : resolvedOperand;
+        this.slot = slot;
+        this.predicate = strategy != null ? strategy.bind(preparedOperand) : null;
+        this.nullOutcome = strategy != null && strategy.handleNullValue();
+        this.numericPredicate = strategy != null ? strategy.numericPredicate(preparedOperand) : null;
+        this.booleanOutcomes = strategy != null ? booleanOutcomes(strategy, preparedOperand) : null;
+    }
+
+    private LeafPlanNode(LeafPlanNode source, int slot) {
+        this.ruleId = source.ruleId;
+        this.rule = source.rule;
+        this.feature = source.feature;
+        this.operatorCode = source.operatorCode;
+        this.strategy = source.strategy;
+        this.operand = source.operand;
+        this.preparedOperand = source.preparedOperand;
+        this.slot = slot;
+        this.predicate = source.predicate;
+        this.nullOutcome = source.nullOutcome;
+        this.numericPredicate = source.numericPredicate;
+        this.booleanOutcomes = source.booleanOutcomes;
+        this.statistics = source.statistics;
+    }
+
+    // Same leaf reading its feature from another layout; the prepared operand and predicates are reused as is
+    public LeafPlanNode withSlot(int slot) {
+        return new LeafPlanNode(this, slot);
+    }
+
+    // A boolean feature has two possible values, so the outcome for each is computed once here
+    private static boolean[] booleanOutcomes(OperatorStrategy strategy, Object operand) {
+        try {
+            return new boolean[]{strategy.evaluate(Boolean.FALSE, operand), strategy.evaluate(Boolean.TRUE, operand)};
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    public String getRuleName() {
+        return rule.getName();
+    }
+
+    public String getFeatureName() {
+        return feature.getName();
+    }
+
+    @Override
+    public NodeType getNodeType() {
+        return NodeType.LEAF;
+    }
+}
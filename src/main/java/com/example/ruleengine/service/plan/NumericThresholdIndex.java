@@ -0,0 +1,189 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.service.operator.OperandRange;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+// Comparisons use Double.compare, like the operators' numeric predicates
+class NumericThresholdIndex {
+
+    private final Thresholds greaterThan;
+    private final Thresholds greaterThanOrEqual;
+    private final Thresholds lessThan;
+    private final Thresholds lessThanOrEqual;
+    // maxUpper is an implicit binary tree over the ranges sorted by lower bound
+    private final double[] lowers;
+    private final int[] rangeNodes;
+    private final double[] maxUpper;
+    private final int leaves;
+    // Every indexed node, for feature values that are not numbers
+    private final int[] nodes;
+
+    private NumericThresholdIndex(List<Entry> gt, List<Entry> gte, List<Entry> lt, List<Entry> lte,
+                                  List<Entry> between) {
+        this.greaterThan = new Thresholds(gt);
+        this.greaterThanOrEqual = new Thresholds(gte);
+        this.lessThan = new Thresholds(lt);
+        this.lessThanOrEqual = new Thresholds(lte);
+
+        between.sort(Comparator.comparingDouble(Entry::threshold));
+        this.lowers = new double[between.size()];
+        this.rangeNodes = new int[between.size()];
+        int size = 1;
+        while (size < between.size()) {
+            size <<= 1;
+        }
+        this.leaves = size;
+        this.maxUpper = new double[2 * size];
+        Arrays.fill(maxUpper, Double.NEGATIVE_INFINITY);
+        for (int i = 0; i < between.size(); i++) {
+            lowers[i] = between.get(i).threshold();
+            rangeNodes[i] = between.get(i).node();
+            maxUpper[size + i] = between.get(i).upper();
+        }
+        for (int i = size - 1; i > 0; i--) {
+            maxUpper[i] = max(maxUpper[2 * i], maxUpper[2 * i + 1]);
+        }
+
+        List<Entry> all = new ArrayList<>();
+        List.of(gt, gte, lt, lte, between).forEach(all::addAll);
+        this.nodes = all.stream().mapToInt(Entry::node).toArray();
+    }
+
+    private static double max(double a, double b) {
+        return Double.compare(a, b) >= 0 ? a : b;
+    }
+
+    // Null when the leaf has no numeric fast path or is not a threshold comparison
+    static Entry entry(LeafPlanNode leaf, int node) {
+        if (leaf.getNumericPredicate() == null || leaf.getOperatorCode() == null) {
+            return null;
+        }
+        Object operand = leaf.getPreparedOperand();
+        if ("BETWEEN".equals(leaf.getOperatorCode())) {
+            return operand instanceof OperandRange range && range.min() instanceof Number min
+                    && range.max() instanceof Number max
+                    ? new Entry("BETWEEN", min.doubleValue(), max.doubleValue(), node)
+                    : null;
+        }
+        return switch (leaf.getOperatorCode()) {
+            case "GT", "GTE", "LT", "LTE" -> operand instanceof Number number
+                    ? new Entry(leaf.getOperatorCode(), number.doubleValue(), 0, node)
+                    : null;
+            default -> null;
+        };
+    }
+
+    static NumericThresholdIndex build(List<Entry> entries) {
+        List<Entry> gt = new ArrayList<>();
+        List<Entry> gte = new ArrayList<>();
+        List<Entry> lt = new ArrayList<>();
+        List<Entry> lte = new ArrayList<>();
+        List<Entry> between = new ArrayList<>();
+        for (Entry entry : entries) {
+            switch (entry.operatorCode()) {
+                case "GT" -> gt.add(entry);
+                case "GTE" -> gte.add(entry);
+                case "LT" -> lt.add(entry);
+                case "LTE" -> lte.add(entry);
+                default -> between.add(entry);
+            }
+        }
+        return new NumericThresholdIndex(gt, gte, lt, lte, between);
+    }
+
+    int[] getNodes() {
+        return nodes;
+    }
+
+    void forEachMatch(double value, IntConsumer action) {
+        // threshold < value, threshold <= value, threshold > value, threshold >= value
+        greaterThan.forEach(0, greaterThan.firstNotBelow(value), action);
+        greaterThanOrEqual.forEach(0, greaterThanOrEqual.firstAbove(value), action);
+        lessThan.forEach(lessThan.firstAbove(value), lessThan.size(), action);
+        lessThanOrEqual.forEach(lessThanOrEqual.firstNotBelow(value), lessThanOrEqual.size(), action);
+        if (lowers.length > 0) {
+            stab(1, 0, leaves, upperBound(lowers, value), value, action);
+        }
+    }
+
+    // Ranges in [0, end) all start at or below value; report those whose upper bound reaches it
+    private void stab(int tree, int from, int to, int end, double value, IntConsumer action) {
+        if (from >= end || Double.compare(maxUpper[tree], value) < 0) {
+            return;
+        }
+        if (to - from == 1) {
+            action.accept(rangeNodes[from]);
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        stab(2 * tree, from, mid, end, value, action);
+        stab(2 * tree + 1, mid, to, end, value, action);
+    }
+
+    private static int upperBound(double[] sorted, double probe) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Double.compare(sorted[mid], probe) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int lowerBound(double[] sorted, double probe) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Double.compare(sorted[mid], probe) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // BETWEEN keeps its lower bound in threshold
+    record Entry(String operatorCode, double threshold, double upper, int node) {
+    }
+
+    private static final class Thresholds {
+
+        private final double[] thresholds;
+        private final int[] nodes;
+
+        Thresholds(List<Entry> entries) {
+            entries.sort(Comparator.comparingDouble(Entry::threshold));
+            this.thresholds = entries.stream().mapToDouble(Entry::threshold).toArray();
+            this.nodes = entries.stream().mapToInt(Entry::node).toArray();
+        }
+
+        int size() {
+            return thresholds.length;
+        }
+
+        int firstNotBelow(double value) {
+            return lowerBound(thresholds, value);
+        }
+
+        int firstAbove(double value) {
+            return upperBound(thresholds, value);
+        }
+
+        void forEach(int from, int to, IntConsumer action) {
+            for (int i = from; i < to; i++) {
+                action.accept(nodes[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.exception.ValidationException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// The first conditionalOutputs row whose condition holds wins; an empty condition always holds
+public class OfferDecisionTable {
+
+    private static final String[] OPERATORS = {">=", "<=", ">", "<"};
+
+    private final Map<String, Object> defaultOutput;
+    private final List<Map<String, Object>> outputs;
+    // e.g. a condition without an operator, or a NaN threshold
+    private final long[] neverMatching;
+    // Unparseable thresholds; a lookup that reaches one of these rows fails
+    private final int[] invalidRows;
+    private final List<String> invalidConditions;
+    private final List<Group> groups;
+
+    private OfferDecisionTable(Map<String, Object> defaultOutput, List<Map<String, Object>> outputs,
+                               long[] neverMatching, int[] invalidRows, List<String> invalidConditions,
+                               List<Group> groups) {
+        this.defaultOutput = defaultOutput;
+        this.outputs = outputs;
+        this.neverMatching = neverMatching;
+        this.invalidRows = invalidRows;
+        this.invalidConditions = invalidConditions;
+        this.groups = groups;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static OfferDecisionTable compile(Map<String, Object> outputMapping) {
+        if (outputMapping == null) {
+            return null;
+        }
+        List<Map<String, Object>> conditionalOutputs = (List<Map<String, Object>>) outputMapping.get("conditionalOutputs");
+        if (conditionalOutputs == null) {
+            conditionalOutputs = List.of();
+        }
+
+        int rows = conditionalOutputs.size();
+        long[] neverMatching = new long[words(rows)];
+        List<Integer> invalidRows = new ArrayList<>();
+        List<String> invalidConditions = new ArrayList<>();
+        Map<GroupKey, List<Comparison>> comparisons = new LinkedHashMap<>();
+        List<Map<String, Object>> outputs = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) {
+            Map<String, Object> conditional = conditionalOutputs.get(row);
+            outputs.add((Map<String, Object>) conditional.get("output"));
+            String condition = (String) conditional.get("condition");
+            if (condition == null || condition.isEmpty()) {
+                continue;
+            }
+            for (String part : condition.split("&&")) {
+                String operator = Arrays.stream(OPERATORS).filter(part::contains).findFirst().orElse(null);
+                if (operator == null) {
+                    set(neverMatching, row);
+                    continue;
+                }
+                String[] parts = part.split(operator);
+                double threshold;
+                try {
+                    threshold = Double.parseDouble(parts[1].trim());
+                } catch (RuntimeException e) {
+                    set(neverMatching, row);
+                    invalidRows.add(row);
+                    invalidConditions.add(condition);
+                    break;
+                }
+                if (Double.isNaN(threshold)) {
+                    set(neverMatching, row);
+                    continue;
+                }
+                comparisons.computeIfAbsent(new GroupKey(parts[0].trim(), operator), k -> new ArrayList<>())
+                        .add(new Comparison(threshold, row));
+            }
+        }
+
+        List<Group> groups = new ArrayList<>();
+        comparisons.forEach((key, list) -> groups.add(new Group(key.featureName(), key.operator(), list, rows)));
+        return new OfferDecisionTable((Map<String, Object>) outputMapping.get("defaultOutput"), outputs,
+                neverMatching, invalidRows.stream().mapToInt(Integer::intValue).toArray(),
+                List.copyOf(invalidConditions), groups);
+    }
+
+    public Map<String, Object> getDefaultOutput() {
+        return defaultOutput;
+    }
+
+    // Output of the first row whose condition holds, or null
+    public Map<String, Object> selectOutput(Map<String, Object> extractedFeatures) {
+        if (outputs.isEmpty()) {
+            return null;
+        }
+        long[] candidates = new long[neverMatching.length];
+        for (int word = 0; word < candidates.length; word++) {
+            candidates[word] = ~neverMatching[word];
+        }
+        for (Group group : groups) {
+            group.removeFailing(extractedFeatures.get(group.featureName), candidates);
+        }
+
+        int row = firstSet(candidates, outputs.size());
+        for (int i = 0; i < invalidRows.length; i++) {
+            if (row < 0 || invalidRows[i] < row) {
+                throw new ValidationException("Invalid offer condition: " + invalidConditions.get(i));
+            }
+        }
+        return row >= 0 ? outputs.get(row) : null;
+    }
+
+    private static int firstSet(long[] bits, int size) {
+        for (int word = 0; word < bits.length; word++) {
+            if (bits[word] != 0) {
+                int index = word * Long.SIZE + Long.numberOfTrailingZeros(bits[word]);
+                return index < size ? index : -1;
+            }
+        }
+        return -1;
+    }
+
+    private static int words(int bits) {
+        return Math.max(1, (bits + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    private static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    private record GroupKey(String featureName, String operator) {
+    }
+
+    private record Comparison(double threshold, int row) {
+    }
+
+    private static final class Group {
+
+        private final String featureName;
+        private final String operator;
+        private final double[] thresholds;
+        // Rows of the comparisons before cut i (< and <=) or from cut i on (> and >=)
+        private final long[][] failing;
+        private final long[] allRows;
+
+        Group(String featureName, String operator, List<Comparison> comparisons, int rows) {
+            this.featureName = featureName;
+            this.operator = operator;
+            comparisons.sort(Comparator.comparingDouble(Comparison::threshold));
+            this.thresholds = comparisons.stream().mapToDouble(Comparison::threshold).toArray();
+            this.failing = new long[thresholds.length + 1][];
+            boolean prefix = operator.startsWith("<");
+            long[] union = new long[words(rows)];
+            failing[prefix ? 0 : thresholds.length] = union.clone();
+            for (int i = 0; i < thresholds.length; i++) {
+                int index = prefix ? i : thresholds.length - 1 - i;
+                set(union, comparisons.get(index).row());
+                failing[prefix ? i + 1 : index] = union.clone();
+            }
+            this.allRows = union;
+        }
+
+        void removeFailing(Object value, long[] candidates) {
+            long[] rows;
+            if (value instanceof Number number && !Double.isNaN(number.doubleValue())) {
+                rows = failing[cut(number.doubleValue())];
+            } else {
+                rows = allRows;
+            }
+            for (int word = 0; word < candidates.length; word++) {
+                candidates[word] &= ~rows[word];
+            }
+        }
+
+        // feature >= t fails for t > value, feature > t for t >= value, feature <= t for t < value and
+        // feature < t for t <= value
+        private int cut(double value) {
+            return switch (operator) {
+                case ">=", "<" -> firstAbove(value);
+                default -> firstNotBelow(value);
+            };
+        }
+
+        private int firstAbove(double value) {
+            int low = 0;
+            int high = thresholds.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (thresholds[mid] <= value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int firstNotBelow(double value) {
+            int low = 0;
+            int high = thresholds.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (thresholds[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.event.EntityChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PlanCacheInvalidator {
+
+    private final CompiledPolicyCache compiledPolicyCache;
+    private final CompiledPolicySetCache compiledPolicySetCache;
+    private final ReferenceListStore referenceListStore;
+    private final PolicyNetworkCache policyNetworkCache;
+    private final RuleStatisticsRegistry ruleStatisticsRegistry;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        invalidate(event);
+    }
+
+    // Policies are evicted before policy sets so a set recompiled in between never picks up a stale policy plan
+    public void invalidate(EntityChangedEvent event) {
+        log.debug("Invalidating compiled plans for {} {} v{}", event.getEntityType(), event.getId(), event.getVersion());
+        switch (event.getEntityType()) {
+            case FEATURE:
+                compiledPolicyCache.evictIf(p -> p.getFeatureIds().contains(event.getId()));
+                compiledPolicySetCache.evictIf(s -> s.referencesFeature(event.getId()));
+                policyNetworkCache.evict();
+                break;
+            case RULE:
+                compiledPolicyCache.evictIf(p -> p.getRuleIds().contains(event.getId()));
+                compiledPolicySetCache.evictIf(s -> s.referencesRule(event.getId()));
+                policyNetworkCache.evict();
+                if (event.getVersion() == null) {
+                    ruleStatisticsRegistry.remove(event.getId());
+                }
+                break;
+            case POLICY:
+                compiledPolicyCache.evict(event.getId());
+                compiledPolicySetCache.evictIf(s -> s.referencesPolicy(event.getId()));
+                policyNetworkCache.evict();
+                break;
+            case POLICY_SET:
+                compiledPolicySetCache.evict(event.getId(), event.getVersion());
+                break;
+            case REFERENCE_LIST:
+                // Plans hold a shared handle to the list, so swapping its contents is enough
+                if (event.getVersion() == null) {
+                    referenceListStore.evict(event.getId());
+                } else {
+                    referenceListStore.refresh(event.getId());
+                }
+                break;
+            default:
+                invalidateAll();
+        }
+    }
+
+    public void invalidateAll() {
+        compiledPolicyCache.evictAll();
+        compiledPolicySetCache.evictAll();
+        policyNetworkCache.evict();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.entity.enums.LogicalOperator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Leaves are shared by rule id and version, composites by operator and children; policy trees are left untouched
+class PlanInterner {
+
+    private final FeatureSlotLayout slotLayout;
+    private final Map<LeafKey, LeafPlanNode> leaves = new HashMap<>();
+    private final Map<CompositeKey, CompositePlanNode> composites = new HashMap<>();
+
+    PlanInterner(FeatureSlotLayout slotLayout) {
+        this.slotLayout = slotLayout;
+    }
+
+    PlanNode intern(PlanNode node) {
+        if (node instanceof LeafPlanNode leaf) {
+            LeafKey key = new LeafKey(leaf.getRuleId(), leaf.getRule() != null ? leaf.getRule().getVersion() : null);
+            return leaves.computeIfAbsent(key,
+                    k -> leaf.withSlot(slotLayout.slotOf(leaf.getFeature().getId())));
+        }
+        CompositePlanNode composite = (CompositePlanNode) node;
+        List<PlanNode> children = new ArrayList<>(composite.getChildren().size());
+        for (PlanNode child : composite.getChildren()) {
+            children.add(intern(child));
+        }
+        CompositeKey key = new CompositeKey(composite.getOperator(), List.copyOf(children));
+        return composites.computeIfAbsent(key, k -> new CompositePlanNode(k.operator(), k.children()));
+    }
+
+    private record LeafKey(UUID ruleId, Integer ruleVersion) {
+    }
+
+    // Children are already interned, so list equality is node identity
+    private record CompositeKey(LogicalOperator operator, List<PlanNode> children) {
+    }
+}
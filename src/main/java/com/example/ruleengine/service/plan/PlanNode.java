@@ -0,0 +1,19 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.entity.enums.NodeType;
+
+public abstract class PlanNode {
+
+    // -1 unless memoized in a SharedPlan; only assigned before the plan is published
+    private int memoIndex = -1;
+
+    public abstract NodeType getNodeType();
+
+    public int getMemoIndex() {
+        return memoIndex;
+    }
+
+    void setMemoIndex(int memoIndex) {
+        this.memoIndex = memoIndex;
+    }
+}
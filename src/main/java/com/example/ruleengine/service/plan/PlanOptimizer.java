@@ -0,0 +1,250 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.dto.response.EvaluationOrderResponse;
+import com.example.ruleengine.entity.enums.EvaluationMode;
+import com.example.ruleengine.entity.enums.LogicalOperator;
+import com.example.ruleengine.entity.enums.NodeType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+// AND runs cheap, likely-false children first and OR cheap, likely-true ones; results do not depend on the order
+@Component
+@Slf4j
+public class PlanOptimizer {
+
+    private static final double DEFAULT_PASS_RATE = 0.5;
+    private static final double MIN_PROBABILITY = 1e-6;
+
+    private final CompiledPolicyCache compiledPolicyCache;
+    private final CompiledPolicySetCache compiledPolicySetCache;
+    private final RuleStatisticsRegistry ruleStatisticsRegistry;
+    private final LeafCostModel leafCostModel;
+    private final long minSamples;
+
+    public PlanOptimizer(CompiledPolicyCache compiledPolicyCache,
+                         CompiledPolicySetCache compiledPolicySetCache,
+                         RuleStatisticsRegistry ruleStatisticsRegistry,
+                         LeafCostModel leafCostModel,
+                         @Value("${rule-engine.optimizer.min-samples:100}") long minSamples) {
+        this.compiledPolicyCache = compiledPolicyCache;
+        this.compiledPolicySetCache = compiledPolicySetCache;
+        this.ruleStatisticsRegistry = ruleStatisticsRegistry;
+        this.leafCostModel = leafCostModel;
+        this.minSamples = minSamples;
+    }
+
+    @Scheduled(fixedDelayString = "${rule-engine.optimizer.reorder-interval-ms:60000}",
+            initialDelayString = "${rule-engine.optimizer.reorder-interval-ms:60000}")
+    public void optimizeCachedPlans() {
+        Set<CompiledPolicy> policies = Collections.newSetFromMap(new IdentityHashMap<>());
+        policies.addAll(compiledPolicyCache.getCachedPolicies());
+        for (CompiledPolicySet policySet : compiledPolicySetCache.getCachedPolicySets()) {
+            if (policySet.getBooleanPolicy() != null) {
+                policies.add(policySet.getBooleanPolicy());
+            }
+            policySet.getOfferPolicies().forEach(offer -> policies.add(offer.getPolicy()));
+        }
+
+        for (CompiledPolicy policy : policies) {
+            try {
+                optimize(policy);
+            } catch (RuntimeException e) {
+                log.warn("Failed to optimize evaluation order for policy {}: {}", policy.getPolicyId(), e.getMessage());
+            }
+        }
+        log.debug("Optimized evaluation order for {} compiled policies", policies.size());
+    }
+
+    public EvaluationOrderResponse optimize(CompiledPolicy policy) {
+        Estimate estimate = estimate(policy.getRoot(), null);
+        // A new root identity invalidates generated evaluators and shared plans, so only install a changed order
+        if (!sameOrder(estimate.node, policy.getEvaluationRoot(EvaluationMode.SHORT_CIRCUIT))) {
+            policy.setOptimizedRoot(estimate.node);
+        }
+        return describe(policy, estimate);
+    }
+
+    // Installs nothing; the proposed order is only applied by optimize
+    public EvaluationOrderResponse describe(CompiledPolicy policy) {
+        return describe(policy, estimate(policy.getRoot(), null));
+    }
+
+    private EvaluationOrderResponse describe(CompiledPolicy policy, Estimate proposed) {
+        Estimate installed = estimateInstalled(policy.getEvaluationRoot(EvaluationMode.SHORT_CIRCUIT),
+                policy.getRoot(), null);
+        return EvaluationOrderResponse.builder()
+                .policyId(policy.getPolicyId())
+                .policyName(policy.getName())
+                .version(policy.getVersion())
+                .root(installed.description)
+                .proposedRoot(proposed.description)
+                .build();
+    }
+
+    // Installed trees only permute the children of the original tree, so each child is matched back to its position
+    private Estimate estimateInstalled(PlanNode installed, PlanNode original, Integer originalPosition) {
+        if (installed instanceof LeafPlanNode leaf) {
+            return estimateLeaf(leaf, originalPosition);
+        }
+        CompositePlanNode composite = (CompositePlanNode) installed;
+        List<PlanNode> originalChildren = ((CompositePlanNode) original).getChildren();
+        boolean[] matched = new boolean[originalChildren.size()];
+        List<Estimate> children = new ArrayList<>();
+        for (PlanNode child : composite.getChildren()) {
+            int position = 0;
+            while (matched[position] || !samePlan(child, originalChildren.get(position))) {
+                position++;
+            }
+            matched[position] = true;
+            children.add(estimateInstalled(child, originalChildren.get(position), position));
+        }
+        return combine(composite, children, originalPosition);
+    }
+
+    // Same leaves under the same operators, in any child order
+    private static boolean samePlan(PlanNode a, PlanNode b) {
+        if (a == b) {
+            return true;
+        }
+        if (!(a instanceof CompositePlanNode left) || !(b instanceof CompositePlanNode right)
+                || left.getOperator() != right.getOperator()
+                || left.getChildren().size() != right.getChildren().size()) {
+            return false;
+        }
+        boolean[] matched = new boolean[right.getChildren().size()];
+        for (PlanNode child : left.getChildren()) {
+            int position = 0;
+            while (position < matched.length
+                    && (matched[position] || !samePlan(child, right.getChildren().get(position)))) {
+                position++;
+            }
+            if (position == matched.length) {
+                return false;
+            }
+            matched[position] = true;
+        }
+        return true;
+    }
+
+    private static boolean sameOrder(PlanNode a, PlanNode b) {
+        if (a == b) {
+            return true;
+        }
+        if (!(a instanceof CompositePlanNode left) || !(b instanceof CompositePlanNode right)
+                || left.getOperator() != right.getOperator()
+                || left.getChildren().size() != right.getChildren().size()) {
+            return false;
+        }
+        for (int i = 0; i < left.getChildren().size(); i++) {
+            if (!sameOrder(left.getChildren().get(i), right.getChildren().get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Estimate estimate(PlanNode node, Integer originalPosition) {
+        if (node instanceof LeafPlanNode leaf) {
+            return estimateLeaf(leaf, originalPosition);
+        }
+        return estimateComposite((CompositePlanNode) node, originalPosition);
+    }
+
+    private Estimate estimateLeaf(LeafPlanNode leaf, Integer originalPosition) {
+        RuleStatistics statistics = ruleStatisticsRegistry.getStatistics(leaf);
+        long evaluations = statistics.getEvaluations();
+        double passRate = evaluations >= minSamples
+                ? (double) statistics.getPasses() / evaluations
+                : DEFAULT_PASS_RATE;
+        double cost = leafCostModel.estimateCost(leaf);
+
+        EvaluationOrderResponse.OrderNode description = EvaluationOrderResponse.OrderNode.builder()
+                .nodeType(NodeType.LEAF.name())
+                .ruleId(leaf.getRuleId())
+                .ruleName(leaf.getRuleName())
+                .operatorCode(leaf.getOperatorCode())
+                .originalPosition(originalPosition)
+                .estimatedCost(cost)
+                .estimatedPassRate(passRate)
+                .observedEvaluations(evaluations)
+                .observedPasses(statistics.getPasses())
+                .build();
+        return new Estimate(leaf, cost, passRate, description);
+    }
+
+    private Estimate estimateComposite(CompositePlanNode node, Integer originalPosition) {
+        List<Estimate> children = new ArrayList<>();
+        for (int i = 0; i < node.getChildren().size(); i++) {
+            children.add(estimate(node.getChildren().get(i), i));
+        }
+
+        LogicalOperator operator = node.getOperator();
+        if (operator == LogicalOperator.AND) {
+            children.sort(Comparator.comparingDouble(c -> c.cost / Math.max(1.0 - c.passRate, MIN_PROBABILITY)));
+        } else if (operator == LogicalOperator.OR) {
+            children.sort(Comparator.comparingDouble(c -> c.cost / Math.max(c.passRate, MIN_PROBABILITY)));
+        }
+        return combine(node, children, originalPosition);
+    }
+
+    // Estimate of node with its children evaluated in the given order
+    private Estimate combine(CompositePlanNode node, List<Estimate> children, Integer originalPosition) {
+        LogicalOperator operator = node.getOperator();
+
+        // Expected cost assumes independent children: each child only runs if all earlier ones did not decide
+        double cost = 0.0;
+        double reachProbability = 1.0;
+        double passRate;
+        switch (operator) {
+            case AND:
+                for (Estimate child : children) {
+                    cost += reachProbability * child.cost;
+                    reachProbability *= child.passRate;
+                }
+                passRate = reachProbability;
+                break;
+            case OR:
+                for (Estimate child : children) {
+                    cost += reachProbability * child.cost;
+                    reachProbability *= 1.0 - child.passRate;
+                }
+                passRate = 1.0 - reachProbability;
+                break;
+            default:
+                cost = children.get(0).cost;
+                passRate = 1.0 - children.get(0).passRate;
+        }
+
+        List<PlanNode> orderedNodes = new ArrayList<>();
+        List<EvaluationOrderResponse.OrderNode> orderedDescriptions = new ArrayList<>();
+        for (Estimate child : children) {
+            orderedNodes.add(child.node);
+            orderedDescriptions.add(child.description);
+        }
+
+        EvaluationOrderResponse.OrderNode description = EvaluationOrderResponse.OrderNode.builder()
+                .nodeType(NodeType.COMPOSITE.name())
+                .operator(operator.name())
+                .originalPosition(originalPosition)
+                .estimatedCost(cost)
+                .estimatedPassRate(passRate)
+                .children(orderedDescriptions)
+                .build();
+        PlanNode ordered = orderedNodes.equals(node.getChildren()) ? node
+                : new CompositePlanNode(operator, List.copyOf(orderedNodes));
+        return new Estimate(ordered, cost, passRate, description);
+    }
+
+    private record Estimate(PlanNode node, double cost, double passRate,
+                            EvaluationOrderResponse.OrderNode description) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.entity.enums.EvaluationMode;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Component
+@Slf4j
+public class PolicyBytecodeCompiler {
+
+    private final RuleStatisticsRegistry ruleStatisticsRegistry;
+    private final boolean enabled;
+    private final long hotThreshold;
+    private final ExecutorService executor;
+
+    public PolicyBytecodeCompiler(RuleStatisticsRegistry ruleStatisticsRegistry,
+                                  @Value("${rule-engine.evaluation.bytecode.enabled:false}") boolean enabled,
+                                  @Value("${rule-engine.evaluation.bytecode.hot-threshold:10000}") long hotThreshold) {
+        this.ruleStatisticsRegistry = ruleStatisticsRegistry;
+        this.enabled = enabled;
+        this.hotThreshold = hotThreshold;
+        this.executor = Executors.newSingleThreadExecutor(Thread.ofPlatform()
+                .name("policy-bytecode-compiler").daemon(true).factory());
+    }
+
+    // Null when the caller should interpret the tree
+    public GeneratedEvaluator getEvaluator(CompiledPolicy policy, PlanNode root, EvaluationMode mode) {
+        if (!enabled) {
+            return null;
+        }
+        BytecodeTier tier = policy.getBytecodeTier();
+        GeneratedEvaluator evaluator = tier.getEvaluator(mode);
+        if (evaluator != null && evaluator.getRoot() == root) {
+            return evaluator;
+        }
+        // A policy that already had an evaluator is hot, so a reordered tree is regenerated without counting again
+        boolean hot = evaluator != null || tier.recordInterpreted(mode) >= hotThreshold;
+        if (hot && tier.startGenerating()) {
+            executor.execute(() -> generate(policy, tier, root, mode));
+        }
+        return null;
+    }
+
+    private void generate(CompiledPolicy policy, BytecodeTier tier, PlanNode root, EvaluationMode mode) {
+        try {
+            long start = System.nanoTime();
+            tier.setEvaluator(mode, EvaluatorClassWriter.define(root, ruleStatisticsRegistry));
+            tier.finishGenerating(true);
+            log.info("Generated {} evaluator for policy {} v{} in {} ms",
+                    mode, policy.getName(), policy.getVersion(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException | LinkageError e) {
+            // e.g. a tree too large for one method; the policy stays interpreted
+            tier.finishGenerating(false);
+            log.warn("Could not generate evaluator for policy {} v{}, keeping the interpreter: {}",
+                    policy.getName(), policy.getVersion(), e.toString());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
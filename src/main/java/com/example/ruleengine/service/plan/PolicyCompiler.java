@@ -0,0 +1,133 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.entity.Policy;
+import com.example.ruleengine.entity.Rule;
+import com.example.ruleengine.entity.enums.LogicalOperator;
+import com.example.ruleengine.exception.ValidationException;
+import com.example.ruleengine.repository.RuleRepository;
+import com.example.ruleengine.service.operator.OperatorStrategyFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PolicyCompiler {
+
+    private final RuleRepository ruleRepository;
+    private final OperatorStrategyFactory operatorStrategyFactory;
+    private final ReferenceListStore referenceListStore;
+
+    public CompiledPolicy compile(Policy policy) {
+        Set<UUID> ruleIds = new LinkedHashSet<>();
+        collectRuleIds(policy.getRootNode(), ruleIds);
+
+        Map<UUID, Rule> rulesById = ruleRepository.findAllWithFeatureAndOperatorByIdIn(ruleIds).stream()
+                .collect(Collectors.toMap(Rule::getId, Function.identity()));
+
+        Map<UUID, Integer> ruleVersions = new LinkedHashMap<>();
+        Map<UUID, Integer> featureVersions = new LinkedHashMap<>();
+        Map<UUID, CompiledFeature> featuresById = new LinkedHashMap<>();
+        for (Rule rule : rulesById.values()) {
+            ruleVersions.put(rule.getId(), rule.getVersion());
+            featureVersions.putIfAbsent(rule.getFeature().getId(), rule.getFeature().getVersion());
+            featuresById.computeIfAbsent(rule.getFeature().getId(), id -> CompiledFeature.compile(rule.getFeature()));
+        }
+
+        log.debug("Compiled policy {} v{} with {} rules over {} features",
+                policy.getName(), policy.getVersion(), rulesById.size(), featuresById.size());
+
+        List<CompiledFeature> features = List.copyOf(featuresById.values());
+        FeatureSlotLayout slotLayout = FeatureSlotLayout.of(features);
+        PlanNode root = compileNode(policy.getRootNode(), rulesById, slotLayout);
+
+        return CompiledPolicy.builder()
+                .policyId(policy.getId())
+                .version(policy.getVersion())
+                .name(policy.getName())
+                .policyType(policy.getPolicyType())
+                .outputMapping(policy.getOutputMapping())
+                .offerTable(OfferDecisionTable.compile(policy.getOutputMapping()))
+                .root(root)
+                .ruleVersions(Collections.unmodifiableMap(ruleVersions))
+                .featureVersions(Collections.unmodifiableMap(featureVersions))
+                .features(features)
+                .extractionPlan(FeatureExtractionPlan.build(features))
+                .slotLayout(slotLayout)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void collectRuleIds(Map<String, Object> node, Set<UUID> ruleIds) {
+        String nodeType = (String) node.get("type");
+
+        if ("LEAF".equals(nodeType)) {
+            ruleIds.add(UUID.fromString((String) node.get("ruleId")));
+        } else if ("COMPOSITE".equals(nodeType)) {
+            List<Map<String, Object>> children = (List<Map<String, Object>>) node.get("children");
+            for (Map<String, Object> child : children) {
+                collectRuleIds(child, ruleIds);
+            }
+        }
+    }
+
+    private PlanNode compileNode(Map<String, Object> node, Map<UUID, Rule> rulesById, FeatureSlotLayout slotLayout) {
+        String nodeType = (String) node.get("type");
+
+        if ("LEAF".equals(nodeType)) {
+            return compileLeaf(node, rulesById, slotLayout);
+        } else if ("COMPOSITE".equals(nodeType)) {
+            return compileComposite(node, rulesById, slotLayout);
+        } else {
+            throw new ValidationException("Unknown node type: " + nodeType);
+        }
+    }
+
+    private LeafPlanNode compileLeaf(Map<String, Object> node, Map<UUID, Rule> rulesById, FeatureSlotLayout slotLayout) {
+        UUID ruleId = UUID.fromString((String) node.get("ruleId"));
+        Rule rule = rulesById.get(ruleId);
+        if (rule == null) {
+            throw new ValidationException("Rule not found: " + ruleId);
+        }
+
+        String operatorCode = rule.getOperator().getCode();
+        return new LeafPlanNode(
+                ruleId,
+                rule,
+                rule.getFeature(),
+                operatorCode,
+                operatorStrategyFactory.getStrategy(operatorCode),
+                rule.getOperand(),
+                referenceListStore.resolve(rule.getOperand()),
+                slotLayout.slotOf(rule.getFeature().getId()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompositePlanNode compileComposite(Map<String, Object> node, Map<UUID, Rule> rulesById,
+                                               FeatureSlotLayout slotLayout) {
+        String operator = (String) node.get("operator");
+        LogicalOperator logicalOperator;
+        try {
+            logicalOperator = LogicalOperator.valueOf(operator);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new ValidationException("Unknown operator: " + operator);
+        }
+
+        List<Map<String, Object>> children = (List<Map<String, Object>>) node.get("children");
+        if (children == null || children.isEmpty()) {
+            throw new ValidationException("COMPOSITE node must have at least one child");
+        }
+
+        List<PlanNode> compiledChildren = new ArrayList<>(children.size());
+        for (Map<String, Object> child : children) {
+            compiledChildren.add(compileNode(child, rulesById, slotLayout));
+        }
+
+        return new CompositePlanNode(logicalOperator, List.copyOf(compiledChildren));
+    }
+}
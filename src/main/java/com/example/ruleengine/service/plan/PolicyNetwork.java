@@ -0,0 +1,292 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.entity.enums.LogicalOperator;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+// Rete-style network over every policy: only alpha nodes (rules) that match are propagated to the beta nodes
+public class PolicyNetwork {
+
+    @Getter
+    private final FeatureSlotLayout slotLayout;
+    @Getter
+    private final List<UUID> policyIds;
+    @Getter
+    private final FeatureExtractionPlan extractionPlan;
+    private final LeafPlanNode[] alphaNodes;
+    // Per slot; alpha nodes not covered by an index are tested one by one
+    private final int[][] alphaNodesBySlot;
+    private final EqualityIndex[] equalityIndexes;
+    private final NumericThresholdIndex[] thresholdIndexes;
+    private final int[][] policiesBySlot;
+    // Indexed by node id minus the alpha count
+    private final LogicalOperator[] operators;
+    private final int[] childCounts;
+    private final int[] defaultCounts;
+    private final int[][] parents;
+    private final int[][] policiesByRoot;
+    private final int[] policyRoots;
+    // Policies holding when no rule matches, e.g. NOT conditions
+    private final int[] defaultMatches;
+
+    private PolicyNetwork(FeatureSlotLayout slotLayout, List<UUID> policyIds, LeafPlanNode[] alphaNodes,
+                          int[][] alphaNodesBySlot, EqualityIndex[] equalityIndexes,
+                          NumericThresholdIndex[] thresholdIndexes,
+                          int[][] policiesBySlot, LogicalOperator[] operators,
+                          int[] childCounts, int[] defaultCounts, int[][] parents, int[][] policiesByRoot,
+                          int[] policyRoots, int[] defaultMatches) {
+        this.slotLayout = slotLayout;
+        this.policyIds = policyIds;
+        this.extractionPlan = FeatureExtractionPlan.build(slotLayout.getFeatures());
+        this.alphaNodes = alphaNodes;
+        this.alphaNodesBySlot = alphaNodesBySlot;
+        this.equalityIndexes = equalityIndexes;
+        this.thresholdIndexes = thresholdIndexes;
+        this.policiesBySlot = policiesBySlot;
+        this.operators = operators;
+        this.childCounts = childCounts;
+        this.defaultCounts = defaultCounts;
+        this.parents = parents;
+        this.policiesByRoot = policiesByRoot;
+        this.policyRoots = policyRoots;
+        this.defaultMatches = defaultMatches;
+    }
+
+    public static PolicyNetwork compile(List<CompiledPolicy> policies) {
+        Map<UUID, CompiledFeature> features = new LinkedHashMap<>();
+        policies.forEach(policy -> policy.getFeatures().forEach(f -> features.putIfAbsent(f.getId(), f)));
+        FeatureSlotLayout slotLayout = FeatureSlotLayout.of(List.copyOf(features.values()));
+
+        PlanInterner interner = new PlanInterner(slotLayout);
+        List<PlanNode> roots = new ArrayList<>(policies.size());
+        policies.forEach(policy -> roots.add(interner.intern(policy.getRoot())));
+
+        // Number alpha nodes first, then beta nodes in post-order so children come before their parents
+        List<LeafPlanNode> alphaList = new ArrayList<>();
+        List<CompositePlanNode> betaList = new ArrayList<>();
+        Map<PlanNode, Boolean> visited = new IdentityHashMap<>();
+        roots.forEach(root -> collect(root, visited, alphaList, betaList));
+        int alphaCount = alphaList.size();
+        Map<PlanNode, Integer> ids = new IdentityHashMap<>();
+        for (int i = 0; i < alphaCount; i++) {
+            ids.put(alphaList.get(i), i);
+        }
+        for (int i = 0; i < betaList.size(); i++) {
+            ids.put(betaList.get(i), alphaCount + i);
+        }
+
+        int nodeCount = alphaCount + betaList.size();
+        List<List<Integer>> parentLists = newLists(nodeCount);
+        LogicalOperator[] operators = new LogicalOperator[betaList.size()];
+        int[] childCounts = new int[betaList.size()];
+        int[] defaultCounts = new int[betaList.size()];
+        boolean[] defaultValues = new boolean[nodeCount];
+        for (int i = 0; i < betaList.size(); i++) {
+            CompositePlanNode beta = betaList.get(i);
+            operators[i] = beta.getOperator();
+            childCounts[i] = beta.getChildren().size();
+            for (PlanNode child : beta.getChildren()) {
+                int childId = ids.get(child);
+                parentLists.get(childId).add(alphaCount + i);
+                if (defaultValues[childId]) {
+                    defaultCounts[i]++;
+                }
+            }
+            defaultValues[alphaCount + i] = holds(operators[i], defaultCounts[i], childCounts[i]);
+        }
+
+        List<List<Integer>> alphaBySlot = newLists(slotLayout.size());
+        List<List<Integer>> equalityBySlot = newLists(slotLayout.size());
+        List<List<NumericThresholdIndex.Entry>> entriesBySlot = new ArrayList<>();
+        for (int slot = 0; slot < slotLayout.size(); slot++) {
+            entriesBySlot.add(new ArrayList<>());
+        }
+        for (int i = 0; i < alphaCount; i++) {
+            LeafPlanNode alpha = alphaList.get(i);
+            NumericThresholdIndex.Entry entry = NumericThresholdIndex.entry(alpha, i);
+            if (entry != null) {
+                entriesBySlot.get(alpha.getSlot()).add(entry);
+            } else if (EqualityIndex.indexes(alpha)) {
+                equalityBySlot.get(alpha.getSlot()).add(i);
+            } else {
+                alphaBySlot.get(alpha.getSlot()).add(i);
+            }
+        }
+        EqualityIndex[] equalityIndexes = new EqualityIndex[slotLayout.size()];
+        NumericThresholdIndex[] thresholdIndexes = new NumericThresholdIndex[slotLayout.size()];
+        for (int slot = 0; slot < slotLayout.size(); slot++) {
+            List<Integer> equalityNodes = equalityBySlot.get(slot);
+            if (!equalityNodes.isEmpty()) {
+                equalityIndexes[slot] = EqualityIndex.build(
+                        equalityNodes.stream().map(alphaList::get).toList(), equalityNodes);
+            }
+            if (!entriesBySlot.get(slot).isEmpty()) {
+                thresholdIndexes[slot] = NumericThresholdIndex.build(entriesBySlot.get(slot));
+            }
+        }
+        List<List<Integer>> policiesBySlot = newLists(slotLayout.size());
+        List<List<Integer>> policiesByRoot = newLists(nodeCount);
+        int[] policyRoots = new int[policies.size()];
+        List<Integer> defaultMatches = new ArrayList<>();
+        List<UUID> policyIds = new ArrayList<>(policies.size());
+        for (int p = 0; p < policies.size(); p++) {
+            CompiledPolicy policy = policies.get(p);
+            policyIds.add(policy.getPolicyId());
+            for (CompiledFeature feature : policy.getFeatures()) {
+                policiesBySlot.get(slotLayout.slotOf(feature.getId())).add(p);
+            }
+            policyRoots[p] = ids.get(roots.get(p));
+            policiesByRoot.get(policyRoots[p]).add(p);
+            if (defaultValues[policyRoots[p]]) {
+                defaultMatches.add(p);
+            }
+        }
+
+        return new PolicyNetwork(slotLayout, List.copyOf(policyIds), alphaList.toArray(new LeafPlanNode[0]),
+                toArrays(alphaBySlot), equalityIndexes, thresholdIndexes, toArrays(policiesBySlot), operators, childCounts, defaultCounts,
+                toArrays(parentLists), toArrays(policiesByRoot), policyRoots,
+                defaultMatches.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private static void collect(PlanNode node, Map<PlanNode, Boolean> visited, List<LeafPlanNode> alphaList,
+                                List<CompositePlanNode> betaList) {
+        if (visited.put(node, Boolean.TRUE) != null) {
+            return;
+        }
+        if (node instanceof LeafPlanNode leaf) {
+            alphaList.add(leaf);
+            return;
+        }
+        CompositePlanNode composite = (CompositePlanNode) node;
+        composite.getChildren().forEach(child -> collect(child, visited, alphaList, betaList));
+        betaList.add(composite);
+    }
+
+    private static boolean holds(LogicalOperator operator, int trueChildren, int childCount) {
+        return switch (operator) {
+            case AND -> trueChildren == childCount;
+            case OR -> trueChildren > 0;
+            case NOT -> trueChildren == 0;
+        };
+    }
+
+    private static List<List<Integer>> newLists(int size) {
+        List<List<Integer>> lists = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            lists.add(new ArrayList<>(1));
+        }
+        return lists;
+    }
+
+    private static int[][] toArrays(List<List<Integer>> lists) {
+        int[][] arrays = new int[lists.size()][];
+        for (int i = 0; i < lists.size(); i++) {
+            arrays[i] = lists.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return arrays;
+    }
+
+    public int size() {
+        return policyIds.size();
+    }
+
+    public int getAlphaNodeCount() {
+        return alphaNodes.length;
+    }
+
+    // A policy reading a feature the input lacks never matches, as in a single-policy evaluation
+    public List<UUID> match(FeatureSlots slots, Predicate<LeafPlanNode> leafEvaluator) {
+        Activation activation = new Activation();
+        BitSet excluded = new BitSet();
+        for (int slot = 0; slot < alphaNodesBySlot.length; slot++) {
+            if (slots.getValue(slot) == null) {
+                for (int policy : policiesBySlot[slot]) {
+                    excluded.set(policy);
+                }
+                continue;
+            }
+            test(alphaNodesBySlot[slot], leafEvaluator, activation);
+            if (equalityIndexes[slot] != null) {
+                equalityIndexes[slot].forEachMatch(slots.getValue(slot), activation::matchAlpha);
+            }
+            NumericThresholdIndex index = thresholdIndexes[slot];
+            if (index != null) {
+                if (slots.isNumeric(slot)) {
+                    index.forEachMatch(slots.getNumeric(slot), activation::matchAlpha);
+                } else {
+                    test(index.getNodes(), leafEvaluator, activation);
+                }
+            }
+        }
+
+        BitSet matched = new BitSet();
+        for (int policy : defaultMatches) {
+            if (activation.holds(policyRoots[policy])) {
+                matched.set(policy);
+            }
+        }
+        for (int root : activation.changedRoots) {
+            if (activation.holds(root)) {
+                for (int policy : policiesByRoot[root]) {
+                    matched.set(policy);
+                }
+            }
+        }
+        matched.andNot(excluded);
+
+        List<UUID> result = new ArrayList<>(matched.cardinality());
+        matched.stream().forEach(policy -> result.add(policyIds.get(policy)));
+        return result;
+    }
+
+    private void test(int[] alphas, Predicate<LeafPlanNode> leafEvaluator, Activation activation) {
+        for (int alpha : alphas) {
+            if (leafEvaluator.test(alphaNodes[alpha])) {
+                activation.matchAlpha(alpha);
+            }
+        }
+    }
+
+    private class Activation {
+
+        private final BitSet matchedAlphas = new BitSet();
+        private final int[] countDeltas = new int[operators.length];
+        private final List<Integer> changedRoots = new ArrayList<>();
+
+        void matchAlpha(int alpha) {
+            matchedAlphas.set(alpha);
+            changed(alpha, true);
+        }
+
+        private void changed(int node, boolean value) {
+            if (policiesByRoot[node].length > 0) {
+                changedRoots.add(node);
+            }
+            for (int parent : parents[node]) {
+                int beta = parent - alphaNodes.length;
+                boolean before = holds(parent);
+                countDeltas[beta] += value ? 1 : -1;
+                boolean after = holds(parent);
+                if (before != after) {
+                    changed(parent, after);
+                }
+            }
+        }
+
+        boolean holds(int node) {
+            if (node < alphaNodes.length) {
+                return matchedAlphas.get(node);
+            }
+            int beta = node - alphaNodes.length;
+            return PolicyNetwork.holds(operators[beta], defaultCounts[beta] + countDeltas[beta], childCounts[beta]);
+        }
+    }
+}
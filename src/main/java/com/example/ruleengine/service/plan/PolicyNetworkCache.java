@@ -0,0 +1,51 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.repository.PolicyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PolicyNetworkCache {
+
+    private final PolicyRepository policyRepository;
+    private final CompiledPolicyCache compiledPolicyCache;
+    private volatile PolicyNetwork network;
+    // Bumped on every invalidation so a compile racing with a write cannot re-cache stale policies
+    private final AtomicLong generation = new AtomicLong();
+
+    public PolicyNetwork getNetwork() {
+        PolicyNetwork cached = network;
+        if (cached != null) {
+            return cached;
+        }
+
+        long compiledAtGeneration = generation.get();
+        List<CompiledPolicy> policies = policyRepository.findByEnabled(true).stream()
+                .map(compiledPolicyCache::getCompiledPolicy)
+                .toList();
+        PolicyNetwork compiled = PolicyNetwork.compile(policies);
+        log.debug("Compiled policy network of {} policies with {} alpha nodes",
+                compiled.size(), compiled.getAlphaNodeCount());
+        synchronized (this) {
+            if (generation.get() == compiledAtGeneration) {
+                network = compiled;
+            }
+        }
+        return compiled;
+    }
+
+    public PolicyNetwork getCachedNetwork() {
+        return network;
+    }
+
+    public synchronized void evict() {
+        generation.incrementAndGet();
+        network = null;
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.entity.enums.ReferenceListValueType;
+import com.example.ruleengine.exception.ValidationException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+// Layout: header | bloom filter words | sorted doubles (NUMERIC) or offsets + sorted UTF-8 bytes (STRING)
+public final class ReferenceListData {
+
+    private static final int MAGIC = 0x524C5354;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int BITS_PER_ENTRY = 10;
+    private static final int HASHES = 7;
+
+    private final ByteBuffer buffer;
+    private final ReferenceListValueType valueType;
+    private final int count;
+    private final int bloomWords;
+    private final int hashes;
+    private final int dataOffset;
+
+    private ReferenceListData(ByteBuffer buffer) {
+        this.buffer = buffer.order(ByteOrder.BIG_ENDIAN);
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalStateException("Not a reference list file");
+        }
+        int valueTypeOrdinal = buffer.getInt(8);
+        if (valueTypeOrdinal < 0 || valueTypeOrdinal >= ReferenceListValueType.values().length) {
+            throw new IllegalStateException("Unknown reference list value type " + valueTypeOrdinal);
+        }
+        this.valueType = ReferenceListValueType.values()[valueTypeOrdinal];
+        this.count = buffer.getInt(12);
+        this.bloomWords = buffer.getInt(16);
+        this.hashes = buffer.getInt(20);
+        this.dataOffset = HEADER_SIZE + bloomWords * Long.BYTES;
+        if (count < 0 || bloomWords < 0 || dataOffset > buffer.capacity()) {
+            throw new IllegalStateException("Truncated reference list file");
+        }
+    }
+
+    public static ReferenceListData wrap(byte[] data) {
+        return new ReferenceListData(ByteBuffer.wrap(data).asReadOnlyBuffer());
+    }
+
+    public static ReferenceListData map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new ReferenceListData(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public static ReferenceListData empty(ReferenceListValueType valueType) {
+        return wrap(encode(valueType, List.of()));
+    }
+
+    public static byte[] encode(ReferenceListValueType valueType, List<String> entries) {
+        return valueType == ReferenceListValueType.NUMERIC ? encodeNumeric(entries) : encodeStrings(entries);
+    }
+
+    private static byte[] encodeNumeric(List<String> entries) {
+        double[] values = new double[entries.size()];
+        int size = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            String entry = entries.get(i).trim();
+            if (entry.isEmpty()) {
+                continue;
+            }
+            double value;
+            try {
+                value = Double.parseDouble(entry);
+            } catch (NumberFormatException e) {
+                throw new ValidationException("Invalid numeric entry at line " + (i + 1) + ": " + entry);
+            }
+            if (Double.isNaN(value)) {
+                throw new ValidationException("Invalid numeric entry at line " + (i + 1) + ": " + entry);
+            }
+            values[size++] = value == 0.0 ? 0.0 : value;
+        }
+        double[] sorted = Arrays.stream(values, 0, size).sorted().distinct().toArray();
+
+        long[] bloom = new long[bloomWords(sorted.length)];
+        for (double value : sorted) {
+            addToBloom(bloom, hashNumber(value));
+        }
+        ByteBuffer out = header(ReferenceListValueType.NUMERIC, sorted.length, bloom,
+                sorted.length * Double.BYTES);
+        for (double value : sorted) {
+            out.putDouble(value);
+        }
+        return out.array();
+    }
+
+    private static byte[] encodeStrings(List<String> entries) {
+        TreeSet<byte[]> sorted = new TreeSet<>(Arrays::compareUnsigned);
+        for (String entry : entries) {
+            String trimmed = entry.trim();
+            if (!trimmed.isEmpty()) {
+                sorted.add(trimmed.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        List<byte[]> values = new ArrayList<>(sorted);
+
+        long[] bloom = new long[bloomWords(values.size())];
+        long bytes = 0;
+        for (byte[] value : values) {
+            addToBloom(bloom, hashBytes(value, 0, value.length));
+            bytes += value.length;
+        }
+        long bodySize = (values.size() + 1L) * Integer.BYTES + bytes;
+        if (bodySize > Integer.MAX_VALUE - HEADER_SIZE - (long) bloom.length * Long.BYTES) {
+            throw new ValidationException("Reference list is too large");
+        }
+        ByteBuffer out = header(ReferenceListValueType.STRING, values.size(), bloom, (int) bodySize);
+        int offset = 0;
+        for (byte[] value : values) {
+            out.putInt(offset);
+            offset += value.length;
+        }
+        out.putInt(offset);
+        for (byte[] value : values) {
+            out.put(value);
+        }
+        return out.array();
+    }
+
+    private static ByteBuffer header(ReferenceListValueType valueType, int count, long[] bloom, int bodySize) {
+        ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + bloom.length * Long.BYTES + bodySize);
+        out.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(valueType.ordinal()).putInt(count)
+                .putInt(bloom.length).putInt(HASHES).putLong(0L);
+        for (long word : bloom) {
+            out.putLong(word);
+        }
+        return out;
+    }
+
+    public ReferenceListValueType getValueType() {
+        return valueType;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    // Same matching as ValueSet
+    public boolean contains(Object value) {
+        if (value instanceof Number number) {
+            return containsNumber(number.doubleValue());
+        }
+        if (value instanceof String string && valueType == ReferenceListValueType.STRING) {
+            return containsString(string);
+        }
+        return false;
+    }
+
+    public boolean containsNumber(double value) {
+        if (valueType != ReferenceListValueType.NUMERIC || Double.isNaN(value) || count == 0) {
+            return false;
+        }
+        double normalized = value == 0.0 ? 0.0 : value;
+        if (!mightContain(hashNumber(normalized))) {
+            return false;
+        }
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            double candidate = buffer.getDouble(dataOffset + mid * Double.BYTES);
+            if (candidate < normalized) {
+                low = mid + 1;
+            } else if (candidate > normalized) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean containsString(String value) {
+        if (count == 0) {
+            return false;
+        }
+        byte[] probe = value.getBytes(StandardCharsets.UTF_8);
+        if (!mightContain(hashBytes(probe, 0, probe.length))) {
+            return false;
+        }
+        int bytesOffset = dataOffset + (count + 1) * Integer.BYTES;
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int start = buffer.getInt(dataOffset + mid * Integer.BYTES);
+            int end = buffer.getInt(dataOffset + (mid + 1) * Integer.BYTES);
+            int cmp = compareUnsigned(bytesOffset + start, end - start, probe);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int compareUnsigned(int offset, int length, byte[] probe) {
+        int common = Math.min(length, probe.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Byte.compareUnsigned(buffer.get(offset + i), probe[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, probe.length);
+    }
+
+    private boolean mightContain(long hash) {
+        long bits = (long) bloomWords * Long.SIZE;
+        long h2 = Long.rotateLeft(hash, 32) | 1L;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(hash + i * h2, bits);
+            if ((buffer.getLong(HEADER_SIZE + (int) (bit >>> 6) * Long.BYTES) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addToBloom(long[] bloom, long hash) {
+        long bits = (long) bloom.length * Long.SIZE;
+        long h2 = Long.rotateLeft(hash, 32) | 1L;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Math.floorMod(hash + i * h2, bits);
+            bloom[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    private static int bloomWords(int count) {
+        return Math.max(1, (int) (((long) count * BITS_PER_ENTRY + Long.SIZE - 1) / Long.SIZE));
+    }
+
+    private static long hashNumber(double value) {
+        return mix(Double.doubleToLongBits(value));
+    }
+
+    // FNV-1a over the UTF-8 bytes, finished with the murmur3 64-bit mixer
+    private static long hashBytes(byte[] bytes, int offset, int length) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = offset; i < offset + length; i++) {
+            hash ^= bytes[i] & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
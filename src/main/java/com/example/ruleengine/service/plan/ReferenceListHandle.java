@@ -0,0 +1,51 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.service.operator.MembershipSet;
+
+import java.util.UUID;
+
+// Shared by every plan using the list; uploads swap the snapshot in place without a recompile
+public final class ReferenceListHandle implements MembershipSet {
+
+    private final UUID referenceListId;
+    private volatile Snapshot current;
+
+    ReferenceListHandle(UUID referenceListId, int version, ReferenceListData data) {
+        this.referenceListId = referenceListId;
+        this.current = new Snapshot(version, data);
+    }
+
+    @Override
+    public boolean contains(Object value) {
+        return current.data().contains(value);
+    }
+
+    @Override
+    public boolean containsNumber(double value) {
+        return current.data().containsNumber(value);
+    }
+
+    public UUID getReferenceListId() {
+        return referenceListId;
+    }
+
+    public int getVersion() {
+        return current.version();
+    }
+
+    public int size() {
+        return current.data().size();
+    }
+
+    void swap(int version, ReferenceListData data) {
+        current = new Snapshot(version, data);
+    }
+
+    @Override
+    public String toString() {
+        return "ReferenceList[" + referenceListId + " v" + current.version() + "]";
+    }
+
+    private record Snapshot(int version, ReferenceListData data) {
+    }
+}
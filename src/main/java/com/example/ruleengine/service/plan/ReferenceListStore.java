@@ -0,0 +1,181 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.exception.ResourceNotFoundException;
+import com.example.ruleengine.exception.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@Slf4j
+public class ReferenceListStore {
+
+    public static final String REFERENCE_LIST_ID = "referenceListId";
+    private static final String FILE_SUFFIX = ".rlst";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Path directory;
+    private final Map<UUID, ReferenceListHandle> handles = new ConcurrentHashMap<>();
+
+    public ReferenceListStore(NamedParameterJdbcTemplate jdbcTemplate,
+                              @Value("${rule-engine.reference-lists.directory:${java.io.tmpdir}/rule-engine/reference-lists}")
+                              String directory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.directory = Path.of(directory);
+    }
+
+    // Null for inline operands
+    public static UUID referenceListId(Object operand) {
+        if (!(operand instanceof Map<?, ?> map) || !map.containsKey(REFERENCE_LIST_ID)) {
+            return null;
+        }
+        if (map.size() != 1 || map.get(REFERENCE_LIST_ID) == null) {
+            throw new ValidationException("Reference list operand must only contain '" + REFERENCE_LIST_ID + "'");
+        }
+        try {
+            return UUID.fromString(String.valueOf(map.get(REFERENCE_LIST_ID)));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid reference list id: " + map.get(REFERENCE_LIST_ID));
+        }
+    }
+
+    public Object resolve(Object operand) {
+        UUID referenceListId = referenceListId(operand);
+        return referenceListId != null ? getHandle(referenceListId) : operand;
+    }
+
+    public ReferenceListHandle getHandle(UUID referenceListId) {
+        ReferenceListHandle handle = handles.get(referenceListId);
+        if (handle != null) {
+            return handle;
+        }
+        return handles.computeIfAbsent(referenceListId, id -> {
+            LoadedList loaded = load(id);
+            return new ReferenceListHandle(id, loaded.version(), loaded.data());
+        });
+    }
+
+    public void refresh(UUID referenceListId) {
+        ReferenceListHandle handle = handles.get(referenceListId);
+        if (handle == null) {
+            return;
+        }
+        synchronized (handle) {
+            LoadedList loaded;
+            try {
+                loaded = load(referenceListId);
+            } catch (ResourceNotFoundException e) {
+                evict(referenceListId);
+                return;
+            } catch (IllegalStateException e) {
+                log.warn("Keeping reference list {} at v{}: {}", referenceListId, handle.getVersion(), e.getMessage());
+                return;
+            }
+            int previousVersion = handle.getVersion();
+            if (loaded.version() != previousVersion) {
+                handle.swap(loaded.version(), loaded.data());
+                log.info("Swapped reference list {} from v{} to v{} ({} entries)",
+                        referenceListId, previousVersion, loaded.version(), loaded.data().size());
+                deleteFile(referenceListId, previousVersion);
+            }
+        }
+    }
+
+    public void evict(UUID referenceListId) {
+        ReferenceListHandle handle = handles.remove(referenceListId);
+        if (handle != null) {
+            deleteFile(referenceListId, handle.getVersion());
+        }
+    }
+
+    public Map<UUID, Integer> getLoadedVersions() {
+        Map<UUID, Integer> versions = new HashMap<>();
+        handles.forEach((id, handle) -> versions.put(id, handle.getVersion()));
+        return versions;
+    }
+
+    private LoadedList load(UUID referenceListId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("id", referenceListId);
+        List<Integer> versions = jdbcTemplate.queryForList(
+                "SELECT version FROM reference_lists WHERE id = :id", params, Integer.class);
+        if (versions.isEmpty()) {
+            throw new ResourceNotFoundException("ReferenceList", "id", referenceListId);
+        }
+        Path file = file(referenceListId, versions.get(0));
+        if (Files.exists(file)) {
+            try {
+                return new LoadedList(versions.get(0), ReferenceListData.map(file));
+            } catch (IOException | IllegalStateException e) {
+                log.warn("Discarding unreadable reference list file {}: {}", file, e.getMessage());
+            }
+        }
+
+        // One statement, so replaceEntries cannot bump the version and delete the old contents in between
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT l.version, c.data FROM reference_lists l LEFT JOIN reference_list_contents c "
+                        + "ON c.reference_list_id = l.id AND c.version = l.version WHERE l.id = :id", params);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("ReferenceList", "id", referenceListId);
+        }
+        int version = ((Number) rows.get(0).get("version")).intValue();
+        byte[] data = (byte[]) rows.get(0).get("data");
+        if (data == null) {
+            throw new IllegalStateException("Reference list " + referenceListId + " v" + version
+                    + " has no stored contents");
+        }
+        file = file(referenceListId, version);
+        try {
+            writeAtomically(file, data);
+            return new LoadedList(version, ReferenceListData.map(file));
+        } catch (IOException e) {
+            log.warn("Could not map reference list {} v{} from {}, keeping it on heap: {}",
+                    referenceListId, version, directory, e.getMessage());
+            return new LoadedList(version, ReferenceListData.wrap(data));
+        }
+    }
+
+    private Path file(UUID referenceListId, int version) {
+        return directory.resolve(referenceListId + "-v" + version + FILE_SUFFIX);
+    }
+
+    // Another replica may be writing the same version concurrently; both produce identical bytes
+    private void writeAtomically(Path file, byte[] data) throws IOException {
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, data);
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Mappings already handed out stay valid after the file is unlinked
+    private void deleteFile(UUID referenceListId, int version) {
+        try {
+            Files.deleteIfExists(file(referenceListId, version));
+        } catch (IOException e) {
+            log.debug("Could not delete reference list file for {} v{}: {}", referenceListId, version, e.getMessage());
+        }
+    }
+
+    private record LoadedList(int version, ReferenceListData data) {
+    }
+}
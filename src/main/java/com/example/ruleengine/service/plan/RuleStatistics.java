@@ -0,0 +1,33 @@
+package com.example.ruleengine.service.plan;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+@RequiredArgsConstructor
+public class RuleStatistics {
+
+    @Getter
+    private final UUID ruleId;
+    @Getter
+    private final Integer ruleVersion;
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder passes = new LongAdder();
+
+    public void record(boolean passed) {
+        evaluations.increment();
+        if (passed) {
+            passes.increment();
+        }
+    }
+
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+
+    public long getPasses() {
+        return passes.sum();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.ruleengine.service.plan;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Component
+public class RuleStatisticsRegistry {
+
+    private final Map<UUID, RuleStatistics> statistics = new ConcurrentHashMap<>();
+    private final int sampleInterval;
+
+    public RuleStatisticsRegistry(@Value("${rule-engine.optimizer.sample-interval:16}") int sampleInterval) {
+        if (sampleInterval < 1) {
+            throw new IllegalArgumentException("Sample interval must be at least 1: " + sampleInterval);
+        }
+        this.sampleInterval = sampleInterval;
+    }
+
+    // Records about one in sampleInterval evaluations; pass rates do not depend on how many are sampled
+    public void record(LeafPlanNode leaf, boolean passed) {
+        if (sampleInterval == 1 || ThreadLocalRandom.current().nextInt(sampleInterval) == 0) {
+            getStatistics(leaf).record(passed);
+        }
+    }
+
+    // Pass rates are only meaningful for the rule version that produced them, so a new version starts fresh
+    public RuleStatistics getStatistics(LeafPlanNode leaf) {
+        RuleStatistics cached = leaf.getStatistics();
+        if (cached != null) {
+            return cached;
+        }
+        Integer version = leaf.getRule().getVersion();
+        RuleStatistics current = statistics.compute(leaf.getRuleId(), (id, existing) ->
+                existing != null && Objects.equals(existing.getRuleVersion(), version)
+                        ? existing
+                        : new RuleStatistics(id, version));
+        leaf.setStatistics(current);
+        return current;
+    }
+
+    public void remove(UUID ruleId) {
+        statistics.remove(ruleId);
+    }
+}
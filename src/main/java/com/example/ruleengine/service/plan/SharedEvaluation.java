@@ -0,0 +1,20 @@
+package com.example.ruleengine.service.plan;
+
+import lombok.Getter;
+
+// Set-level feature slots are filled policy by policy as each is evaluated
+@Getter
+public class SharedEvaluation {
+
+    private final SharedPlan plan;
+    private final EvaluationContext context;
+    private final FeatureSlots slots;
+    private final SubexpressionMemo memo;
+
+    public SharedEvaluation(SharedPlan plan, EvaluationContext context) {
+        this.plan = plan;
+        this.context = context;
+        this.slots = new FeatureSlots(plan.getSlotLayout());
+        this.memo = new SubexpressionMemo(plan.getMemoSize());
+    }
+}
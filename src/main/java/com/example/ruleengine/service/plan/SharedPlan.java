@@ -0,0 +1,72 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.entity.enums.EvaluationMode;
+import lombok.Getter;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Nodes reachable from more than one place get a memo index and are evaluated at most once per request
+public class SharedPlan {
+
+    @Getter
+    private final FeatureSlotLayout slotLayout;
+    @Getter
+    private final EvaluationMode mode;
+    // Policy root each DAG root was built from, to notice a PlanOptimizer reordering
+    private final Map<CompiledPolicy, PlanNode> sourceRoots;
+    private final Map<CompiledPolicy, PlanNode> roots;
+    @Getter
+    private final int memoSize;
+
+    private SharedPlan(FeatureSlotLayout slotLayout, EvaluationMode mode, Map<CompiledPolicy, PlanNode> sourceRoots,
+                       Map<CompiledPolicy, PlanNode> roots, int memoSize) {
+        this.slotLayout = slotLayout;
+        this.mode = mode;
+        this.sourceRoots = sourceRoots;
+        this.roots = roots;
+        this.memoSize = memoSize;
+    }
+
+    public static SharedPlan build(List<CompiledPolicy> policies, FeatureSlotLayout slotLayout, EvaluationMode mode) {
+        PlanInterner interner = new PlanInterner(slotLayout);
+        Map<CompiledPolicy, PlanNode> sourceRoots = new IdentityHashMap<>();
+        Map<CompiledPolicy, PlanNode> roots = new IdentityHashMap<>();
+        for (CompiledPolicy policy : policies) {
+            PlanNode source = policy.getEvaluationRoot(mode);
+            sourceRoots.put(policy, source);
+            roots.put(policy, interner.intern(source));
+        }
+
+        Map<PlanNode, Integer> uses = new IdentityHashMap<>();
+        roots.values().forEach(root -> countUses(root, uses));
+        int memoSize = 0;
+        for (Map.Entry<PlanNode, Integer> entry : uses.entrySet()) {
+            if (entry.getValue() > 1) {
+                entry.getKey().setMemoIndex(memoSize++);
+            }
+        }
+        return new SharedPlan(slotLayout, mode, sourceRoots, roots, memoSize);
+    }
+
+    private static void countUses(PlanNode node, Map<PlanNode, Integer> uses) {
+        if (uses.merge(node, 1, Integer::sum) == 1 && node instanceof CompositePlanNode composite) {
+            composite.getChildren().forEach(child -> countUses(child, uses));
+        }
+    }
+
+    // Null if the policy is not part of this plan
+    public PlanNode getRoot(CompiledPolicy policy) {
+        return roots.get(policy);
+    }
+
+    public boolean isCurrent() {
+        for (Map.Entry<CompiledPolicy, PlanNode> entry : sourceRoots.entrySet()) {
+            if (entry.getKey().getEvaluationRoot(mode) != entry.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
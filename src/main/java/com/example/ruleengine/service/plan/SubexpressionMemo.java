@@ -0,0 +1,37 @@
+package com.example.ruleengine.service.plan;
+
+// Not thread-safe; one memo serves the policies a request evaluates one after another
+public class SubexpressionMemo {
+
+    private final long[] evaluated;
+    private final long[] results;
+    private final EvaluationTrace.Segment[] segments;
+
+    public SubexpressionMemo(int size) {
+        int words = Math.max(1, (size + 63) >>> 6);
+        this.evaluated = new long[words];
+        this.results = new long[words];
+        this.segments = new EvaluationTrace.Segment[size];
+    }
+
+    public boolean isEvaluated(int index) {
+        return (evaluated[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public boolean getResult(int index) {
+        return (results[index >>> 6] & (1L << index)) != 0;
+    }
+
+    // Replayed into later traces so explain stays aligned; null for leaves, whose trace is their result
+    public EvaluationTrace.Segment getSegment(int index) {
+        return segments[index];
+    }
+
+    public void put(int index, boolean result, EvaluationTrace.Segment segment) {
+        evaluated[index >>> 6] |= 1L << index;
+        if (result) {
+            results[index >>> 6] |= 1L << index;
+        }
+        segments[index] = segment;
+    }
+}
@@ -0,0 +1,5 @@
+-- V7: Add evaluation mode to policy sets
+-- EXHAUSTIVE evaluates every child of AND/OR nodes and reports all failure reasons,
+-- SHORT_CIRCUIT stops as soon as the composite result is decided
+
+ALTER TABLE policy_sets ADD COLUMN evaluation_mode VARCHAR(20) NOT NULL DEFAULT 'EXHAUSTIVE';
@@ -0,0 +1,7 @@
+-- V8: Add offer selection settings to policy sets
+-- ALL_OFFERS evaluates every enabled offer policy before picking the highest-priority approval,
+-- FIRST_APPROVED evaluates in priority order and stops at the first approved offer.
+-- speculative_offer_count is how many lower priorities FIRST_APPROVED evaluates ahead in parallel.
+
+ALTER TABLE policy_sets ADD COLUMN offer_selection_mode VARCHAR(20) NOT NULL DEFAULT 'ALL_OFFERS';
+ALTER TABLE policy_sets ADD COLUMN speculative_offer_count INTEGER NOT NULL DEFAULT 0;
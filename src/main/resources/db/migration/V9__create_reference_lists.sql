@@ -0,0 +1,22 @@
+-- V9: Reference lists for IN / NOT_IN / CONTAINS_ANY rules with too many entries for an inline operand.
+-- A rule points at a list with the operand {"referenceListId": "<id>"}.
+-- Each upload stores a new immutable version of the encoded list; reference_lists.version names the live one.
+
+CREATE TABLE reference_lists (
+    id UUID PRIMARY KEY,
+    name VARCHAR(255) UNIQUE NOT NULL,
+    description TEXT,
+    value_type VARCHAR(20) NOT NULL,
+    entry_count BIGINT NOT NULL DEFAULT 0,
+    version INT DEFAULT 1,
+    created_at TIMESTAMP DEFAULT NOW(),
+    updated_at TIMESTAMP DEFAULT NOW()
+);
+
+CREATE TABLE reference_list_contents (
+    reference_list_id UUID NOT NULL REFERENCES reference_lists(id) ON DELETE CASCADE,
+    version INT NOT NULL,
+    data BYTEA NOT NULL,
+    created_at TIMESTAMP DEFAULT NOW(),
+    PRIMARY KEY (reference_list_id, version)
+);
@@ -0,0 +1,103 @@
+package com.example.ruleengine.event;
+
+import com.example.ruleengine.service.plan.PlanCacheInvalidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EntityChangeListenerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private PlanCacheInvalidator planCacheInvalidator;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private EntityChangeNotifier notifier;
+    private EntityChangeListener listener;
+
+    @BeforeEach
+    void setUp() {
+        notifier = new EntityChangeNotifier(jdbcTemplate, objectMapper, "rule_engine_entity_changes");
+        listener = new EntityChangeListener(dataSource, notifier, planCacheInvalidator, objectMapper, true);
+    }
+
+    private String payload(String origin, EntityChangedEvent.EntityType entityType, UUID id, Integer version)
+            throws Exception {
+        return objectMapper.writeValueAsString(new EntityChangeNotification(origin, entityType, id, version));
+    }
+
+    @Test
+    @DisplayName("Should publish changes on the channel tagged with this node's id")
+    @SuppressWarnings("unchecked")
+    void testPublishesWithNodeId() throws Exception {
+        UUID ruleId = UUID.randomUUID();
+
+        notifier.onEntityChanged(new EntityChangedEvent(EntityChangedEvent.EntityType.RULE, ruleId, 3));
+
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate).query(eq("SELECT pg_notify(?, ?)"), any(ResultSetExtractor.class),
+                eq("rule_engine_entity_changes"), payload.capture());
+        EntityChangeNotification notification = objectMapper.readValue((String) payload.getValue(),
+                EntityChangeNotification.class);
+        assertEquals(notifier.getNodeId(), notification.getOrigin());
+        assertEquals(new EntityChangedEvent(EntityChangedEvent.EntityType.RULE, ruleId, 3), notification.toEvent());
+    }
+
+    @Test
+    @DisplayName("Should reject channel names that are not plain identifiers")
+    void testRejectsInvalidChannel() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new EntityChangeNotifier(jdbcTemplate, objectMapper, "changes; DROP TABLE rules"));
+    }
+
+    @Test
+    @DisplayName("Should ignore notifications published by this node")
+    void testIgnoresOwnNotifications() throws Exception {
+        listener.handleNotification(payload(notifier.getNodeId(), EntityChangedEvent.EntityType.RULE,
+                UUID.randomUUID(), 2));
+
+        verifyNoInteractions(planCacheInvalidator);
+    }
+
+    @Test
+    @DisplayName("Should invalidate for notifications published by another node")
+    void testInvalidatesForOtherNodes() throws Exception {
+        UUID policyId = UUID.randomUUID();
+
+        listener.handleNotification(payload(UUID.randomUUID().toString(), EntityChangedEvent.EntityType.POLICY,
+                policyId, 4));
+
+        verify(planCacheInvalidator).invalidate(
+                new EntityChangedEvent(EntityChangedEvent.EntityType.POLICY, policyId, 4));
+    }
+
+    @Test
+    @DisplayName("Should invalidate everything when a notification cannot be read")
+    void testUnreadableNotificationInvalidatesAll() {
+        listener.handleNotification("not json");
+
+        verify(planCacheInvalidator).invalidateAll();
+        verify(planCacheInvalidator, never()).invalidate(any());
+    }
+}
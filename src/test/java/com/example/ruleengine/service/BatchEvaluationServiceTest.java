@@ -0,0 +1,181 @@
+package com.example.ruleengine.service;
+
+import com.example.ruleengine.dto.response.BatchEvaluationResponse;
+import com.example.ruleengine.dto.response.DecisionResponse;
+import com.example.ruleengine.dto.response.UnifiedEvaluationResultResponse;
+import com.example.ruleengine.exception.ValidationException;
+import com.example.ruleengine.repository.PolicySetExecutionLogRepository;
+import com.example.ruleengine.service.plan.CompiledPolicySet;
+import com.example.ruleengine.service.plan.CompiledPolicySetCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchEvaluationServiceTest {
+
+    @Mock
+    private CompiledPolicySetCache compiledPolicySetCache;
+
+    @Mock
+    private UnifiedEvaluationService unifiedEvaluationService;
+
+    @Mock
+    private PolicySetExecutionLogRepository executionLogRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private ExecutorService executor;
+    private BatchEvaluationService batchEvaluationService;
+
+    private UUID policySetId;
+    private CompiledPolicySet policySet;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        batchEvaluationService = new BatchEvaluationService(compiledPolicySetCache, unifiedEvaluationService,
+                executionLogRepository, objectMapper, executor, 3, 2, 2);
+        policySetId = UUID.randomUUID();
+        policySet = CompiledPolicySet.builder().policySetId(policySetId).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    private void stubEvaluation() {
+        when(unifiedEvaluationService.evaluate(eq(policySet), anyMap(), isNull())).thenAnswer(invocation -> {
+            Map<String, Object> input = invocation.getArgument(1);
+            if (input.containsKey("bad")) {
+                throw new ValidationException("Missing required input for feature(s): age");
+            }
+            UnifiedEvaluationResultResponse result = new UnifiedEvaluationResultResponse();
+            result.setDecision(new DecisionResponse(String.valueOf(input.get("status")), null));
+            return result;
+        });
+    }
+
+    private InputStream body(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private BatchEvaluationResponse read(StreamingResponseBody body) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        body.writeTo(output);
+        return objectMapper.readValue(output.toByteArray(), BatchEvaluationResponse.class);
+    }
+
+    @Test
+    @DisplayName("Should return results in input order and isolate failing items")
+    void testEvaluateBatchKeepsOrder() throws Exception {
+        when(compiledPolicySetCache.getCompiledPolicySet(policySetId)).thenReturn(policySet);
+        stubEvaluation();
+
+        BatchEvaluationResponse response = read(batchEvaluationService.evaluateBatch(policySetId,
+                body("[{\"status\":\"APPROVED\"}, {\"bad\":true}, [1,2]]"), null));
+
+        assertEquals(3, response.getTotal());
+        assertEquals(1, response.getSucceeded());
+        assertEquals(2, response.getFailed());
+        assertEquals("APPROVED", response.getResults().get(0).getResult().getDecision().getStatus());
+        assertEquals("VALIDATION_ERROR", response.getResults().get(1).getError().getCode());
+        assertEquals("Batch item must be a JSON object", response.getResults().get(2).getError().getMessage());
+        assertEquals(List.of(0, 1, 2), response.getResults().stream()
+                .map(BatchEvaluationResponse.ItemResult::getIndex).toList());
+        verify(compiledPolicySetCache, times(1)).getCompiledPolicySet(policySetId);
+    }
+
+    @Test
+    @DisplayName("Should report malformed NDJSON lines without failing the batch")
+    void testEvaluateNdjsonBatch() throws Exception {
+        when(compiledPolicySetCache.getCompiledPolicySet(policySetId)).thenReturn(policySet);
+        stubEvaluation();
+        String ndjson = "{\"status\":\"APPROVED\"}\n{not json\n\n{\"status\":\"REJECTED\"}\n";
+
+        BatchEvaluationResponse response = read(batchEvaluationService.evaluateNdjsonBatch(policySetId,
+                body(ndjson), null));
+
+        assertEquals(3, response.getTotal());
+        assertEquals("APPROVED", response.getResults().get(0).getResult().getDecision().getStatus());
+        assertTrue(response.getResults().get(1).getError().getMessage().startsWith("Malformed JSON"));
+        assertEquals("REJECTED", response.getResults().get(2).getResult().getDecision().getStatus());
+        assertEquals(2, response.getResults().get(2).getIndex());
+    }
+
+    @Test
+    @DisplayName("Should reject batches above the configured maximum and bodies that are not an array")
+    void testBatchTooLarge() {
+        assertThrows(ValidationException.class,
+                () -> batchEvaluationService.evaluateBatch(policySetId, body("[{}, {}, {}, {}]"), null));
+        assertThrows(ValidationException.class,
+                () -> batchEvaluationService.evaluateBatch(policySetId, body("{\"status\":\"A\"}"), null));
+        verifyNoInteractions(compiledPolicySetCache);
+    }
+
+    private List<BatchEvaluationResponse.ItemResult> stream(String body) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        batchEvaluationService.evaluateStream(policySet,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), output, null);
+
+        List<BatchEvaluationResponse.ItemResult> results = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            results.add(objectMapper.readValue(line, BatchEvaluationResponse.ItemResult.class));
+        }
+        results.sort(Comparator.comparing(BatchEvaluationResponse.ItemResult::getIndex));
+        return results;
+    }
+
+    @Test
+    @DisplayName("Should stream one NDJSON line per record with a bounded number in flight")
+    void testEvaluateStream() throws Exception {
+        stubEvaluation();
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            body.append(i == 4 ? "{\"bad\":true}" : "{\"status\":\"S" + i + "\"}").append('\n');
+        }
+
+        List<BatchEvaluationResponse.ItemResult> results = stream(body.toString());
+
+        assertEquals(10, results.size());
+        assertEquals("S9", results.get(9).getResult().getDecision().getStatus());
+        assertEquals("VALIDATION_ERROR", results.get(4).getError().getCode());
+    }
+
+    @Test
+    @DisplayName("Should accept a top-level JSON array and stop at malformed input")
+    void testEvaluateStreamArrayAndMalformedInput() throws Exception {
+        stubEvaluation();
+
+        List<BatchEvaluationResponse.ItemResult> arrayResults = stream("[{\"status\":\"A\"}, 5, {\"status\":\"B\"}]");
+        List<BatchEvaluationResponse.ItemResult> malformedResults = stream("{\"status\":\"A\"}\n{oops\n{\"status\":\"B\"}");
+
+        assertEquals(3, arrayResults.size());
+        assertEquals("B", arrayResults.get(2).getResult().getDecision().getStatus());
+        assertEquals("Batch item must be a JSON object", arrayResults.get(1).getError().getMessage());
+        assertEquals(2, malformedResults.size());
+        assertTrue(malformedResults.get(1).getError().getMessage().startsWith("Malformed JSON"));
+    }
+}
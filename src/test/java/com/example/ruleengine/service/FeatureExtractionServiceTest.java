@@ -3,6 +3,8 @@ package com.example.ruleengine.service;
 import com.example.ruleengine.entity.Feature;
 import com.example.ruleengine.entity.enums.FeatureType;
 import com.example.ruleengine.exception.ValidationException;
+import com.example.ruleengine.service.plan.CompiledFeature;
+import com.example.ruleengine.service.plan.EvaluationContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -221,6 +223,28 @@ class FeatureExtractionServiceTest {
             assertEquals("Jane", result.get("name"));
             assertEquals(85, ((Number) result.get("score")).intValue());
         }
+
+        @Test
+        @DisplayName("Should extract each feature once per evaluation context")
+        void testSharedEvaluationContext() {
+            Feature ageFeature = createFeature("age", FeatureType.NUMERIC, "DIRECT", "age");
+            Feature scoreFeature = createFeature("score", FeatureType.NUMERIC, "DIRECT", "score");
+
+            Map<String, Object> inputData = new HashMap<>();
+            inputData.put("age", 30);
+            inputData.put("score", 85);
+            EvaluationContext context = new EvaluationContext(inputData);
+
+            CompiledFeature age = CompiledFeature.compile(ageFeature);
+            CompiledFeature score = CompiledFeature.compile(scoreFeature);
+
+            featureExtractionService.extractFeatures(List.of(age), context);
+            inputData.put("age", 99);
+            Map<String, Object> result = featureExtractionService.extractFeatures(List.of(age, score), context);
+
+            assertEquals(30, ((Number) result.get("age")).intValue());
+            assertEquals(Map.of("age", 30, "score", 85), context.getExtractedFeatures());
+        }
     }
 
     @Nested
@@ -246,5 +270,13 @@ class FeatureExtractionServiceTest {
             assertThrows(ValidationException.class, () -> 
                     featureExtractionService.extractFeatureValue(feature, inputData));
         }
+
+        @Test
+        @DisplayName("Should reject an invalid JSON path when the feature is compiled")
+        void testInvalidJsonPathRejectedAtCompile() {
+            Feature feature = createFeature("broken", FeatureType.STRING, "JSON_PATH", "$.user.");
+
+            assertThrows(ValidationException.class, () -> CompiledFeature.compile(feature));
+        }
     }
 }
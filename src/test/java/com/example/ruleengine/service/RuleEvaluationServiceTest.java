@@ -5,20 +5,28 @@ import com.example.ruleengine.entity.Operator;
 import com.example.ruleengine.entity.Rule;
 import com.example.ruleengine.entity.enums.FeatureType;
 import com.example.ruleengine.entity.enums.OperandType;
+import com.example.ruleengine.exception.ValidationException;
 import com.example.ruleengine.service.operator.OperatorStrategy;
 import com.example.ruleengine.service.operator.OperatorStrategyFactory;
+import com.example.ruleengine.service.plan.CompiledFeature;
+import com.example.ruleengine.service.plan.FeatureSlotLayout;
+import com.example.ruleengine.service.plan.FeatureSlots;
+import com.example.ruleengine.service.plan.LeafPlanNode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Predicate;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class RuleEvaluationServiceTest {
 
     private RuleEvaluationService ruleEvaluationService;
+    private OperatorStrategyFactory factory;
 
     @BeforeEach
     void setUp() {
@@ -44,12 +52,16 @@ class RuleEvaluationServiceTest {
                 new com.example.ruleengine.service.operator.impl.SizeGreaterThanOperator(),
                 new com.example.ruleengine.service.operator.impl.SizeLessThanOperator()
         );
-        OperatorStrategyFactory factory = new OperatorStrategyFactory(strategies);
+        factory = new OperatorStrategyFactory(strategies);
         factory.init();
         ruleEvaluationService = new RuleEvaluationService(factory);
     }
 
     private Rule createRule(String operatorCode, OperandType operandType, Object operand) {
+        return createRule(operatorCode, operandType, operand, FeatureType.NUMERIC);
+    }
+
+    private Rule createRule(String operatorCode, OperandType operandType, Object operand, FeatureType featureType) {
         Operator operator = Operator.builder()
                 .id(UUID.randomUUID())
                 .code(operatorCode)
@@ -60,7 +72,7 @@ class RuleEvaluationServiceTest {
         Feature feature = Feature.builder()
                 .id(UUID.randomUUID())
                 .name("test_feature")
-                .featureType(FeatureType.NUMERIC)
+                .featureType(featureType)
                 .build();
 
         return Rule.builder()
@@ -271,6 +283,25 @@ class RuleEvaluationServiceTest {
             Rule rule = createRule("REGEX", OperandType.SINGLE, "^[a-z]+@[a-z]+\\.[a-z]+$");
             assertFalse(ruleEvaluationService.evaluateRule(rule, "invalid-email"));
         }
+
+        @Test
+        @DisplayName("REGEX - should compile the pattern once when the plan is built")
+        void testRegexPreparedOnce() {
+            Rule rule = createRule("REGEX", OperandType.SINGLE, "^[A-Z]{5}[0-9]{4}[A-Z]$");
+            LeafPlanNode leaf = new LeafPlanNode(rule.getId(), rule, rule.getFeature(), "REGEX",
+                    factory.getStrategy("REGEX"), rule.getOperand(), 0);
+
+            assertInstanceOf(java.util.regex.Pattern.class, leaf.getPreparedOperand());
+            assertTrue(ruleEvaluationService.evaluateLeaf(leaf, "ABCDE1234F"));
+            assertFalse(ruleEvaluationService.evaluateLeaf(leaf, "abcde1234f"));
+        }
+
+        @Test
+        @DisplayName("REGEX - should reject an invalid pattern before evaluation")
+        void testRegexInvalidPattern() {
+            assertThrows(com.example.ruleengine.exception.ValidationException.class,
+                    () -> factory.getStrategy("REGEX").prepareOperand("[A-Z"));
+        }
     }
 
     @Nested
@@ -304,6 +335,159 @@ class RuleEvaluationServiceTest {
             Rule rule = createRule("CONTAINS_ANY", OperandType.LIST, Arrays.asList("x", "y", "z"));
             assertFalse(ruleEvaluationService.evaluateRule(rule, Arrays.asList("a", "b", "c")));
         }
+
+        @Test
+        @DisplayName("CONTAINS_ALL - should match numbers by value and ignore duplicates")
+        void testContainsAllNumericNormalization() {
+            Rule rule = createRule("CONTAINS_ALL", OperandType.LIST, Arrays.asList(5, 5.0, 7L, 0));
+            assertTrue(ruleEvaluationService.evaluateRule(rule, Arrays.asList(7.0, 5L, -0.0)));
+            assertFalse(ruleEvaluationService.evaluateRule(rule, Arrays.asList(7.0, 5L)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Typed Operands")
+    class TypedOperands {
+
+        private LeafPlanNode compiledLeaf(Rule rule) {
+            return new LeafPlanNode(rule.getId(), rule, rule.getFeature(), rule.getOperator().getCode(),
+                    factory.getStrategy(rule.getOperator().getCode()), rule.getOperand(), 0);
+        }
+
+        @Test
+        @DisplayName("Should compare DATE features against parsed date operands")
+        void testDateOperands() {
+            LeafPlanNode after = compiledLeaf(createRule("GT", OperandType.SINGLE, "2024-01-31", FeatureType.DATE));
+            LeafPlanNode between = compiledLeaf(createRule("BETWEEN", OperandType.RANGE,
+                    Map.of("min", "2024-01-01", "max", "2024-12-31"), FeatureType.DATE));
+            LeafPlanNode in = compiledLeaf(createRule("IN", OperandType.LIST,
+                    List.of("2024-02-29", "2024-03-01"), FeatureType.DATE));
+
+            assertEquals(LocalDate.of(2024, 1, 31), after.getPreparedOperand());
+            assertTrue(ruleEvaluationService.evaluateLeaf(after, LocalDate.of(2024, 2, 1)));
+            assertFalse(ruleEvaluationService.evaluateLeaf(after, LocalDate.of(2024, 1, 31)));
+            assertTrue(ruleEvaluationService.evaluateLeaf(between, LocalDate.of(2024, 6, 15)));
+            assertFalse(ruleEvaluationService.evaluateLeaf(between, LocalDate.of(2025, 1, 1)));
+            assertTrue(ruleEvaluationService.evaluateLeaf(in, LocalDate.of(2024, 2, 29)));
+        }
+
+        @Test
+        @DisplayName("Should parse numeric string bounds once and keep the primitive fast path")
+        void testNumericRangeFromStrings() {
+            LeafPlanNode leaf = compiledLeaf(createRule("BETWEEN", OperandType.RANGE,
+                    Map.of("min", "18", "max", 65)));
+
+            assertNotNull(leaf.getNumericPredicate());
+            assertTrue(leaf.getNumericPredicate().test(18.0));
+            assertFalse(leaf.getNumericPredicate().test(65.5));
+            assertTrue(ruleEvaluationService.evaluateLeaf(leaf, 40L));
+        }
+
+        @Test
+        @DisplayName("Should reject operands that do not match the feature type when compiled")
+        void testRejectsMismatchedOperands() {
+            assertThrows(ValidationException.class,
+                    () -> compiledLeaf(createRule("GT", OperandType.SINGLE, "yesterday", FeatureType.DATE)));
+            assertThrows(ValidationException.class,
+                    () -> compiledLeaf(createRule("BETWEEN", OperandType.RANGE, Map.of("min", 1, "max", "many"))));
+            assertThrows(ValidationException.class,
+                    () -> compiledLeaf(createRule("IN", OperandType.LIST, List.of(1, "two"))));
+        }
+    }
+
+    @Nested
+    @DisplayName("Bound Predicates")
+    class BoundPredicates {
+
+        private void assertBindingMatchesEvaluate(String code, Object operand, FeatureType featureType,
+                                                  List<Object> values) {
+            OperatorStrategy strategy = factory.getStrategy(code);
+            Object prepared = strategy.prepareOperand(operand, featureType);
+            Predicate<Object> predicate = strategy.bind(prepared);
+            for (Object value : values) {
+                assertEquals(strategy.evaluate(value, prepared), predicate.test(value), code + " " + value);
+            }
+        }
+
+        @Test
+        @DisplayName("Should agree with evaluate for numeric, string and set operands")
+        void testBindingMatchesEvaluate() {
+            List<Object> numbers = List.of(17, 18, 18.0, 18.5, 25L, -1);
+            for (String code : List.of("EQ", "NEQ", "LT", "LTE", "GT", "GTE")) {
+                assertBindingMatchesEvaluate(code, 18, FeatureType.NUMERIC, numbers);
+            }
+            assertBindingMatchesEvaluate("BETWEEN", Map.of("min", 18, "max", 25), FeatureType.NUMERIC, numbers);
+            assertBindingMatchesEvaluate("IN", List.of(18, 25), FeatureType.NUMERIC, numbers);
+            assertBindingMatchesEvaluate("NOT_IN", List.of(18, 25), FeatureType.NUMERIC, numbers);
+
+            List<Object> strings = List.of("SALARIED", "SELF_EMPLOYED", "salaried", "");
+            assertBindingMatchesEvaluate("EQ", "SALARIED", FeatureType.STRING, strings);
+            assertBindingMatchesEvaluate("NEQ", "SALARIED", FeatureType.STRING, strings);
+            assertBindingMatchesEvaluate("STARTS_WITH", "SAL", FeatureType.STRING, strings);
+            assertBindingMatchesEvaluate("ENDS_WITH", "ED", FeatureType.STRING, strings);
+            assertBindingMatchesEvaluate("REGEX", "^S[A-Z_]+$", FeatureType.STRING, strings);
+        }
+
+        @Test
+        @DisplayName("Should let compiled leaves skip the operator for missing values")
+        void testLeafUsesBoundPredicate() {
+            Rule rule = createRule("GT", OperandType.SINGLE, 25000);
+            LeafPlanNode leaf = new LeafPlanNode(rule.getId(), rule, rule.getFeature(), "GT",
+                    factory.getStrategy("GT"), rule.getOperand(), 0);
+
+            assertTrue(ruleEvaluationService.evaluateLeaf(leaf, 30000L));
+            assertFalse(ruleEvaluationService.evaluateLeaf(leaf, 25000.0));
+            assertFalse(ruleEvaluationService.evaluateLeaf(leaf, (Object) null));
+        }
+
+        @Test
+        @DisplayName("Should keep the operator's type errors")
+        void testBoundPredicateKeepsTypeErrors() {
+            OperatorStrategy regex = factory.getStrategy("REGEX");
+            Predicate<Object> predicate = regex.bind(regex.prepareOperand("\\d+"));
+
+            assertThrows(ValidationException.class, () -> predicate.test(42));
+        }
+    }
+
+    @Nested
+    @DisplayName("Set Operands")
+    class SetOperands {
+
+        private LeafPlanNode compiledLeaf(Rule rule) {
+            return new LeafPlanNode(rule.getId(), rule, rule.getFeature(), rule.getOperator().getCode(),
+                    factory.getStrategy(rule.getOperator().getCode()), rule.getOperand(), 0);
+        }
+
+        @Test
+        @DisplayName("IN - should match integral and decimal forms of the same number")
+        void testInNumericNormalization() {
+            LeafPlanNode leaf = compiledLeaf(createRule("IN", OperandType.LIST, Arrays.asList(5, 110001L, "7.0")));
+
+            assertTrue(ruleEvaluationService.evaluateLeaf(leaf, 5.0));
+            assertTrue(ruleEvaluationService.evaluateLeaf(leaf, 110001));
+            assertTrue(ruleEvaluationService.evaluateLeaf(leaf, 7L));
+            assertFalse(ruleEvaluationService.evaluateLeaf(leaf, "5"));
+            assertTrue(leaf.getNumericPredicate().test(110001.0));
+            assertFalse(leaf.getNumericPredicate().test(110002.0));
+        }
+
+        @Test
+        @DisplayName("IN / NOT_IN - should agree with a linear scan over a large list")
+        void testLargeListMatchesLinearScan() {
+            List<Object> pincodes = new ArrayList<>();
+            for (int i = 0; i < 50_000; i++) {
+                pincodes.add(100000 + i * 7);
+            }
+            LeafPlanNode in = compiledLeaf(createRule("IN", OperandType.LIST, pincodes));
+            LeafPlanNode notIn = compiledLeaf(createRule("NOT_IN", OperandType.LIST, pincodes));
+
+            for (int value = 99990; value < 100200; value++) {
+                boolean expected = value >= 100000 && (value - 100000) % 7 == 0;
+                assertEquals(expected, ruleEvaluationService.evaluateLeaf(in, value), "IN " + value);
+                assertEquals(!expected, ruleEvaluationService.evaluateLeaf(notIn, (double) value), "NOT_IN " + value);
+            }
+        }
     }
 
     @Nested
@@ -365,4 +549,57 @@ class RuleEvaluationServiceTest {
             assertTrue(ruleEvaluationService.evaluateRule(rule, Arrays.asList(1, 2, 3)));
         }
     }
+
+    @Nested
+    @DisplayName("Feature Slot Fast Paths")
+    class FeatureSlotFastPaths {
+
+        private boolean evaluateFromSlot(Rule rule, Object featureValue) {
+            Feature feature = rule.getFeature();
+            LeafPlanNode leaf = new LeafPlanNode(rule.getId(), rule, feature, rule.getOperator().getCode(),
+                    factory.getStrategy(rule.getOperator().getCode()), rule.getOperand(), 0);
+            FeatureSlots slots = new FeatureSlots(FeatureSlotLayout.of(List.of(
+                    new CompiledFeature(feature, "DIRECT", null, feature.getName(), List.of(feature.getName())))));
+            slots.set(0, featureValue);
+            return ruleEvaluationService.evaluateLeaf(leaf, slots);
+        }
+
+        @Test
+        @DisplayName("Should match boxed evaluation for numeric comparisons")
+        void testNumericMatchesBoxedEvaluation() {
+            List<Object> values = List.of(17, 18, 18.0, 18.5, 25L, -1);
+            for (String code : List.of("EQ", "NEQ", "LT", "LTE", "GT", "GTE")) {
+                Rule rule = createRule(code, OperandType.SINGLE, 18);
+                for (Object value : values) {
+                    assertEquals(ruleEvaluationService.evaluateRule(rule, value), evaluateFromSlot(rule, value),
+                            code + " " + value);
+                }
+            }
+            Rule between = createRule("BETWEEN", OperandType.RANGE, Map.of("min", 18, "max", 25.0));
+            for (Object value : values) {
+                assertEquals(ruleEvaluationService.evaluateRule(between, value), evaluateFromSlot(between, value),
+                        "BETWEEN " + value);
+            }
+        }
+
+        @Test
+        @DisplayName("Should match boxed evaluation for boolean features")
+        void testBooleanMatchesBoxedEvaluation() {
+            for (String code : List.of("EQ", "NEQ")) {
+                Rule rule = createRule(code, OperandType.SINGLE, true, FeatureType.BOOLEAN);
+                for (Boolean value : List.of(true, false)) {
+                    assertEquals(ruleEvaluationService.evaluateRule(rule, value), evaluateFromSlot(rule, value));
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Should fall back to the operator for non-numeric values and missing features")
+        void testFallsBackForOtherValues() {
+            Rule rule = createRule("EQ", OperandType.SINGLE, "SALARIED", FeatureType.STRING);
+
+            assertTrue(evaluateFromSlot(rule, "SALARIED"));
+            assertFalse(evaluateFromSlot(rule, null));
+        }
+    }
 }
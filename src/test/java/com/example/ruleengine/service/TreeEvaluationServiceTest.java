@@ -0,0 +1,225 @@
+package com.example.ruleengine.service;
+
+import com.example.ruleengine.dto.response.TreeEvaluationResultResponse;
+import com.example.ruleengine.entity.Feature;
+import com.example.ruleengine.entity.Rule;
+import com.example.ruleengine.entity.enums.EvaluationMode;
+import com.example.ruleengine.entity.enums.FeatureType;
+import com.example.ruleengine.entity.enums.LogicalOperator;
+import com.example.ruleengine.service.operator.OperatorStrategy;
+import com.example.ruleengine.service.operator.OperatorStrategyFactory;
+import com.example.ruleengine.service.operator.impl.GreaterThanOperator;
+import com.example.ruleengine.service.operator.impl.GreaterThanOrEqualOperator;
+import com.example.ruleengine.service.plan.CompiledFeature;
+import com.example.ruleengine.service.plan.CompositePlanNode;
+import com.example.ruleengine.service.plan.EvaluationTrace;
+import com.example.ruleengine.service.plan.FeatureSlotLayout;
+import com.example.ruleengine.service.plan.FeatureSlots;
+import com.example.ruleengine.service.plan.LeafPlanNode;
+import com.example.ruleengine.service.plan.PlanNode;
+import com.example.ruleengine.service.plan.RuleStatisticsRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TreeEvaluationServiceTest {
+
+    private TreeEvaluationService treeEvaluationService;
+    private FeatureSlots extractedFeatures;
+    private final List<CompiledFeature> features = new ArrayList<>();
+
+    private LeafPlanNode ageCheck;
+    private LeafPlanNode incomeCheck;
+    private LeafPlanNode scoreCheck;
+
+    @BeforeEach
+    void setUp() {
+        OperatorStrategyFactory factory = new OperatorStrategyFactory(
+                Arrays.asList(new GreaterThanOperator(), new GreaterThanOrEqualOperator()));
+        factory.init();
+        treeEvaluationService = new TreeEvaluationService(new RuleEvaluationService(factory), new RuleStatisticsRegistry(1));
+
+        ageCheck = leaf("age_check", "age", factory.getStrategy("GTE"), 21);
+        incomeCheck = leaf("income_check", "income", factory.getStrategy("GTE"), 25000);
+        scoreCheck = leaf("score_check", "score", factory.getStrategy("GT"), 700);
+
+        extractedFeatures = new FeatureSlots(FeatureSlotLayout.of(features));
+        extractedFeatures.set(ageCheck.getSlot(), 19);
+        extractedFeatures.set(incomeCheck.getSlot(), 20000);
+        extractedFeatures.set(scoreCheck.getSlot(), 750);
+    }
+
+    private LeafPlanNode leaf(String ruleName, String featureName, OperatorStrategy strategy, Object operand) {
+        Feature feature = Feature.builder()
+                .id(UUID.randomUUID())
+                .name(featureName)
+                .featureType(FeatureType.NUMERIC)
+                .build();
+        Rule rule = Rule.builder()
+                .id(UUID.randomUUID())
+                .name(ruleName)
+                .feature(feature)
+                .operand(operand)
+                .build();
+        features.add(new CompiledFeature(feature, "DIRECT", null, featureName, List.of(featureName)));
+        return new LeafPlanNode(rule.getId(), rule, feature, strategy.getOperatorCode(), strategy, operand,
+                features.size() - 1);
+    }
+
+    private PlanNode composite(LogicalOperator operator, PlanNode... children) {
+        return new CompositePlanNode(operator, List.of(children));
+    }
+
+    @Nested
+    @DisplayName("Exhaustive Mode")
+    class ExhaustiveMode {
+
+        @Test
+        @DisplayName("AND - should evaluate every child and collect every failure")
+        void testAndEvaluatesAllChildren() {
+            TreeEvaluationResultResponse result = treeEvaluationService.evaluateTree(
+                    composite(LogicalOperator.AND, ageCheck, incomeCheck, scoreCheck),
+                    extractedFeatures, EvaluationMode.EXHAUSTIVE);
+
+            assertFalse(result.isResult());
+            assertEquals(3, result.getChildResults().size());
+            assertTrue(result.getFailureReason().contains("age_check"));
+            assertTrue(result.getFailureReason().contains("income_check"));
+        }
+
+        @Test
+        @DisplayName("OR - should evaluate every child even after a match")
+        void testOrEvaluatesAllChildren() {
+            TreeEvaluationResultResponse result = treeEvaluationService.evaluateTree(
+                    composite(LogicalOperator.OR, scoreCheck, ageCheck),
+                    extractedFeatures, EvaluationMode.EXHAUSTIVE);
+
+            assertTrue(result.isResult());
+            assertEquals(2, result.getChildResults().size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Short-Circuit Mode")
+    class ShortCircuitMode {
+
+        @Test
+        @DisplayName("AND - should stop at the first failing child")
+        void testAndStopsAtFirstFailure() {
+            TreeEvaluationResultResponse result = treeEvaluationService.evaluateTree(
+                    composite(LogicalOperator.AND, ageCheck, incomeCheck, scoreCheck),
+                    extractedFeatures, EvaluationMode.SHORT_CIRCUIT);
+
+            assertFalse(result.isResult());
+            assertEquals(1, result.getChildResults().size());
+            assertTrue(result.getFailureReason().contains("age_check"));
+            assertFalse(result.getFailureReason().contains("income_check"));
+        }
+
+        @Test
+        @DisplayName("OR - should stop at the first passing child")
+        void testOrStopsAtFirstPass() {
+            TreeEvaluationResultResponse result = treeEvaluationService.evaluateTree(
+                    composite(LogicalOperator.OR, scoreCheck, ageCheck),
+                    extractedFeatures, EvaluationMode.SHORT_CIRCUIT);
+
+            assertTrue(result.isResult());
+            assertEquals(1, result.getChildResults().size());
+        }
+
+        @Test
+        @DisplayName("Should produce the same result as exhaustive mode for nested trees")
+        void testNestedResultMatchesExhaustive() {
+            PlanNode tree = composite(LogicalOperator.OR,
+                    composite(LogicalOperator.AND, ageCheck, scoreCheck),
+                    composite(LogicalOperator.NOT, incomeCheck));
+
+            boolean exhaustive = treeEvaluationService.evaluateTree(
+                    tree, extractedFeatures, EvaluationMode.EXHAUSTIVE).isResult();
+            boolean shortCircuit = treeEvaluationService.evaluateTree(
+                    tree, extractedFeatures, EvaluationMode.SHORT_CIRCUIT).isResult();
+
+            assertTrue(exhaustive);
+            assertEquals(exhaustive, shortCircuit);
+        }
+    }
+
+    @Nested
+    @DisplayName("Cancellation")
+    class Cancellation {
+
+        @Test
+        @DisplayName("Should stop between children once the evaluating thread is interrupted")
+        void testInterruptStopsEvaluation() {
+            EvaluationTrace trace = new EvaluationTrace(EvaluationMode.EXHAUSTIVE);
+            Thread.currentThread().interrupt();
+            try {
+                assertThrows(CancellationException.class, () -> treeEvaluationService.evaluate(
+                        composite(LogicalOperator.AND, ageCheck, incomeCheck, scoreCheck), extractedFeatures, trace));
+            } finally {
+                Thread.interrupted();
+            }
+
+            assertEquals(0, trace.size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Lazy Explain")
+    class LazyExplain {
+
+        private PlanNode tree;
+
+        @BeforeEach
+        void setUpTree() {
+            tree = composite(LogicalOperator.AND,
+                    composite(LogicalOperator.OR, ageCheck, incomeCheck),
+                    composite(LogicalOperator.NOT, scoreCheck),
+                    incomeCheck);
+        }
+
+        @Test
+        @DisplayName("Should record only the leaves that were evaluated")
+        void testTraceRecordsEvaluatedLeaves() {
+            EvaluationTrace exhaustive = new EvaluationTrace(EvaluationMode.EXHAUSTIVE);
+            EvaluationTrace shortCircuit = new EvaluationTrace(EvaluationMode.SHORT_CIRCUIT);
+
+            assertFalse(treeEvaluationService.evaluate(tree, extractedFeatures, exhaustive));
+            assertFalse(treeEvaluationService.evaluate(tree, extractedFeatures, shortCircuit));
+            assertEquals(4, exhaustive.size());
+            assertEquals(2, shortCircuit.size());
+        }
+
+        @Test
+        @DisplayName("Should rebuild the same result tree and failure reasons from the trace")
+        void testExplainReplaysTrace() {
+            for (EvaluationMode mode : EvaluationMode.values()) {
+                EvaluationTrace trace = new EvaluationTrace(mode);
+                boolean result = treeEvaluationService.evaluate(tree, extractedFeatures, trace);
+
+                TreeEvaluationResultResponse explained = treeEvaluationService.explain(tree, extractedFeatures, trace);
+                List<String> leafFailures = new ArrayList<>();
+                collectLeafFailures(explained, leafFailures);
+
+                assertEquals(result, explained.isResult());
+                assertEquals(leafFailures, treeEvaluationService.collectFailureReasons(tree, extractedFeatures, trace));
+                assertEquals(treeEvaluationService.evaluateTree(tree, extractedFeatures, mode), explained);
+            }
+        }
+
+        private void collectLeafFailures(TreeEvaluationResultResponse node, List<String> reasons) {
+            if ("LEAF".equals(node.getNodeType()) && node.getFailureReason() != null) {
+                reasons.add(node.getFailureReason());
+            }
+            if (node.getChildResults() != null) {
+                node.getChildResults().forEach(child -> collectLeafFailures(child, reasons));
+            }
+        }
+    }
+}
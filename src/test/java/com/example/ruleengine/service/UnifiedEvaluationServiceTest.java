@@ -0,0 +1,295 @@
+package com.example.ruleengine.service;
+
+import com.example.ruleengine.dto.response.DecisionResponse;
+import com.example.ruleengine.dto.response.OfferResponse;
+import com.example.ruleengine.dto.response.PolicyEvaluationResultResponse;
+import com.example.ruleengine.dto.response.UnifiedEvaluationResultResponse;
+import com.example.ruleengine.entity.enums.EvaluationMode;
+import com.example.ruleengine.entity.enums.EvaluationStrategy;
+import com.example.ruleengine.entity.enums.OfferSelectionMode;
+import com.example.ruleengine.exception.EvaluationTimeoutException;
+import com.example.ruleengine.exception.ValidationException;
+import com.example.ruleengine.repository.PolicySetExecutionLogRepository;
+import com.example.ruleengine.service.plan.CompiledOfferPolicy;
+import com.example.ruleengine.service.plan.CompiledPolicy;
+import com.example.ruleengine.service.plan.CompiledPolicySet;
+import com.example.ruleengine.service.plan.CompiledPolicySetCache;
+import com.example.ruleengine.service.plan.EvaluationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UnifiedEvaluationServiceTest {
+
+    @Mock
+    private CompiledPolicySetCache compiledPolicySetCache;
+
+    @Mock
+    private PolicyEvaluationService policyEvaluationService;
+
+    @Mock
+    private PolicySetExecutionLogRepository executionLogRepository;
+
+    private ExecutorService executor;
+    private UnifiedEvaluationService unifiedEvaluationService;
+
+    private final Map<String, Object> inputData = Map.of("age", 30);
+    private CompiledPolicy booleanPolicy;
+    private CompiledPolicy premiumOffer;
+    private CompiledPolicy standardOffer;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        unifiedEvaluationService = new UnifiedEvaluationService(compiledPolicySetCache, policyEvaluationService,
+                executionLogRepository, new ObjectMapper().findAndRegisterModules(), executor, 200, true, true, true);
+
+        booleanPolicy = CompiledPolicy.builder().policyId(UUID.randomUUID()).name("eligibility").build();
+        premiumOffer = CompiledPolicy.builder().policyId(UUID.randomUUID()).name("premium").build();
+        standardOffer = CompiledPolicy.builder().policyId(UUID.randomUUID()).name("standard").build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private CompiledPolicySet parallelSet() {
+        return parallelSet(OfferSelectionMode.ALL_OFFERS);
+    }
+
+    private CompiledPolicySet parallelSet(OfferSelectionMode offerSelectionMode) {
+        return CompiledPolicySet.builder()
+                .policySetId(UUID.randomUUID())
+                .name("loan")
+                .evaluationStrategy(EvaluationStrategy.PARALLEL)
+                .evaluationMode(EvaluationMode.EXHAUSTIVE)
+                .offerSelectionMode(offerSelectionMode)
+                .booleanPolicy(booleanPolicy)
+                .features(List.of())
+                .offerPolicies(List.of(
+                        new CompiledOfferPolicy(10, true, premiumOffer),
+                        new CompiledOfferPolicy(5, true, standardOffer)))
+                .build();
+    }
+
+    private CompiledPolicySet firstApprovedSet(int speculativeOfferCount) {
+        return CompiledPolicySet.builder()
+                .policySetId(UUID.randomUUID())
+                .name("offers")
+                .evaluationStrategy(EvaluationStrategy.BOOLEAN_FIRST)
+                .evaluationMode(EvaluationMode.EXHAUSTIVE)
+                .offerSelectionMode(OfferSelectionMode.FIRST_APPROVED)
+                .speculativeOfferCount(speculativeOfferCount)
+                .features(List.of())
+                .offerPolicies(List.of(
+                        new CompiledOfferPolicy(10, true, premiumOffer),
+                        new CompiledOfferPolicy(5, true, standardOffer)))
+                .build();
+    }
+
+    private PolicyEvaluationResultResponse policyResult(String status, OfferResponse offer) {
+        PolicyEvaluationResultResponse result = new PolicyEvaluationResultResponse();
+        result.setDecision(new DecisionResponse(status, null));
+        result.setOffer(offer);
+        return result;
+    }
+
+    private void stub(CompiledPolicy policy, PolicyEvaluationResultResponse result) {
+        when(policyEvaluationService.evaluatePolicy(eq(policy), any(EvaluationContext.class), any())).thenReturn(result);
+    }
+
+    @Nested
+    @DisplayName("PARALLEL Strategy")
+    class ParallelStrategy {
+
+        @Test
+        @DisplayName("Should pick the highest-priority approved offer when the boolean policy approves")
+        void testApprovedSelectsHighestPriorityOffer() {
+            OfferResponse premium = OfferResponse.builder().loanAmount(50000.0).build();
+            stub(booleanPolicy, policyResult("APPROVED", null));
+            stub(premiumOffer, policyResult("APPROVED", premium));
+            lenient().when(policyEvaluationService.evaluatePolicy(eq(standardOffer), any(EvaluationContext.class), any()))
+                    .thenReturn(policyResult("APPROVED", OfferResponse.builder().loanAmount(10000.0).build()));
+
+            UnifiedEvaluationResultResponse result = unifiedEvaluationService.evaluate(parallelSet(), inputData, null);
+
+            assertEquals("APPROVED", result.getDecision().getStatus());
+            assertSame(premium, result.getOffer());
+            assertEquals("premium", result.getSelectedOfferPolicyName());
+            assertEquals(2, result.getAllOfferResults().size());
+        }
+
+        @Test
+        @DisplayName("Should still report every offer when the boolean policy rejects")
+        void testRejectedReportsAllOffers() {
+            stub(booleanPolicy, policyResult("REJECTED", null));
+            stub(premiumOffer, policyResult("REJECTED", null));
+            stub(standardOffer, policyResult("APPROVED", OfferResponse.builder().loanAmount(10000.0).build()));
+
+            UnifiedEvaluationResultResponse result = unifiedEvaluationService.evaluate(parallelSet(), inputData, null);
+
+            assertEquals("REJECTED", result.getDecision().getStatus());
+            assertEquals(2, result.getAllOfferResults().size());
+            assertEquals("standard", result.getSelectedOfferPolicyName());
+        }
+
+        @Test
+        @DisplayName("Should return the boolean rejection without waiting for offers under FIRST_APPROVED")
+        void testRejectedSkipsOffers() {
+            CountDownLatch neverReleased = new CountDownLatch(1);
+            stub(booleanPolicy, policyResult("REJECTED", null));
+            lenient().when(policyEvaluationService.evaluatePolicy(eq(premiumOffer), any(EvaluationContext.class), any())).thenAnswer(invocation -> {
+                neverReleased.await();
+                return policyResult("APPROVED", null);
+            });
+            lenient().when(policyEvaluationService.evaluatePolicy(eq(standardOffer), any(EvaluationContext.class), any()))
+                    .thenReturn(policyResult("REJECTED", null));
+
+            UnifiedEvaluationResultResponse result = unifiedEvaluationService.evaluate(
+                    parallelSet(OfferSelectionMode.FIRST_APPROVED), inputData, null);
+
+            assertEquals("REJECTED", result.getDecision().getStatus());
+            assertNull(result.getOffer());
+            assertNull(result.getOfferResult());
+        }
+
+        @Test
+        @DisplayName("Should interrupt a running offer once the boolean policy rejects under FIRST_APPROVED")
+        void testRejectedInterruptsRunningOffers() throws InterruptedException {
+            CountDownLatch offerStarted = new CountDownLatch(1);
+            CountDownLatch offerInterrupted = new CountDownLatch(1);
+            CountDownLatch booleanReleased = new CountDownLatch(1);
+            when(policyEvaluationService.evaluatePolicy(eq(booleanPolicy), any(EvaluationContext.class), any())).thenAnswer(invocation -> {
+                booleanReleased.await();
+                return policyResult("REJECTED", null);
+            });
+            when(policyEvaluationService.evaluatePolicy(eq(premiumOffer), any(EvaluationContext.class), any())).thenAnswer(invocation -> {
+                offerStarted.countDown();
+                while (!Thread.currentThread().isInterrupted()) {
+                    Thread.onSpinWait();
+                }
+                offerInterrupted.countDown();
+                return policyResult("APPROVED", null);
+            });
+            lenient().when(policyEvaluationService.evaluatePolicy(eq(standardOffer), any(EvaluationContext.class), any()))
+                    .thenReturn(policyResult("REJECTED", null));
+
+            executor.execute(() -> {
+                try {
+                    offerStarted.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                booleanReleased.countDown();
+            });
+            UnifiedEvaluationResultResponse result = unifiedEvaluationService.evaluate(
+                    parallelSet(OfferSelectionMode.FIRST_APPROVED), inputData, null);
+
+            assertEquals("REJECTED", result.getDecision().getStatus());
+            assertTrue(offerInterrupted.await(1, TimeUnit.SECONDS));
+        }
+
+        @Test
+        @DisplayName("Should fail with a timeout when the deadline passes before the result is decided")
+        void testDeadline() {
+            CountDownLatch neverReleased = new CountDownLatch(1);
+            when(policyEvaluationService.evaluatePolicy(eq(booleanPolicy), any(EvaluationContext.class), any())).thenAnswer(invocation -> {
+                neverReleased.await();
+                return policyResult("APPROVED", null);
+            });
+            lenient().when(policyEvaluationService.evaluatePolicy(eq(premiumOffer), any(EvaluationContext.class), any()))
+                    .thenReturn(policyResult("REJECTED", null));
+            lenient().when(policyEvaluationService.evaluatePolicy(eq(standardOffer), any(EvaluationContext.class), any()))
+                    .thenReturn(policyResult("REJECTED", null));
+
+            assertThrows(EvaluationTimeoutException.class,
+                    () -> unifiedEvaluationService.evaluate(parallelSet(), inputData, null));
+        }
+    }
+
+    @Nested
+    @DisplayName("FIRST_APPROVED Offer Selection")
+    class FirstApprovedSelection {
+
+        @Test
+        @DisplayName("Should stop at the highest-priority approved offer")
+        void testStopsAtFirstApproval() {
+            OfferResponse premium = OfferResponse.builder().loanAmount(50000.0).build();
+            stub(premiumOffer, policyResult("APPROVED", premium));
+
+            UnifiedEvaluationResultResponse result = unifiedEvaluationService.evaluate(firstApprovedSet(0), inputData, null);
+
+            assertSame(premium, result.getOffer());
+            assertEquals(1, result.getAllOfferResults().size());
+            verify(policyEvaluationService, never()).evaluatePolicy(eq(standardOffer), any(EvaluationContext.class), any());
+        }
+
+        @Test
+        @DisplayName("Should keep priority order when speculating on lower priorities")
+        void testSpeculativeKeepsPriorityOrder() {
+            OfferResponse standard = OfferResponse.builder().loanAmount(10000.0).build();
+            stub(premiumOffer, policyResult("REJECTED", null));
+            stub(standardOffer, policyResult("APPROVED", standard));
+
+            UnifiedEvaluationResultResponse result = unifiedEvaluationService.evaluate(firstApprovedSet(1), inputData, null);
+
+            assertSame(standard, result.getOffer());
+            assertEquals("standard", result.getSelectedOfferPolicyName());
+            assertEquals(2, result.getAllOfferResults().size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Request Body")
+    class RequestBody {
+
+        private EvaluationContext read(String body) {
+            return unifiedEvaluationService.readRequest(parallelSet(),
+                    new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        @Test
+        @DisplayName("Should read inputData and skip other fields")
+        void testReadsInputData() {
+            EvaluationContext context = read("{\"trace\": {\"id\": [1, 2]}, \"inputData\": {\"age\": 30}}");
+
+            assertEquals(Map.of("age", 30), context.getInputData());
+        }
+
+        @Test
+        @DisplayName("Should reject a body without inputData")
+        void testMissingInputData() {
+            ValidationException e = assertThrows(ValidationException.class, () -> read("{\"inputData\": null}"));
+
+            assertEquals("Input data is required", e.getMessage());
+        }
+
+        @Test
+        @DisplayName("Should reject malformed JSON")
+        void testMalformedBody() {
+            assertThrows(ValidationException.class, () -> read("{\"inputData\": {\"age\": }"));
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.event.EntityChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.ResultSet;
+import java.util.*;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CompiledPlanVersionPollerTest {
+
+    @Mock
+    private CompiledPolicyCache compiledPolicyCache;
+
+    @Mock
+    private CompiledPolicySetCache compiledPolicySetCache;
+
+    @Mock
+    private PlanCacheInvalidator planCacheInvalidator;
+
+    @Mock
+    private ReferenceListStore referenceListStore;
+
+    @Mock
+    private PolicyNetworkCache policyNetworkCache;
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private CompiledPlanVersionPoller poller;
+
+    // Table name -> id -> version, as the database currently holds them
+    private final Map<String, Map<UUID, Integer>> database = new HashMap<>();
+
+    private final UUID policyId = UUID.randomUUID();
+    private final UUID ruleId = UUID.randomUUID();
+    private final UUID featureId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        lenient().doAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            String table = sql.substring(sql.indexOf("FROM ") + 5, sql.indexOf(" WHERE"));
+            SqlParameterSource params = invocation.getArgument(1);
+            RowCallbackHandler handler = invocation.getArgument(2);
+            Map<UUID, Integer> rows = database.getOrDefault(table, Map.of());
+            for (Object id : (Collection<?>) params.getValue("ids")) {
+                if (rows.containsKey(id)) {
+                    ResultSet rs = mock(ResultSet.class);
+                    when(rs.getObject("id", UUID.class)).thenReturn((UUID) id);
+                    when(rs.getObject("version")).thenReturn(rows.get(id));
+                    handler.processRow(rs);
+                }
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+
+        CompiledPolicy policy = CompiledPolicy.builder()
+                .policyId(policyId)
+                .version(1)
+                .ruleVersions(Map.of(ruleId, 1))
+                .featureVersions(Map.of(featureId, 1))
+                .build();
+        when(compiledPolicyCache.getCachedPolicies()).thenReturn(List.of(policy));
+        when(compiledPolicySetCache.getCachedPolicySets()).thenReturn(List.of());
+        when(referenceListStore.getLoadedVersions()).thenReturn(Map.of());
+    }
+
+    private void current(String table, UUID id, Integer version) {
+        database.computeIfAbsent(table, t -> new HashMap<>()).put(id, version);
+    }
+
+    @Test
+    @DisplayName("Should keep cached plans whose versions match the database")
+    void testKeepsCurrentPlans() {
+        current("policies", policyId, 1);
+        current("rules", ruleId, 1);
+        current("features", featureId, 1);
+
+        poller.pollVersions();
+
+        verifyNoInteractions(planCacheInvalidator);
+    }
+
+    @Test
+    @DisplayName("Should invalidate a rule whose version moved on")
+    void testInvalidatesStaleRule() {
+        current("policies", policyId, 1);
+        current("rules", ruleId, 2);
+        current("features", featureId, 1);
+
+        poller.pollVersions();
+
+        verify(planCacheInvalidator).invalidate(new EntityChangedEvent(EntityChangedEvent.EntityType.RULE, ruleId, 2));
+        verifyNoMoreInteractions(planCacheInvalidator);
+    }
+
+    @Test
+    @DisplayName("Should invalidate a stale policy and a deleted feature")
+    void testInvalidatesStalePolicyAndDeletedFeature() {
+        current("policies", policyId, 3);
+        current("rules", ruleId, 1);
+
+        poller.pollVersions();
+
+        verify(planCacheInvalidator).invalidate(
+                new EntityChangedEvent(EntityChangedEvent.EntityType.POLICY, policyId, 3));
+        verify(planCacheInvalidator).invalidate(
+                new EntityChangedEvent(EntityChangedEvent.EntityType.FEATURE, featureId, null));
+        verifyNoMoreInteractions(planCacheInvalidator);
+    }
+
+    @Test
+    @DisplayName("Should always invalidate a rule cached at two different versions")
+    void testInvalidatesConflictingVersions() {
+        CompiledPolicy other = CompiledPolicy.builder()
+                .policyId(UUID.randomUUID())
+                .version(1)
+                .ruleVersions(Map.of(ruleId, 2))
+                .featureVersions(Map.of())
+                .build();
+        when(compiledPolicyCache.getCachedPolicies()).thenReturn(List.of(
+                CompiledPolicy.builder().policyId(policyId).version(1).ruleVersions(Map.of(ruleId, 1))
+                        .featureVersions(Map.of()).build(), other));
+        current("policies", policyId, 1);
+        current("policies", other.getPolicyId(), 1);
+        current("rules", ruleId, 2);
+
+        poller.pollVersions();
+
+        verify(planCacheInvalidator).invalidate(new EntityChangedEvent(EntityChangedEvent.EntityType.RULE, ruleId, 2));
+        verifyNoMoreInteractions(planCacheInvalidator);
+    }
+
+    @Test
+    @DisplayName("Should drop the policy network once the set of enabled policies changed")
+    void testEvictsNetworkWhenEnabledPoliciesChange() {
+        current("policies", policyId, 1);
+        current("rules", ruleId, 1);
+        current("features", featureId, 1);
+        PolicyNetwork network = mock(PolicyNetwork.class);
+        when(network.getPolicyIds()).thenReturn(List.of(policyId));
+        when(policyNetworkCache.getCachedNetwork()).thenReturn(network);
+        when(jdbcTemplate.queryForList(eq("SELECT id FROM policies WHERE enabled = true"),
+                any(SqlParameterSource.class), eq(UUID.class)))
+                .thenReturn(List.of(policyId), List.of(policyId, UUID.randomUUID()));
+
+        poller.pollVersions();
+        verify(policyNetworkCache, never()).evict();
+
+        poller.pollVersions();
+        verify(policyNetworkCache).evict();
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.entity.Policy;
+import com.example.ruleengine.entity.PolicySet;
+import com.example.ruleengine.entity.PolicySetOfferPolicy;
+import com.example.ruleengine.entity.enums.EvaluationStrategy;
+import com.example.ruleengine.entity.enums.PolicyType;
+import com.example.ruleengine.event.EntityChangedEvent;
+import com.example.ruleengine.exception.ResourceNotFoundException;
+import com.example.ruleengine.repository.PolicySetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CompiledPolicySetCacheTest {
+
+    @Mock
+    private PolicySetRepository policySetRepository;
+
+    @Mock
+    private PolicyCompiler policyCompiler;
+
+    @Mock
+    private ReferenceListStore referenceListStore;
+
+    @Mock
+    private PolicyNetworkCache policyNetworkCache;
+
+    private CompiledPolicySetCache compiledPolicySetCache;
+    private PlanCacheInvalidator planCacheInvalidator;
+    private CompiledPolicyCache compiledPolicyCache;
+
+    private UUID policySetId;
+    private UUID ruleId;
+    private PolicySet policySet;
+
+    @BeforeEach
+    void setUp() {
+        compiledPolicyCache = new CompiledPolicyCache(policyCompiler, 10);
+        compiledPolicySetCache = new CompiledPolicySetCache(policySetRepository, compiledPolicyCache, 10);
+        planCacheInvalidator = new PlanCacheInvalidator(compiledPolicyCache, compiledPolicySetCache, referenceListStore,
+                policyNetworkCache, new RuleStatisticsRegistry(1));
+
+        policySetId = UUID.randomUUID();
+        ruleId = UUID.randomUUID();
+
+        Policy booleanPolicy = policy("boolean_policy", PolicyType.BOOLEAN);
+        Policy lowOffer = policy("low_offer", PolicyType.OFFER);
+        Policy highOffer = policy("high_offer", PolicyType.OFFER);
+
+        policySet = PolicySet.builder()
+                .id(policySetId)
+                .name("test_policy_set")
+                .booleanPolicy(booleanPolicy)
+                .evaluationStrategy(EvaluationStrategy.BOOLEAN_FIRST)
+                .version(1)
+                .build();
+        policySet.getOfferPolicies().add(PolicySetOfferPolicy.builder().offerPolicy(lowOffer).priority(1).build());
+        policySet.getOfferPolicies().add(PolicySetOfferPolicy.builder().offerPolicy(highOffer).priority(5).build());
+
+        when(policyCompiler.compile(any(Policy.class))).thenAnswer(invocation -> {
+            Policy p = invocation.getArgument(0);
+            return CompiledPolicy.builder()
+                    .policyId(p.getId())
+                    .version(p.getVersion())
+                    .name(p.getName())
+                    .policyType(p.getPolicyType())
+                    .ruleVersions(Map.of(ruleId, 1))
+                    .featureVersions(Map.of())
+                    .features(List.of())
+                    .build();
+        });
+    }
+
+    private Policy policy(String name, PolicyType type) {
+        return Policy.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .policyType(type)
+                .rootNode(new HashMap<>())
+                .version(1)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should load and compile a policy set once and sort offers by priority")
+    void testCachesCompiledPolicySet() {
+        when(policySetRepository.findWithPoliciesById(policySetId)).thenReturn(Optional.of(policySet));
+
+        CompiledPolicySet first = compiledPolicySetCache.getCompiledPolicySet(policySetId);
+        CompiledPolicySet second = compiledPolicySetCache.getCompiledPolicySet(policySetId);
+
+        assertSame(first, second);
+        assertEquals("high_offer", first.getOfferPolicies().get(0).getPolicy().getName());
+        assertEquals("low_offer", first.getOfferPolicies().get(1).getPolicy().getName());
+        verify(policySetRepository, times(1)).findWithPoliciesById(policySetId);
+        verify(policyCompiler, times(3)).compile(any(Policy.class));
+    }
+
+    @Test
+    @DisplayName("Should recompile after a referenced rule changes")
+    void testRuleChangeInvalidatesPolicySet() {
+        when(policySetRepository.findWithPoliciesById(policySetId)).thenReturn(Optional.of(policySet));
+
+        CompiledPolicySet first = compiledPolicySetCache.getCompiledPolicySet(policySetId);
+        planCacheInvalidator.invalidate(new EntityChangedEvent(EntityChangedEvent.EntityType.RULE, ruleId, 2));
+        CompiledPolicySet second = compiledPolicySetCache.getCompiledPolicySet(policySetId);
+
+        assertNotSame(first, second);
+        verify(policySetRepository, times(2)).findWithPoliciesById(policySetId);
+        verify(policyCompiler, times(6)).compile(any(Policy.class));
+    }
+
+    @Test
+    @DisplayName("Should ignore policy set events that are not newer than the cached version")
+    void testStalePolicySetEventIgnored() {
+        when(policySetRepository.findWithPoliciesById(policySetId)).thenReturn(Optional.of(policySet));
+
+        CompiledPolicySet first = compiledPolicySetCache.getCompiledPolicySet(policySetId);
+        planCacheInvalidator.invalidate(new EntityChangedEvent(EntityChangedEvent.EntityType.POLICY_SET, policySetId, 1));
+
+        assertSame(first, compiledPolicySetCache.getCompiledPolicySet(policySetId));
+    }
+
+    @Test
+    @DisplayName("Should recompile a policy at a new version and keep only that version cached")
+    void testPolicyVersionChangeRecompiles() {
+        Policy policy = policy("boolean", PolicyType.BOOLEAN);
+
+        CompiledPolicy first = compiledPolicyCache.getCompiledPolicy(policy);
+        assertSame(first, compiledPolicyCache.getCompiledPolicy(policy));
+        policy.setVersion(2);
+        CompiledPolicy second = compiledPolicyCache.getCompiledPolicy(policy);
+
+        assertNotSame(first, second);
+        assertEquals(2, second.getVersion());
+        assertEquals(List.of(second), List.copyOf(compiledPolicyCache.getCachedPolicies()));
+        verify(policyCompiler, times(2)).compile(any(Policy.class));
+    }
+
+    @Test
+    @DisplayName("Should not cache a policy compiled while an eviction ran")
+    void testEvictionDuringCompileIsNotCached() {
+        Policy policy = policy("boolean", PolicyType.BOOLEAN);
+        when(policyCompiler.compile(policy)).thenAnswer(invocation -> {
+            compiledPolicyCache.evictAll();
+            return CompiledPolicy.builder().policyId(policy.getId()).version(policy.getVersion()).build();
+        });
+
+        compiledPolicyCache.getCompiledPolicy(policy);
+
+        assertTrue(compiledPolicyCache.getCachedPolicies().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should throw when policy set does not exist")
+    void testMissingPolicySet() {
+        reset(policyCompiler);
+        when(policySetRepository.findWithPoliciesById(policySetId)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> compiledPolicySetCache.getCompiledPolicySet(policySetId));
+    }
+}
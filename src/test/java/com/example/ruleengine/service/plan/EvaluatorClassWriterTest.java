@@ -0,0 +1,136 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.entity.enums.EvaluationMode;
+import com.example.ruleengine.entity.enums.FeatureType;
+import com.example.ruleengine.entity.enums.LogicalOperator;
+import com.example.ruleengine.service.TreeEvaluationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvaluatorClassWriterTest {
+
+    private PlanFixture fixture;
+    private RuleStatisticsRegistry ruleStatisticsRegistry;
+    private TreeEvaluationService treeEvaluationService;
+    private final List<CompiledFeature> features = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        fixture = new PlanFixture();
+        ruleStatisticsRegistry = fixture.ruleStatisticsRegistry;
+        treeEvaluationService = fixture.treeEvaluationService;
+    }
+
+    private LeafPlanNode leaf(String featureName, FeatureType featureType, String operatorCode, Object operand) {
+        return fixture.leaf(fixture.rule(featureName, featureType, operatorCode, operand), features);
+    }
+
+    private PlanNode composite(LogicalOperator operator, PlanNode... children) {
+        return new CompositePlanNode(operator, List.of(children));
+    }
+
+    @Test
+    @DisplayName("Should produce the interpreter's result and trace for every input and mode")
+    void testMatchesInterpreter() {
+        PlanNode root = composite(LogicalOperator.AND,
+                composite(LogicalOperator.OR,
+                        leaf("income", FeatureType.NUMERIC, "GT", 25000),
+                        leaf("age", FeatureType.NUMERIC, "BETWEEN", Map.of("min", 18, "max", 65))),
+                composite(LogicalOperator.NOT, leaf("state", FeatureType.STRING, "IN", List.of("CA", "NY"))),
+                leaf("employed", FeatureType.BOOLEAN, "EQ", true),
+                composite(LogicalOperator.OR,
+                        leaf("name", FeatureType.STRING, "STARTS_WITH", "A"),
+                        leaf("score", FeatureType.NUMERIC, "LT", 600)),
+                leaf("zip", FeatureType.NUMERIC, "NOT_IN", List.of(1, 2, 3)));
+        GeneratedEvaluator evaluator = EvaluatorClassWriter.define(root, ruleStatisticsRegistry);
+        FeatureSlotLayout layout = FeatureSlotLayout.of(features);
+
+        Object[][] candidates = {
+                {null, 20000, 30000.5, -0.0, Double.NaN},
+                {null, 17, 18, 65.0, 66L},
+                {null, "CA", "TX"},
+                {null, true, false},
+                {null, "Alice", "Bob"},
+                {null, 599, 600, 700.0},
+                {null, 2, 4.0}
+        };
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            FeatureSlots slots = new FeatureSlots(layout);
+            for (int slot = 0; slot < candidates.length; slot++) {
+                slots.set(slot, candidates[slot][random.nextInt(candidates[slot].length)]);
+            }
+            for (EvaluationMode mode : EvaluationMode.values()) {
+                EvaluationTrace interpreted = new EvaluationTrace(mode);
+                EvaluationTrace generated = new EvaluationTrace(mode);
+
+                boolean expected = treeEvaluationService.evaluate(root, slots, interpreted);
+
+                assertEquals(expected, evaluator.evaluate(slots, generated), mode + " " + slots.toMap());
+                assertEquals(interpreted.size(), generated.size());
+                assertEquals(treeEvaluationService.explain(root, slots, interpreted),
+                        treeEvaluationService.explain(root, slots, generated));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should hand out the generated evaluator only once it is built for the evaluated tree")
+    void testTiering() throws Exception {
+        PlanNode root = composite(LogicalOperator.AND, leaf("income", FeatureType.NUMERIC, "GT", 25000));
+        CompiledPolicy policy = CompiledPolicy.builder().name("hot").version(1).root(root).build();
+        PolicyBytecodeCompiler compiler = new PolicyBytecodeCompiler(ruleStatisticsRegistry, true, 3);
+
+        assertNull(compiler.getEvaluator(policy, root, EvaluationMode.SHORT_CIRCUIT));
+        assertNull(compiler.getEvaluator(policy, root, EvaluationMode.SHORT_CIRCUIT));
+        assertNull(compiler.getEvaluator(policy, root, EvaluationMode.SHORT_CIRCUIT));
+
+        GeneratedEvaluator evaluator = null;
+        for (int i = 0; i < 100 && evaluator == null; i++) {
+            Thread.sleep(20);
+            evaluator = compiler.getEvaluator(policy, root, EvaluationMode.SHORT_CIRCUIT);
+        }
+        assertNotNull(evaluator);
+        assertSame(root, evaluator.getRoot());
+        assertNull(compiler.getEvaluator(policy, root, EvaluationMode.EXHAUSTIVE));
+        compiler.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should regenerate a hot policy's evaluator right away once its tree is reordered")
+    void testRegeneratesReorderedTree() throws Exception {
+        LeafPlanNode income = leaf("income", FeatureType.NUMERIC, "GT", 25000);
+        LeafPlanNode score = leaf("score", FeatureType.NUMERIC, "LT", 600);
+        PlanNode root = composite(LogicalOperator.AND, income, score);
+        CompiledPolicy policy = CompiledPolicy.builder().name("hot").version(1).root(root).build();
+        PolicyBytecodeCompiler compiler = new PolicyBytecodeCompiler(ruleStatisticsRegistry, true, 1);
+        BytecodeTier tier = policy.getBytecodeTier();
+
+        assertNull(compiler.getEvaluator(policy, root, EvaluationMode.SHORT_CIRCUIT));
+        awaitEvaluator(tier, root);
+        PlanNode reordered = composite(LogicalOperator.AND, score, income);
+        compiler.shutdown();
+        compiler = new PolicyBytecodeCompiler(ruleStatisticsRegistry, true, 1000);
+
+        assertNull(compiler.getEvaluator(policy, reordered, EvaluationMode.SHORT_CIRCUIT));
+        awaitEvaluator(tier, reordered);
+        assertSame(reordered, compiler.getEvaluator(policy, reordered, EvaluationMode.SHORT_CIRCUIT).getRoot());
+        compiler.shutdown();
+    }
+
+    private void awaitEvaluator(BytecodeTier tier, PlanNode root) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            GeneratedEvaluator evaluator = tier.getEvaluator(EvaluationMode.SHORT_CIRCUIT);
+            if (evaluator != null && evaluator.getRoot() == root) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        fail("No evaluator generated for the tree");
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.entity.Feature;
+import com.example.ruleengine.entity.enums.FeatureType;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeatureExtractionPlanTest {
+
+    private CompiledFeature feature(String name, String type, String pathOrField) {
+        Map<String, Object> config = new HashMap<>();
+        config.put("type", type);
+        config.put("JSON_PATH".equals(type) ? "path" : "field", pathOrField);
+        return CompiledFeature.compile(Feature.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .featureType(FeatureType.NUMERIC)
+                .extractionConfig(config)
+                .build());
+    }
+
+    private Map<String, Object> input() {
+        Map<String, Object> bureau = new HashMap<>();
+        bureau.put("score", 780);
+        bureau.put("accounts", List.of(Map.of("balance", 100), Map.of("balance", 250)));
+        Map<String, Object> applicant = new HashMap<>();
+        applicant.put("income", 52000);
+        applicant.put("bureau report", bureau);
+        applicant.put("name", "Jane");
+        Map<String, Object> input = new HashMap<>();
+        input.put("applicant", applicant);
+        input.put("channel", "web");
+        return input;
+    }
+
+    @Test
+    @DisplayName("Should collect every simple path and DIRECT field in one walk")
+    void testCollectsSimplePaths() {
+        CompiledFeature income = feature("income", "JSON_PATH", "$.applicant.income");
+        CompiledFeature score = feature("score", "JSON_PATH", "$.applicant['bureau report'].score");
+        CompiledFeature channel = feature("channel", "DIRECT", "channel");
+        CompiledFeature missing = feature("missing", "JSON_PATH", "$.applicant.name.first");
+
+        Map<UUID, Object> values = FeatureExtractionPlan.build(List.of(income, score, channel, missing)).collect(input());
+
+        assertEquals(52000, values.get(income.getId()));
+        assertEquals(780, values.get(score.getId()));
+        assertEquals("web", values.get(channel.getId()));
+        assertFalse(values.containsKey(missing.getId()));
+    }
+
+    @Test
+    @DisplayName("Should leave filter and wildcard paths to JsonPath")
+    void testComplexPathsNotCovered() {
+        CompiledFeature balances = feature("balances", "JSON_PATH", "$.applicant['bureau report'].accounts[*].balance");
+        CompiledFeature filtered = feature("large", "JSON_PATH", "$..accounts[?(@.balance > 200)]");
+        CompiledFeature income = feature("income", "JSON_PATH", "$.applicant.income");
+
+        FeatureExtractionPlan plan = FeatureExtractionPlan.build(List.of(balances, filtered, income));
+
+        assertFalse(plan.covers(balances));
+        assertFalse(plan.covers(filtered));
+        assertTrue(plan.covers(income));
+    }
+
+    @Test
+    @DisplayName("Should resolve simple paths exactly as JsonPath does")
+    void testMatchesJsonPath() {
+        Map<String, Object> input = input();
+        List<CompiledFeature> features = List.of(
+                feature("income", "JSON_PATH", "$.applicant.income"),
+                feature("bureau", "JSON_PATH", "$.applicant['bureau report']"),
+                feature("absent", "JSON_PATH", "$.applicant.employer.name"),
+                feature("through_scalar", "JSON_PATH", "$.channel.code"));
+
+        Map<UUID, Object> values = FeatureExtractionPlan.build(features).collect(input);
+
+        for (CompiledFeature feature : features) {
+            Object expected = feature.getJsonPath().read(input, CompiledFeature.JSON_PATH_CONFIGURATION);
+            assertEquals(expected, values.get(feature.getId()), feature.getName());
+        }
+    }
+
+    private FeatureExtractionPlan.StreamedInput read(FeatureExtractionPlan plan, Map<String, Object> input) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        try (JsonParser parser = objectMapper.createParser(objectMapper.writeValueAsBytes(input))) {
+            parser.nextToken();
+            return plan.read(parser);
+        }
+    }
+
+    @Test
+    @DisplayName("Should materialize only the subtrees features read when streaming the input")
+    void testStreamedInputIsPruned() throws IOException {
+        CompiledFeature income = feature("income", "JSON_PATH", "$.applicant.income");
+        CompiledFeature channel = feature("channel", "DIRECT", "channel");
+        FeatureExtractionPlan plan = FeatureExtractionPlan.build(List.of(income, channel));
+
+        FeatureExtractionPlan.StreamedInput streamed = read(plan, input());
+
+        assertEquals(Map.of("applicant", Map.of("income", 52000), "channel", "web"), streamed.inputData());
+        assertEquals(52000, streamed.pathValues().get(income.getId()));
+        assertEquals("web", streamed.pathValues().get(channel.getId()));
+    }
+
+    @Test
+    @DisplayName("Should materialize the top-level subtree a JsonPath-only feature starts from")
+    void testStreamedInputKeepsJsonPathSubtree() throws IOException {
+        CompiledFeature balances = feature("balances", "JSON_PATH", "$.applicant['bureau report'].accounts[*].balance");
+        CompiledFeature channel = feature("channel", "DIRECT", "channel");
+        FeatureExtractionPlan plan = FeatureExtractionPlan.build(List.of(balances, channel));
+
+        Map<String, Object> input = input();
+        FeatureExtractionPlan.StreamedInput streamed = read(plan, input);
+
+        assertEquals(new ObjectMapper().convertValue(input, Map.class), streamed.inputData());
+        assertEquals(List.of(100, 250), balances.getJsonPath().read(streamed.inputData(), CompiledFeature.JSON_PATH_CONFIGURATION));
+    }
+
+    @Test
+    @DisplayName("Should materialize the whole input for deep-scan paths")
+    void testStreamedInputDeepScan() throws IOException {
+        CompiledFeature income = feature("income", "JSON_PATH", "$..income");
+        FeatureExtractionPlan plan = FeatureExtractionPlan.build(List.of(income));
+
+        Map<String, Object> input = input();
+        FeatureExtractionPlan.StreamedInput streamed = read(plan, input);
+
+        assertEquals(new ObjectMapper().convertValue(input, Map.class), streamed.inputData());
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.exception.ValidationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OfferDecisionTableTest {
+
+    private static final String[] OPERATORS = {">=", "<=", ">", "<"};
+
+    private Map<String, Object> row(String condition, int tier) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("condition", condition);
+        row.put("output", Map.of("tier", tier));
+        return row;
+    }
+
+    private Map<String, Object> mapping(List<Map<String, Object>> rows) {
+        return Map.of("defaultOutput", Map.of("tier", -1), "conditionalOutputs", rows);
+    }
+
+    // Row-by-row evaluation of a single comparison, as offers were resolved before compilation
+    private boolean reference(String condition, Map<String, Object> features) {
+        if (condition == null || condition.isEmpty()) {
+            return true;
+        }
+        for (String operator : OPERATORS) {
+            if (condition.contains(operator)) {
+                String[] parts = condition.split(operator);
+                double threshold = Double.parseDouble(parts[1].trim());
+                if (!(features.get(parts[0].trim()) instanceof Number number)) {
+                    return false;
+                }
+                double value = number.doubleValue();
+                return switch (operator) {
+                    case ">=" -> value >= threshold;
+                    case "<=" -> value <= threshold;
+                    case ">" -> value > threshold;
+                    default -> value < threshold;
+                };
+            }
+        }
+        return false;
+    }
+
+    @Test
+    @DisplayName("Should select the same row as evaluating every condition in order")
+    void testMatchesRowByRowEvaluation() {
+        Random random = new Random(3);
+        String[] features = {"score", "income"};
+        for (int table = 0; table < 50; table++) {
+            List<Map<String, Object>> rows = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(150); i++) {
+                String condition = features[random.nextInt(2)] + " " + OPERATORS[random.nextInt(4)] + " "
+                        + random.nextInt(20) * 50;
+                rows.add(row(random.nextInt(40) == 0 ? "" : condition, i));
+            }
+            OfferDecisionTable offerTable = OfferDecisionTable.compile(mapping(rows));
+
+            for (Object score : new Object[]{null, "700", 0, -0.0, 450, 450.5, 999, Double.NaN}) {
+                Map<String, Object> input = new HashMap<>();
+                input.put("score", score);
+                input.put("income", random.nextInt(25) * 50);
+                Map<String, Object> expected = rows.stream()
+                        .filter(r -> reference((String) r.get("condition"), input))
+                        .findFirst()
+                        .map(r -> (Map<String, Object>) r.get("output"))
+                        .orElse(null);
+
+                assertEquals(expected, offerTable.selectOutput(input), rows + " " + input);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should match a grid row only when all of its comparisons hold")
+    void testMatchesGridRows() {
+        OfferDecisionTable offerTable = OfferDecisionTable.compile(mapping(List.of(
+                row("score >= 750 && income >= 100000", 1),
+                row("score >= 750 && income < 100000", 2),
+                row("score >= 700 && income >= 50000", 3))));
+
+        assertEquals(Map.of("tier", -1), offerTable.getDefaultOutput());
+        assertEquals(Map.of("tier", 1), offerTable.selectOutput(Map.of("score", 780, "income", 120000)));
+        assertEquals(Map.of("tier", 2), offerTable.selectOutput(Map.of("score", 750, "income", 60000)));
+        assertEquals(Map.of("tier", 3), offerTable.selectOutput(Map.of("score", 720, "income", 50000)));
+        assertNull(offerTable.selectOutput(Map.of("score", 720, "income", 40000)));
+        assertNull(offerTable.selectOutput(Map.of("score", 780)));
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed condition only when no earlier row matches")
+    void testMalformedCondition() {
+        OfferDecisionTable offerTable = OfferDecisionTable.compile(mapping(List.of(
+                row("score >= 750", 1),
+                row("score >= high", 2),
+                row("score >= 600", 3))));
+
+        assertEquals(Map.of("tier", 1), offerTable.selectOutput(Map.of("score", 800)));
+        assertThrows(ValidationException.class, () -> offerTable.selectOutput(Map.of("score", 650)));
+        assertNull(OfferDecisionTable.compile(null));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.entity.Feature;
+import com.example.ruleengine.entity.Rule;
+import com.example.ruleengine.entity.enums.FeatureType;
+import com.example.ruleengine.service.RuleEvaluationService;
+import com.example.ruleengine.service.TreeEvaluationService;
+import com.example.ruleengine.service.operator.OperatorStrategyFactory;
+import com.example.ruleengine.service.operator.impl.*;
+
+import java.util.*;
+
+// Features, rules and leaves built the way PolicyCompiler builds them, for the plan tests
+class PlanFixture {
+
+    final OperatorStrategyFactory factory;
+    final RuleStatisticsRegistry ruleStatisticsRegistry = new RuleStatisticsRegistry(1);
+    final RuleEvaluationService ruleEvaluationService;
+    final TreeEvaluationService treeEvaluationService;
+    final Map<String, CompiledFeature> features = new LinkedHashMap<>();
+    private final Map<UUID, String> operatorCodes = new HashMap<>();
+
+    PlanFixture() {
+        factory = new OperatorStrategyFactory(Arrays.asList(new GreaterThanOperator(), new LessThanOperator(),
+                new GreaterThanOrEqualOperator(), new LessThanOrEqualOperator(), new BetweenOperator(),
+                new InOperator(), new NotInOperator(), new EqualsOperator(), new StartsWithOperator()));
+        factory.init();
+        ruleEvaluationService = new RuleEvaluationService(factory);
+        treeEvaluationService = new TreeEvaluationService(ruleEvaluationService, ruleStatisticsRegistry);
+    }
+
+    // Rules on the same feature name share its feature
+    Rule rule(String featureName, FeatureType featureType, String operatorCode, Object operand) {
+        CompiledFeature compiled = features.computeIfAbsent(featureName, name -> {
+            Feature feature = Feature.builder().id(UUID.randomUUID()).name(name).featureType(featureType).build();
+            return new CompiledFeature(feature, "DIRECT", null, name, List.of(name));
+        });
+        Rule rule = Rule.builder()
+                .id(UUID.randomUUID())
+                .name(featureName + "_" + operatorCode)
+                .feature(compiled.getFeature())
+                .operand(operand)
+                .version(1)
+                .build();
+        operatorCodes.put(rule.getId(), operatorCode);
+        return rule;
+    }
+
+    // A policy's own copy of the rule, reading its feature from the policy's layout
+    LeafPlanNode leaf(Rule rule, List<CompiledFeature> policyFeatures) {
+        CompiledFeature feature = features.get(rule.getFeature().getName());
+        if (!policyFeatures.contains(feature)) {
+            policyFeatures.add(feature);
+        }
+        String operatorCode = operatorCodes.get(rule.getId());
+        return new LeafPlanNode(rule.getId(), rule, rule.getFeature(), operatorCode,
+                factory.getStrategy(operatorCode), rule.getOperand(), policyFeatures.indexOf(feature));
+    }
+
+    CompiledPolicy policy(String name, PlanNode root, List<CompiledFeature> policyFeatures) {
+        return CompiledPolicy.builder()
+                .policyId(UUID.randomUUID())
+                .name(name)
+                .root(root)
+                .features(List.copyOf(policyFeatures))
+                .slotLayout(FeatureSlotLayout.of(policyFeatures))
+                .build();
+    }
+
+    static FeatureSlots slots(FeatureSlotLayout layout, Map<String, Object> input) {
+        FeatureSlots slots = new FeatureSlots(layout);
+        List<CompiledFeature> layoutFeatures = layout.getFeatures();
+        for (int slot = 0; slot < layoutFeatures.size(); slot++) {
+            slots.set(slot, input.get(layoutFeatures.get(slot).getName()));
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.dto.response.EvaluationOrderResponse;
+import com.example.ruleengine.entity.Feature;
+import com.example.ruleengine.entity.Rule;
+import com.example.ruleengine.entity.enums.EvaluationMode;
+import com.example.ruleengine.entity.enums.FeatureType;
+import com.example.ruleengine.entity.enums.LogicalOperator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlanOptimizerTest {
+
+    @Mock
+    private CompiledPolicyCache compiledPolicyCache;
+
+    @Mock
+    private CompiledPolicySetCache compiledPolicySetCache;
+
+    private RuleStatisticsRegistry ruleStatisticsRegistry;
+    private PlanOptimizer planOptimizer;
+
+    @BeforeEach
+    void setUp() {
+        ruleStatisticsRegistry = new RuleStatisticsRegistry(1);
+        planOptimizer = new PlanOptimizer(compiledPolicyCache, compiledPolicySetCache,
+                ruleStatisticsRegistry, new LeafCostModel(), 10);
+    }
+
+    private LeafPlanNode leaf(String ruleName, String operatorCode) {
+        Feature feature = Feature.builder()
+                .id(UUID.randomUUID())
+                .name(ruleName + "_feature")
+                .featureType(FeatureType.NUMERIC)
+                .extractionConfig(Map.of("type", "DIRECT", "field", ruleName))
+                .build();
+        Rule rule = Rule.builder()
+                .id(UUID.randomUUID())
+                .name(ruleName)
+                .feature(feature)
+                .version(1)
+                .build();
+        return new LeafPlanNode(rule.getId(), rule, feature, operatorCode, null, "x", 0);
+    }
+
+    private CompiledPolicy policy(PlanNode root) {
+        return CompiledPolicy.builder()
+                .policyId(UUID.randomUUID())
+                .version(1)
+                .name("policy")
+                .root(root)
+                .build();
+    }
+
+    private void observe(LeafPlanNode leaf, int passes, int failures) {
+        for (int i = 0; i < passes; i++) {
+            ruleStatisticsRegistry.record(leaf, true);
+        }
+        for (int i = 0; i < failures; i++) {
+            ruleStatisticsRegistry.record(leaf, false);
+        }
+    }
+
+    private List<PlanNode> optimizedChildren(CompiledPolicy policy) {
+        return ((CompositePlanNode) policy.getEvaluationRoot(EvaluationMode.SHORT_CIRCUIT)).getChildren();
+    }
+
+    @Test
+    @DisplayName("Should evaluate cheap comparisons before regex without touching the stored order")
+    void testCheapLeavesFirst() {
+        LeafPlanNode regex = leaf("name_pattern", "REGEX");
+        LeafPlanNode comparison = leaf("age_check", "GTE");
+        PlanNode root = new CompositePlanNode(LogicalOperator.AND, List.of(regex, comparison));
+        CompiledPolicy policy = policy(root);
+
+        EvaluationOrderResponse response = planOptimizer.optimize(policy);
+
+        assertEquals(List.of(comparison, regex), optimizedChildren(policy));
+        assertEquals(List.of(regex, comparison), ((CompositePlanNode) policy.getRoot()).getChildren());
+        assertSame(root, policy.getEvaluationRoot(EvaluationMode.EXHAUSTIVE));
+        assertEquals(1, response.getRoot().getChildren().get(0).getOriginalPosition());
+    }
+
+    @Test
+    @DisplayName("Should run likely-false children first under AND and likely-true children first under OR")
+    void testSelectivityOrdering() {
+        LeafPlanNode usuallyPasses = leaf("usually_passes", "GT");
+        LeafPlanNode usuallyFails = leaf("usually_fails", "GT");
+        observe(usuallyPasses, 18, 2);
+        observe(usuallyFails, 2, 18);
+
+        CompiledPolicy andPolicy = policy(new CompositePlanNode(LogicalOperator.AND, List.of(usuallyPasses, usuallyFails)));
+        CompiledPolicy orPolicy = policy(new CompositePlanNode(LogicalOperator.OR, List.of(usuallyFails, usuallyPasses)));
+        planOptimizer.optimize(andPolicy);
+        planOptimizer.optimize(orPolicy);
+
+        assertEquals(List.of(usuallyFails, usuallyPasses), optimizedChildren(andPolicy));
+        assertEquals(List.of(usuallyPasses, usuallyFails), optimizedChildren(orPolicy));
+    }
+
+    @Test
+    @DisplayName("Should ignore pass rates until enough samples are observed")
+    void testMinSamples() {
+        LeafPlanNode first = leaf("first", "GT");
+        LeafPlanNode second = leaf("second", "GT");
+        observe(second, 0, 3);
+
+        CompiledPolicy policy = policy(new CompositePlanNode(LogicalOperator.AND, List.of(first, second)));
+        EvaluationOrderResponse response = planOptimizer.optimize(policy);
+
+        assertEquals(List.of(first, second), optimizedChildren(policy));
+        assertEquals(3L, response.getRoot().getChildren().get(1).getObservedEvaluations());
+    }
+
+    @Test
+    @DisplayName("Should keep the installed tree while the chosen order does not change")
+    void testKeepsUnchangedOrder() {
+        LeafPlanNode regex = leaf("name_pattern", "REGEX");
+        LeafPlanNode comparison = leaf("age_check", "GTE");
+        PlanNode root = new CompositePlanNode(LogicalOperator.AND, List.of(comparison, regex));
+        CompiledPolicy policy = policy(root);
+
+        planOptimizer.optimize(policy);
+        assertSame(root, policy.getEvaluationRoot(EvaluationMode.SHORT_CIRCUIT));
+
+        CompiledPolicy reordered = policy(new CompositePlanNode(LogicalOperator.AND, List.of(regex, comparison)));
+        planOptimizer.optimize(reordered);
+        PlanNode installed = reordered.getEvaluationRoot(EvaluationMode.SHORT_CIRCUIT);
+        planOptimizer.optimize(reordered);
+
+        assertSame(installed, reordered.getEvaluationRoot(EvaluationMode.SHORT_CIRCUIT));
+    }
+
+    @Test
+    @DisplayName("Should describe the installed order and propose a new one without installing it")
+    void testDescribeDoesNotInstall() {
+        LeafPlanNode regex = leaf("name_pattern", "REGEX");
+        LeafPlanNode comparison = leaf("age_check", "GTE");
+        PlanNode root = new CompositePlanNode(LogicalOperator.AND, List.of(regex, comparison));
+        CompiledPolicy policy = policy(root);
+
+        EvaluationOrderResponse response = planOptimizer.describe(policy);
+
+        assertEquals("name_pattern", response.getRoot().getChildren().get(0).getRuleName());
+        assertEquals(0, response.getRoot().getChildren().get(0).getOriginalPosition());
+        assertEquals("age_check", response.getProposedRoot().getChildren().get(0).getRuleName());
+        assertEquals(1, response.getProposedRoot().getChildren().get(0).getOriginalPosition());
+        assertSame(root, policy.getEvaluationRoot(EvaluationMode.SHORT_CIRCUIT));
+    }
+
+    @Test
+    @DisplayName("Should describe the order serving traffic with each child's original position")
+    void testDescribesInstalledOrder() {
+        LeafPlanNode regex = leaf("name_pattern", "REGEX");
+        LeafPlanNode comparison = leaf("age_check", "GTE");
+        LeafPlanNode other = leaf("score_check", "LT");
+        PlanNode root = new CompositePlanNode(LogicalOperator.OR, List.of(other,
+                new CompositePlanNode(LogicalOperator.AND, List.of(regex, comparison))));
+        CompiledPolicy policy = policy(root);
+        policy.setOptimizedRoot(new CompositePlanNode(LogicalOperator.OR, List.of(
+                new CompositePlanNode(LogicalOperator.AND, List.of(comparison, regex)), other)));
+
+        EvaluationOrderResponse.OrderNode installed = planOptimizer.describe(policy).getRoot();
+
+        assertEquals(1, installed.getChildren().get(0).getOriginalPosition());
+        assertEquals(0, installed.getChildren().get(1).getOriginalPosition());
+        EvaluationOrderResponse.OrderNode and = installed.getChildren().get(0);
+        assertEquals("age_check", and.getChildren().get(0).getRuleName());
+        assertEquals(1, and.getChildren().get(0).getOriginalPosition());
+        assertEquals(0, and.getChildren().get(1).getOriginalPosition());
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.entity.Feature;
+import com.example.ruleengine.entity.Operator;
+import com.example.ruleengine.entity.Policy;
+import com.example.ruleengine.entity.Rule;
+import com.example.ruleengine.entity.enums.FeatureType;
+import com.example.ruleengine.entity.enums.LogicalOperator;
+import com.example.ruleengine.entity.enums.OperandType;
+import com.example.ruleengine.entity.enums.PolicyType;
+import com.example.ruleengine.exception.ValidationException;
+import com.example.ruleengine.repository.RuleRepository;
+import com.example.ruleengine.service.operator.OperatorStrategyFactory;
+import com.example.ruleengine.service.operator.impl.GreaterThanOperator;
+import com.example.ruleengine.service.operator.impl.GreaterThanOrEqualOperator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PolicyCompilerTest {
+
+    @Mock
+    private RuleRepository ruleRepository;
+
+    private PolicyCompiler policyCompiler;
+
+    private Feature ageFeature;
+    private Rule ageRule;
+    private Rule scoreRule;
+
+    @BeforeEach
+    void setUp() {
+        OperatorStrategyFactory factory = new OperatorStrategyFactory(
+                Arrays.asList(new GreaterThanOperator(), new GreaterThanOrEqualOperator()));
+        factory.init();
+        // Inline operands never reach the database or the list directory
+        policyCompiler = new PolicyCompiler(ruleRepository, factory, new ReferenceListStore(null, "reference-lists"));
+
+        ageFeature = Feature.builder()
+                .id(UUID.randomUUID())
+                .name("applicant_age")
+                .featureType(FeatureType.NUMERIC)
+                .extractionConfig(Map.of("type", "JSON_PATH", "path", "$.applicant.age"))
+                .build();
+        Feature scoreFeature = Feature.builder()
+                .id(UUID.randomUUID())
+                .name("credit_score")
+                .featureType(FeatureType.NUMERIC)
+                .extractionConfig(Map.of("type", "DIRECT", "field", "credit_score"))
+                .build();
+
+        ageRule = createRule("age_check", ageFeature, "GTE", 21);
+        scoreRule = createRule("score_check", scoreFeature, "GT", 700);
+    }
+
+    private Rule createRule(String name, Feature feature, String operatorCode, Object operand) {
+        return Rule.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .feature(feature)
+                .operator(Operator.builder().code(operatorCode).operandType(OperandType.SINGLE).build())
+                .operand(operand)
+                .build();
+    }
+
+    private Map<String, Object> leaf(Rule rule) {
+        Map<String, Object> node = new HashMap<>();
+        node.put("type", "LEAF");
+        node.put("ruleId", rule.getId().toString());
+        return node;
+    }
+
+    private Policy policyWithRoot(Map<String, Object> rootNode) {
+        return Policy.builder()
+                .id(UUID.randomUUID())
+                .name("test_policy")
+                .policyType(PolicyType.BOOLEAN)
+                .rootNode(rootNode)
+                .version(3)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should resolve rules, features and operators with a single repository call")
+    void testCompileCompositeTree() {
+        Map<String, Object> root = new HashMap<>();
+        root.put("type", "COMPOSITE");
+        root.put("operator", "AND");
+        root.put("children", Arrays.asList(leaf(ageRule), leaf(scoreRule), leaf(ageRule)));
+
+        when(ruleRepository.findAllWithFeatureAndOperatorByIdIn(anyCollection()))
+                .thenReturn(Arrays.asList(ageRule, scoreRule));
+
+        CompiledPolicy compiled = policyCompiler.compile(policyWithRoot(root));
+
+        assertEquals(3, compiled.getVersion());
+        assertEquals(2, compiled.getRuleIds().size());
+        assertEquals(2, compiled.getFeatures().size());
+
+        CompositePlanNode compiledRoot = assertInstanceOf(CompositePlanNode.class, compiled.getRoot());
+        assertEquals(LogicalOperator.AND, compiledRoot.getOperator());
+        assertEquals(3, compiledRoot.getChildren().size());
+
+        LeafPlanNode first = assertInstanceOf(LeafPlanNode.class, compiledRoot.getChildren().get(0));
+        assertEquals("applicant_age", first.getFeatureName());
+        assertEquals("GTE", first.getStrategy().getOperatorCode());
+        assertSame(ageFeature, first.getFeature());
+
+        verify(ruleRepository, times(1)).findAllWithFeatureAndOperatorByIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should fail compilation when a referenced rule does not exist")
+    void testCompileMissingRule() {
+        when(ruleRepository.findAllWithFeatureAndOperatorByIdIn(anyCollection()))
+                .thenReturn(Collections.emptyList());
+
+        assertThrows(ValidationException.class, () -> policyCompiler.compile(policyWithRoot(leaf(ageRule))));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown composite operators")
+    void testCompileUnknownOperator() {
+        Map<String, Object> root = new HashMap<>();
+        root.put("type", "COMPOSITE");
+        root.put("operator", "XOR");
+        root.put("children", Collections.singletonList(leaf(ageRule)));
+
+        when(ruleRepository.findAllWithFeatureAndOperatorByIdIn(anyCollection()))
+                .thenReturn(Collections.singletonList(ageRule));
+
+        assertThrows(ValidationException.class, () -> policyCompiler.compile(policyWithRoot(root)));
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.entity.Rule;
+import com.example.ruleengine.entity.enums.EvaluationMode;
+import com.example.ruleengine.entity.enums.FeatureType;
+import com.example.ruleengine.entity.enums.LogicalOperator;
+import com.example.ruleengine.service.RuleEvaluationService;
+import com.example.ruleengine.service.TreeEvaluationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static com.example.ruleengine.service.plan.PlanFixture.slots;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PolicyNetworkTest {
+
+    private PlanFixture fixture;
+    private RuleEvaluationService ruleEvaluationService;
+    private TreeEvaluationService treeEvaluationService;
+    private final List<Rule> rules = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        fixture = new PlanFixture();
+        ruleEvaluationService = fixture.ruleEvaluationService;
+        treeEvaluationService = fixture.treeEvaluationService;
+
+        rules.add(fixture.rule("age", FeatureType.NUMERIC, "GT", 20));
+        rules.add(fixture.rule("income", FeatureType.NUMERIC, "GT", 25000));
+        rules.add(fixture.rule("score", FeatureType.NUMERIC, "LT", 600));
+        rules.add(fixture.rule("state", FeatureType.STRING, "IN", List.of("CA", "NY")));
+        rules.add(fixture.rule("employed", FeatureType.BOOLEAN, "EQ", true));
+        rules.add(fixture.rule("income", FeatureType.NUMERIC, "LT", 90000));
+    }
+
+    // Random tree over the rules, with each policy holding its own leaf copies as PolicyCompiler would build them
+    private PlanNode randomTree(Random random, int depth, List<CompiledFeature> policyFeatures) {
+        if (depth == 0 || random.nextInt(3) == 0) {
+            return fixture.leaf(rules.get(random.nextInt(rules.size())), policyFeatures);
+        }
+        LogicalOperator operator = LogicalOperator.values()[random.nextInt(3)];
+        int childCount = operator == LogicalOperator.NOT ? 1 : 1 + random.nextInt(3);
+        List<PlanNode> children = new ArrayList<>();
+        for (int i = 0; i < childCount; i++) {
+            children.add(randomTree(random, depth - 1, policyFeatures));
+        }
+        return new CompositePlanNode(operator, children);
+    }
+
+    private CompiledPolicy randomPolicy(Random random) {
+        List<CompiledFeature> policyFeatures = new ArrayList<>();
+        PlanNode root = randomTree(random, 3, policyFeatures);
+        return fixture.policy("random", root, policyFeatures);
+    }
+
+    @Test
+    @DisplayName("Should match exactly the policies whose tree evaluates to true")
+    void testMatchesTreeEvaluation() {
+        Random random = new Random(11);
+        List<CompiledPolicy> policies = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            policies.add(randomPolicy(random));
+        }
+        PolicyNetwork network = PolicyNetwork.compile(policies);
+
+        assertEquals(300, network.size());
+        assertTrue(network.getAlphaNodeCount() <= rules.size());
+
+        Object[][] candidates = {{null, 18, 30}, {null, 20000, 50000, 95000}, {null, 500, 700}, {null, "CA", "TX"},
+                {null, true, false}};
+        for (int i = 0; i < 300; i++) {
+            Map<String, Object> input = new HashMap<>();
+            int column = 0;
+            for (String name : fixture.features.keySet()) {
+                input.put(name, candidates[column][random.nextInt(candidates[column].length)]);
+                column++;
+            }
+
+            List<UUID> expected = new ArrayList<>();
+            for (CompiledPolicy policy : policies) {
+                boolean complete = policy.getFeatures().stream().allMatch(f -> input.get(f.getName()) != null);
+                if (complete && treeEvaluationService.evaluate(policy.getRoot(), slots(policy.getSlotLayout(), input),
+                        new EvaluationTrace(EvaluationMode.EXHAUSTIVE))) {
+                    expected.add(policy.getPolicyId());
+                }
+            }
+            FeatureSlots networkSlots = slots(network.getSlotLayout(), input);
+
+            assertEquals(expected, network.match(networkSlots,
+                    leaf -> ruleEvaluationService.evaluateLeaf(leaf, networkSlots)), input.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Should resolve thousands of band rules on one feature through the threshold index")
+    void testResolvesBandRules() {
+        Random random = new Random(5);
+        String[] operatorCodes = {"GT", "GTE", "LT", "LTE", "BETWEEN"};
+        List<CompiledPolicy> policies = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            String operatorCode = operatorCodes[random.nextInt(operatorCodes.length)];
+            double low = random.nextInt(100) * 1000.0;
+            Object operand = operatorCode.equals("BETWEEN")
+                    ? Map.of("min", low, "max", low + random.nextInt(50) * 1000.0)
+                    : low;
+            List<CompiledFeature> policyFeatures = new ArrayList<>();
+            LeafPlanNode leaf = fixture.leaf(fixture.rule("income", FeatureType.NUMERIC, operatorCode, operand),
+                    policyFeatures);
+            policies.add(fixture.policy("band_" + i, leaf, policyFeatures));
+        }
+        PolicyNetwork network = PolicyNetwork.compile(policies);
+
+        for (Object value : List.of(0, -0.0, 25000, 25000.5, 99000, 150000, -1, Double.NaN,
+                Double.POSITIVE_INFINITY)) {
+            FeatureSlots slots = slots(network.getSlotLayout(), Map.of("income", value));
+            List<UUID> expected = new ArrayList<>();
+            for (CompiledPolicy policy : policies) {
+                if (ruleEvaluationService.evaluateLeaf((LeafPlanNode) policy.getRoot(), slots)) {
+                    expected.add(policy.getPolicyId());
+                }
+            }
+            List<LeafPlanNode> tested = new ArrayList<>();
+
+            assertEquals(expected, network.match(slots, leaf -> {
+                tested.add(leaf);
+                return ruleEvaluationService.evaluateLeaf(leaf, slots);
+            }), String.valueOf(value));
+            assertTrue(tested.isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Should resolve thousands of EQ and IN rules on one feature through the equality index")
+    void testResolvesEqualityRules() {
+        Random random = new Random(7);
+        List<CompiledPolicy> policies = new ArrayList<>();
+        for (String name : List.of("income", "state")) {
+            boolean numeric = name.equals("income");
+            for (int i = 0; i < 2000; i++) {
+                boolean in = random.nextBoolean();
+                List<Object> values = new ArrayList<>();
+                for (int j = 0; j < (in ? 1 + random.nextInt(4) : 1); j++) {
+                    int value = random.nextInt(100);
+                    values.add(numeric ? (Object) (value * 1000) : "S" + value);
+                }
+                Object operand = in ? values : values.get(0);
+                String operatorCode = in ? "IN" : "EQ";
+                List<CompiledFeature> policyFeatures = new ArrayList<>();
+                LeafPlanNode leaf = fixture.leaf(fixture.rule(name, numeric ? FeatureType.NUMERIC : FeatureType.STRING,
+                        operatorCode, operand), policyFeatures);
+                policies.add(fixture.policy("eq_" + i, leaf, policyFeatures));
+            }
+        }
+        PolicyNetwork network = PolicyNetwork.compile(policies);
+
+        for (Object value : List.of(0, -0.0, 5000, 5000L, 5000.0, 5000.5, Double.NaN, "S5", "S50", "5000")) {
+            Map<String, Object> input = Map.of("income", value, "state", value);
+            FeatureSlots slots = slots(network.getSlotLayout(), input);
+            List<UUID> expected = new ArrayList<>();
+            for (CompiledPolicy policy : policies) {
+                FeatureSlots policySlots = slots(policy.getSlotLayout(), input);
+                if (ruleEvaluationService.evaluateLeaf((LeafPlanNode) policy.getRoot(), policySlots)) {
+                    expected.add(policy.getPolicyId());
+                }
+            }
+            List<LeafPlanNode> tested = new ArrayList<>();
+
+            assertEquals(expected, network.match(slots, leaf -> {
+                tested.add(leaf);
+                return ruleEvaluationService.evaluateLeaf(leaf, slots);
+            }), String.valueOf(value));
+            assertTrue(tested.isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Should match a NOT-only policy when no rule matches")
+    void testMatchesDefaultTruePolicies() {
+        List<CompiledFeature> policyFeatures = new ArrayList<>();
+        PlanNode root = new CompositePlanNode(LogicalOperator.NOT, List.of(fixture.leaf(rules.get(0), policyFeatures)));
+        CompiledPolicy minor = fixture.policy("minor", root, policyFeatures);
+        PolicyNetwork network = PolicyNetwork.compile(List.of(minor));
+
+        FeatureSlots young = slots(network.getSlotLayout(), Map.of("age", 16));
+        FeatureSlots adult = slots(network.getSlotLayout(), Map.of("age", 30));
+        FeatureSlots missing = slots(network.getSlotLayout(), Map.of());
+
+        assertEquals(List.of(minor.getPolicyId()),
+                network.match(young, leaf -> ruleEvaluationService.evaluateLeaf(leaf, young)));
+        assertEquals(List.of(), network.match(adult, leaf -> ruleEvaluationService.evaluateLeaf(leaf, adult)));
+        assertEquals(List.of(), network.match(missing, leaf -> ruleEvaluationService.evaluateLeaf(leaf, missing)));
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.entity.enums.ReferenceListValueType;
+import com.example.ruleengine.exception.ValidationException;
+import com.example.ruleengine.service.operator.impl.InOperator;
+import com.example.ruleengine.service.operator.impl.NotInOperator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReferenceListDataTest {
+
+    @Nested
+    @DisplayName("Numeric lists")
+    class NumericLists {
+
+        @Test
+        @DisplayName("Should match numbers by value regardless of their type or formatting")
+        void shouldMatchNumbersByValue() {
+            ReferenceListData data = ReferenceListData.wrap(ReferenceListData.encode(
+                    ReferenceListValueType.NUMERIC, List.of("5", " 7.50 ", "", "-0", "5.0")));
+
+            assertEquals(3, data.size());
+            assertTrue(data.contains(5));
+            assertTrue(data.contains(7.5));
+            assertTrue(data.contains(0.0));
+            assertTrue(data.containsNumber(-0.0));
+            assertFalse(data.contains(6L));
+            assertFalse(data.contains("5"));
+            assertFalse(data.containsNumber(Double.NaN));
+        }
+
+        @Test
+        @DisplayName("Should reject an unparseable entry with its line number")
+        void shouldRejectInvalidEntry() {
+            ValidationException e = assertThrows(ValidationException.class, () -> ReferenceListData.encode(
+                    ReferenceListValueType.NUMERIC, List.of("1", "two")));
+
+            assertTrue(e.getMessage().contains("line 2"));
+        }
+    }
+
+    @Nested
+    @DisplayName("String lists")
+    class StringLists {
+
+        @Test
+        @DisplayName("Should find every entry of a large list and reject others")
+        void shouldFindEveryEntry() {
+            List<String> entries = new ArrayList<>();
+            IntStream.range(0, 10_000).forEach(i -> entries.add("device-" + i));
+            entries.add("ünïcode");
+            ReferenceListData data = ReferenceListData.wrap(
+                    ReferenceListData.encode(ReferenceListValueType.STRING, entries));
+
+            assertEquals(10_001, data.size());
+            for (String entry : entries) {
+                assertTrue(data.contains(entry), entry);
+            }
+            assertFalse(data.contains("device-10000"));
+            assertFalse(data.contains("device-"));
+            assertFalse(data.contains(5));
+        }
+
+        @Test
+        @DisplayName("Should read the same contents through a memory-mapped file")
+        void shouldReadMappedFile(@TempDir Path directory) throws Exception {
+            Path file = directory.resolve("list.rlst");
+            Files.write(file, ReferenceListData.encode(ReferenceListValueType.STRING, List.of("b", "a", "c")));
+
+            ReferenceListData data = ReferenceListData.map(file);
+
+            assertEquals(3, data.size());
+            assertTrue(data.contains("a"));
+            assertTrue(data.contains("c"));
+            assertFalse(data.contains("d"));
+        }
+
+        @Test
+        @DisplayName("Should reject a file with a corrupt header")
+        void shouldRejectCorruptHeader() {
+            byte[] data = ReferenceListData.encode(ReferenceListValueType.STRING, List.of("a"));
+            data[11] = 42;
+
+            assertThrows(IllegalStateException.class, () -> ReferenceListData.wrap(data));
+        }
+
+        @Test
+        @DisplayName("Should match nothing when empty")
+        void shouldMatchNothingWhenEmpty() {
+            ReferenceListData data = ReferenceListData.empty(ReferenceListValueType.STRING);
+
+            assertEquals(0, data.size());
+            assertFalse(data.contains("a"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Handles")
+    class Handles {
+
+        @Test
+        @DisplayName("Should let IN and NOT_IN see a swapped version without re-preparing the operand")
+        void shouldSeeSwappedVersion() {
+            ReferenceListHandle handle = new ReferenceListHandle(UUID.randomUUID(), 1,
+                    ReferenceListData.wrap(ReferenceListData.encode(ReferenceListValueType.STRING, List.of("a"))));
+            InOperator in = new InOperator();
+            NotInOperator notIn = new NotInOperator();
+            Object prepared = in.prepareOperand(handle);
+
+            assertSame(handle, prepared);
+            assertTrue(in.evaluate("a", prepared));
+            assertFalse(in.evaluate("b", prepared));
+
+            handle.swap(2, ReferenceListData.wrap(
+                    ReferenceListData.encode(ReferenceListValueType.STRING, List.of("b"))));
+
+            assertEquals(2, handle.getVersion());
+            assertFalse(in.evaluate("a", prepared));
+            assertTrue(in.evaluate("b", prepared));
+            assertTrue(notIn.evaluate("a", notIn.prepareOperand(handle)));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.entity.Rule;
+import com.example.ruleengine.entity.enums.FeatureType;
+import com.example.ruleengine.event.EntityChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class RuleStatisticsRegistryTest {
+
+    private final PlanFixture fixture = new PlanFixture();
+
+    @Test
+    @DisplayName("Should record a sample of evaluations without skewing the pass rate")
+    void testSamplesEvaluations() {
+        RuleStatisticsRegistry registry = new RuleStatisticsRegistry(16);
+        LeafPlanNode leaf = fixture.leaf(fixture.rule("amount", FeatureType.NUMERIC, "GT", 100), new ArrayList<>());
+
+        for (int i = 0; i < 16_000; i++) {
+            registry.record(leaf, i % 4 == 0);
+        }
+
+        RuleStatistics statistics = registry.getStatistics(leaf);
+        assertTrue(statistics.getEvaluations() > 500 && statistics.getEvaluations() < 1500);
+        assertEquals(0.25, (double) statistics.getPasses() / statistics.getEvaluations(), 0.1);
+    }
+
+    @Test
+    @DisplayName("Should keep statistics on the leaf and start fresh for a new rule version")
+    void testCachesStatisticsOnLeaf() {
+        RuleStatisticsRegistry registry = new RuleStatisticsRegistry(1);
+        Rule rule = fixture.rule("amount", FeatureType.NUMERIC, "GT", 100);
+        LeafPlanNode leaf = fixture.leaf(rule, new ArrayList<>());
+
+        registry.record(leaf, true);
+        assertSame(leaf.getStatistics(), registry.getStatistics(leaf));
+        assertSame(leaf.getStatistics(), registry.getStatistics(fixture.leaf(rule, new ArrayList<>())));
+
+        rule.setVersion(2);
+        assertEquals(0, registry.getStatistics(fixture.leaf(rule, new ArrayList<>())).getEvaluations());
+    }
+
+    @Test
+    @DisplayName("Should drop rule statistics only when the rule is deleted")
+    void testRuleDeleteDropsStatistics() {
+        RuleStatisticsRegistry registry = new RuleStatisticsRegistry(1);
+        PlanCacheInvalidator invalidator = new PlanCacheInvalidator(mock(CompiledPolicyCache.class),
+                mock(CompiledPolicySetCache.class), mock(ReferenceListStore.class), mock(PolicyNetworkCache.class),
+                registry);
+        Rule rule = fixture.rule("amount", FeatureType.NUMERIC, "GT", 100);
+        registry.record(fixture.leaf(rule, new ArrayList<>()), true);
+
+        invalidator.invalidate(new EntityChangedEvent(EntityChangedEvent.EntityType.RULE, rule.getId(), 1));
+        assertEquals(1, registry.getStatistics(fixture.leaf(rule, new ArrayList<>())).getEvaluations());
+
+        invalidator.invalidate(new EntityChangedEvent(EntityChangedEvent.EntityType.RULE, rule.getId(), null));
+        assertEquals(0, registry.getStatistics(fixture.leaf(rule, new ArrayList<>())).getEvaluations());
+    }
+}
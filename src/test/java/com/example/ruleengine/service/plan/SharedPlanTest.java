@@ -0,0 +1,190 @@
+package com.example.ruleengine.service.plan;
+
+import com.example.ruleengine.dto.response.PolicyEvaluationResultResponse;
+import com.example.ruleengine.entity.Rule;
+import com.example.ruleengine.entity.enums.EvaluationMode;
+import com.example.ruleengine.entity.enums.FeatureType;
+import com.example.ruleengine.entity.enums.LogicalOperator;
+import com.example.ruleengine.service.FeatureExtractionService;
+import com.example.ruleengine.service.PolicyEvaluationService;
+import com.example.ruleengine.service.TreeEvaluationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static com.example.ruleengine.service.plan.PlanFixture.slots;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedPlanTest {
+
+    private PlanFixture fixture;
+    private TreeEvaluationService treeEvaluationService;
+    private Rule age;
+    private Rule income;
+    private Rule score;
+    private Rule state;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new PlanFixture();
+        treeEvaluationService = fixture.treeEvaluationService;
+
+        age = fixture.rule("age", FeatureType.NUMERIC, "GT", 20);
+        income = fixture.rule("income", FeatureType.NUMERIC, "GT", 25000);
+        score = fixture.rule("score", FeatureType.NUMERIC, "LT", 600);
+        state = fixture.rule("state", FeatureType.STRING, "IN", List.of("CA", "NY"));
+    }
+
+    private CompiledPolicy eligibility() {
+        List<CompiledFeature> policyFeatures = new ArrayList<>();
+        return fixture.policy("eligibility", new CompositePlanNode(LogicalOperator.AND, List.of(
+                fixture.leaf(age, policyFeatures),
+                new CompositePlanNode(LogicalOperator.OR, List.of(
+                        fixture.leaf(income, policyFeatures), fixture.leaf(score, policyFeatures))))), policyFeatures);
+    }
+
+    private CompiledPolicy premium() {
+        List<CompiledFeature> policyFeatures = new ArrayList<>();
+        return fixture.policy("premium", new CompositePlanNode(LogicalOperator.AND, List.of(
+                new CompositePlanNode(LogicalOperator.OR, List.of(
+                        fixture.leaf(income, policyFeatures), fixture.leaf(score, policyFeatures))),
+                fixture.leaf(state, policyFeatures),
+                fixture.leaf(age, policyFeatures))), policyFeatures);
+    }
+
+    private CompiledPolicySet policySet(CompiledPolicy booleanPolicy, CompiledPolicy offerPolicy) {
+        return CompiledPolicySet.builder()
+                .name("loan")
+                .booleanPolicy(booleanPolicy)
+                .offerPolicies(List.of(new CompiledOfferPolicy(1, true, offerPolicy)))
+                .features(List.copyOf(fixture.features.values()))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should merge identical rules and subtrees across policies and memoize only those")
+    void testMergesSharedNodes() {
+        CompiledPolicy eligibility = eligibility();
+        CompiledPolicy premium = premium();
+
+        SharedPlan plan = policySet(eligibility, premium).getSharedPlan(EvaluationMode.EXHAUSTIVE);
+
+        CompositePlanNode eligibilityRoot = (CompositePlanNode) plan.getRoot(eligibility);
+        CompositePlanNode premiumRoot = (CompositePlanNode) plan.getRoot(premium);
+        assertSame(eligibilityRoot.getChildren().get(0), premiumRoot.getChildren().get(2));
+        assertSame(eligibilityRoot.getChildren().get(1), premiumRoot.getChildren().get(0));
+        assertEquals(2, plan.getMemoSize());
+        assertTrue(premiumRoot.getChildren().get(1).getMemoIndex() < 0);
+        assertTrue(eligibility.getRoot().getMemoIndex() < 0);
+    }
+
+    @Test
+    @DisplayName("Should give every policy its independent result and trace while evaluating shared nodes once")
+    void testMatchesIndependentEvaluation() {
+        CompiledPolicy eligibility = eligibility();
+        CompiledPolicy premium = premium();
+        CompiledPolicySet policySet = policySet(eligibility, premium);
+
+        Object[][] candidates = {{21, 18}, {20000, 30000}, {500, 700}, {"CA", "TX"}};
+        Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            Map<String, Object> input = new HashMap<>();
+            int column = 0;
+            for (String name : fixture.features.keySet()) {
+                input.put(name, candidates[column][random.nextInt(candidates[column].length)]);
+                column++;
+            }
+            for (EvaluationMode mode : EvaluationMode.values()) {
+                SharedPlan plan = policySet.getSharedPlan(mode);
+                FeatureSlots shared = slots(plan.getSlotLayout(), input);
+                SubexpressionMemo memo = new SubexpressionMemo(plan.getMemoSize());
+
+                for (CompiledPolicy policy : List.of(eligibility, premium)) {
+                    FeatureSlots own = slots(policy.getSlotLayout(), input);
+                    EvaluationTrace expectedTrace = new EvaluationTrace(mode);
+                    EvaluationTrace sharedTrace = new EvaluationTrace(mode);
+
+                    boolean expected = treeEvaluationService.evaluate(policy.getRoot(), own, expectedTrace);
+
+                    assertEquals(expected, treeEvaluationService.evaluate(plan.getRoot(policy), shared, sharedTrace,
+                            memo), mode + " " + input);
+                    assertEquals(treeEvaluationService.explain(policy.getRoot(), own, expectedTrace),
+                            treeEvaluationService.explain(plan.getRoot(policy), shared, sharedTrace));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should evaluate a rule shared by both policies once per request")
+    void testEvaluatesSharedRuleOnce() {
+        CompiledPolicy eligibility = eligibility();
+        CompiledPolicy premium = premium();
+        SharedPlan plan = policySet(eligibility, premium).getSharedPlan(EvaluationMode.EXHAUSTIVE);
+        FeatureSlots slots = slots(plan.getSlotLayout(), Map.of("age", 30, "income", 30000, "score", 650,
+                "state", "CA"));
+        SubexpressionMemo memo = new SubexpressionMemo(plan.getMemoSize());
+
+        assertTrue(treeEvaluationService.evaluate(plan.getRoot(eligibility), slots,
+                new EvaluationTrace(EvaluationMode.EXHAUSTIVE), memo));
+        assertTrue(treeEvaluationService.evaluate(plan.getRoot(premium), slots,
+                new EvaluationTrace(EvaluationMode.EXHAUSTIVE), memo));
+
+        LeafPlanNode incomeLeaf = (LeafPlanNode) ((CompositePlanNode) ((CompositePlanNode) plan.getRoot(premium))
+                .getChildren().get(0)).getChildren().get(0);
+        assertEquals(1, fixture.ruleStatisticsRegistry.getStatistics(incomeLeaf).getEvaluations());
+    }
+
+    @Test
+    @DisplayName("Should warm up a policy evaluated through the shared plan and then run its generated evaluator")
+    void testSharedEvaluationReachesGeneratedEvaluator() throws Exception {
+        CompiledPolicy eligibility = eligibility();
+        CompiledPolicySet policySet = policySet(eligibility, premium());
+        PolicyBytecodeCompiler compiler = new PolicyBytecodeCompiler(fixture.ruleStatisticsRegistry, true, 3);
+        PolicyEvaluationService policyEvaluationService = new PolicyEvaluationService(null, null,
+                new FeatureExtractionService(), treeEvaluationService, null, compiler, null,
+                fixture.ruleEvaluationService);
+        Map<String, Object> input = Map.of("age", 30, "income", 30000, "score", 650, "state", "CA");
+        EvaluationMode mode = EvaluationMode.SHORT_CIRCUIT;
+
+        for (int i = 0; i < 100 && eligibility.getBytecodeTier().getEvaluator(mode) == null; i++) {
+            policyEvaluationService.evaluatePolicy(eligibility,
+                    policyEvaluationService.startSharedEvaluation(policySet, new EvaluationContext(input), mode), mode);
+            Thread.sleep(20);
+        }
+        assertNotNull(eligibility.getBytecodeTier().getEvaluator(mode));
+
+        SharedEvaluation shared = policyEvaluationService.startSharedEvaluation(policySet,
+                new EvaluationContext(input), mode);
+        PolicyEvaluationResultResponse result = policyEvaluationService.evaluatePolicy(eligibility, shared, mode);
+
+        assertTrue(result.getTreeResult().isResult());
+        for (int i = 0; i < shared.getPlan().getMemoSize(); i++) {
+            assertFalse(shared.getMemo().isEvaluated(i));
+        }
+        compiler.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should rebuild the plan once PlanOptimizer reorders a policy")
+    void testRebuildsAfterReordering() {
+        CompiledPolicy eligibility = eligibility();
+        CompiledPolicySet policySet = policySet(eligibility, premium());
+        SharedPlan plan = policySet.getSharedPlan(EvaluationMode.SHORT_CIRCUIT);
+
+        assertSame(plan, policySet.getSharedPlan(EvaluationMode.SHORT_CIRCUIT));
+
+        CompositePlanNode root = (CompositePlanNode) eligibility.getRoot();
+        eligibility.setOptimizedRoot(new CompositePlanNode(LogicalOperator.AND,
+                List.of(root.getChildren().get(1), root.getChildren().get(0))));
+
+        SharedPlan rebuilt = policySet.getSharedPlan(EvaluationMode.SHORT_CIRCUIT);
+        assertNotSame(plan, rebuilt);
+        assertEquals(LogicalOperator.OR,
+                ((CompositePlanNode) ((CompositePlanNode) rebuilt.getRoot(eligibility)).getChildren().get(0))
+                        .getOperator());
+        assertSame(rebuilt, policySet.getSharedPlan(EvaluationMode.SHORT_CIRCUIT));
+    }
+}